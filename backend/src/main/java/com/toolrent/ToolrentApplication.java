@@ -2,8 +2,10 @@ package com.toolrent;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+/* Sin ConnectionFactory autoconfigurado: su sola presencia desactiva el DataSource JDBC de JPA (ReactiveReadConfig) */
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ToolrentApplication {
 
 	public static void main(String[] args) {
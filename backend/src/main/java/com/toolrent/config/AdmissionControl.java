@@ -0,0 +1,236 @@
+package com.toolrent.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+ * Control de admisión para los endpoints caros (/reports y /kardex): un usuario pidiendo reportes en bucle
+ * no debe dejar sin hilos ni conexiones a préstamos y devoluciones.
+ * - Token bucket por usuario (SecurityConfig.getCurrentUsername) y por clase de endpoint: ráfaga de 'burst'
+ *   peticiones y recarga continua de 'per-minute'. Sin tokens → 429 con Retry-After (lo que falta para el próximo).
+ * - Bulkhead por clase: como máximo 'max-concurrent' peticiones en curso, sin cola. Lleno → 503 con Retry-After.
+ *   Los endpoints transaccionales no pasan por aquí y no compiten por esos cupos.
+ * Corre en el DispatcherServlet, después de la cadena de seguridad: el usuario ya está autenticado.
+ * Solo coordina esta instancia; con varias réplicas del backend cada una aplica sus propios límites.
+ */
+@Component
+@ConditionalOnProperty(prefix = "toolrent.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControl implements HandlerInterceptor {
+
+    public enum EndpointClass {
+        REPORTS("/reports"),
+        KARDEX("/kardex");
+
+        private final String prefix;
+
+        EndpointClass(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+
+        static EndpointClass of(String path) {
+            for (EndpointClass endpoint : values()) {
+                if (path.equals(endpoint.prefix) || path.startsWith(endpoint.prefix + "/")) {
+                    return endpoint;
+                }
+            }
+            return null;
+        }
+    }
+
+    public record Limits(int burst, double perMinute, int maxConcurrent) {
+    }
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControl.class.getName() + ".permit";
+
+    private final Map<EndpointClass, Limits> limits;
+    private final Map<EndpointClass, Semaphore> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final long bulkheadRetryAfterSeconds;
+    private final LongSupplier nanoTime;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Map<EndpointClass, LongAdder> admitted = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LongAdder> rateLimited = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LongAdder> shed = new EnumMap<>(EndpointClass.class);
+
+    @Autowired
+    public AdmissionControl(@Value("${toolrent.admission.reports.burst:10}") int reportsBurst,
+                            @Value("${toolrent.admission.reports.per-minute:30}") double reportsPerMinute,
+                            @Value("${toolrent.admission.reports.max-concurrent:4}") int reportsMaxConcurrent,
+                            @Value("${toolrent.admission.kardex.burst:10}") int kardexBurst,
+                            @Value("${toolrent.admission.kardex.per-minute:60}") double kardexPerMinute,
+                            @Value("${toolrent.admission.kardex.max-concurrent:4}") int kardexMaxConcurrent,
+                            @Value("${toolrent.admission.bulkhead-retry-after-seconds:2}") long bulkheadRetryAfterSeconds) {
+        this(Map.of(EndpointClass.REPORTS, new Limits(reportsBurst, reportsPerMinute, reportsMaxConcurrent),
+                        EndpointClass.KARDEX, new Limits(kardexBurst, kardexPerMinute, kardexMaxConcurrent)),
+                bulkheadRetryAfterSeconds, System::nanoTime);
+    }
+
+    AdmissionControl(Map<EndpointClass, Limits> limits, long bulkheadRetryAfterSeconds, LongSupplier nanoTime) {
+        this.limits = new EnumMap<>(limits);
+        this.bulkheadRetryAfterSeconds = bulkheadRetryAfterSeconds;
+        this.nanoTime = nanoTime;
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            bulkheads.put(endpoint, new Semaphore(limits.get(endpoint).maxConcurrent()));
+            admitted.put(endpoint, new LongAdder());
+            rateLimited.put(endpoint, new LongAdder());
+            shed.put(endpoint, new LongAdder());
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // Dispatch async o de error: la petición ya fue admitida (y conserva su cupo hasta afterCompletion)
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointClass endpoint = EndpointClass.of(path);
+        if (endpoint == null) {
+            return true;
+        }
+        // Estado y cancelación de trabajos: baratos y el frontend los consulta seguido
+        boolean jobs = path.startsWith("/reports/jobs");
+        if (jobs && !HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+
+        String user = Objects.requireNonNullElse(SecurityConfig.getCurrentUsername(), "system");
+        long waitNanos = bucket(endpoint, user).tryConsume(nanoTime.getAsLong());
+        if (waitNanos > 0) {
+            rateLimited.get(endpoint).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, ceilSeconds(waitNanos),
+                    "Demasiadas consultas seguidas, intente nuevamente en unos segundos");
+            return false;
+        }
+
+        // Encolar un trabajo no ocupa cupo: tiene su propia cola acotada (reportJobExecutor)
+        if (!jobs) {
+            if (!bulkheads.get(endpoint).tryAcquire()) {
+                shed.get(endpoint).increment();
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, bulkheadRetryAfterSeconds,
+                        "Servicio de consultas ocupado, intente nuevamente en unos segundos");
+                return false;
+            }
+            request.setAttribute(PERMIT_ATTRIBUTE, endpoint);
+        }
+        admitted.get(endpoint).increment();
+        return true;
+    }
+
+    // También se llama al final del último dispatch de una petición async
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        EndpointClass endpoint = (EndpointClass) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (endpoint != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            bulkheads.get(endpoint).release();
+        }
+    }
+
+    private TokenBucket bucket(EndpointClass endpoint, String user) {
+        return buckets.computeIfAbsent(endpoint.tag() + ":" + user,
+                k -> new TokenBucket(limits.get(endpoint), nanoTime.getAsLong()));
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /* Un bucket lleno equivale a uno nuevo: se descartan para que el mapa no crezca con cada usuario visto */
+    @Scheduled(fixedDelayString = "${toolrent.admission.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long now = nanoTime.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    public int active(EndpointClass endpoint) {
+        return limits.get(endpoint).maxConcurrent() - bulkheads.get(endpoint).availablePermits();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buckets", buckets.size());
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            stats.put(endpoint.tag() + ".admitted", admitted.get(endpoint).sum());
+            stats.put(endpoint.tag() + ".rateLimited", rateLimited.get(endpoint).sum());
+            stats.put(endpoint.tag() + ".shed", shed.get(endpoint).sum());
+            stats.put(endpoint.tag() + ".active", active(endpoint));
+        }
+        return stats;
+    }
+
+    /* Recarga perezosa: los tokens se calculan al consultar, sin hilo que los reponga */
+    static final class TokenBucket {
+        private final int capacity;
+        private final double nanosPerToken;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(Limits limits, long now) {
+            this.capacity = limits.burst();
+            this.nanosPerToken = limits.perMinute() > 0 ? TimeUnit.MINUTES.toNanos(1) / limits.perMinute()
+                    : Double.POSITIVE_INFINITY;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /* 0 si hubo token; si no, nanosegundos hasta el próximo */
+        synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.min(Math.ceil((1 - tokens) * nanosPerToken), TimeUnit.MINUTES.toNanos(1));
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) / nanosPerToken);
+            refilledAt = now;
+        }
+    }
+}
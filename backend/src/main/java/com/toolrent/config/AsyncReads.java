@@ -0,0 +1,190 @@
+package com.toolrent.config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Lecturas lentas (reportes, kardex) fuera de los hilos de Tomcat: el controlador retorna un DeferredResult y el
+ * hilo vuelve al pool mientras la consulta corre en readQueryExecutor (acotado y separado de préstamos y
+ * devoluciones, que siguen siendo síncronos).
+ * - Cola llena → 503 con Retry-After, sin esperar.
+ * - Pasado toolrent.reads.async.timeout-ms → 503 y la consulta se cancela en la BD (Session.cancelQuery, es decir
+ *   Statement.cancel: en MySQL un KILL QUERY). Cada consulta lleva además ese mismo timeout JDBC como respaldo.
+ * La consulta corre en una transacción readOnly propia (réplica si está activa) con el usuario y las estadísticas
+ * SQL de la petición (ReportExecutorConfig.decorate). El resultado sale de la transacción ya cargado: las
+ * consultas del kardex traen sus relaciones con JOIN FETCH y los reportes retornan DTOs.
+ * supplyAsync da la misma cancelación a quien arma su propio futuro (secciones del dashboard) y execute a quien
+ * maneja su propio hilo (trabajos de reporte, con su RunningQuery para cancelarlos).
+ */
+@Component
+public class AsyncReads {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncReads.class);
+
+    private static final String QUERY_TIMEOUT = "jakarta.persistence.query.timeout";
+
+    private final AsyncTaskExecutor executor;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnly;
+    private final long timeoutMs;
+    private final long retryAfterSeconds;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AsyncReads(@Qualifier("readQueryExecutor") AsyncTaskExecutor executor,
+                      EntityManager entityManager,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${toolrent.reads.async.timeout-ms:10000}") long timeoutMs,
+                      @Value("${toolrent.reads.async.retry-after-seconds:5}") long retryAfterSeconds) {
+        this.executor = executor;
+        this.entityManager = entityManager;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public <T> DeferredResult<ResponseEntity<T>> submit(Supplier<T> query) {
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(timeoutMs);
+        RunningQuery running = new RunningQuery();
+        try {
+            running.future = executor.submit(() -> {
+                try {
+                    T body = readOnly.execute(status -> running.run(entityManager, timeoutMs, query));
+                    completed.increment();
+                    result.setResult(ResponseEntity.ok(body));
+                } catch (RuntimeException ex) {
+                    if (!running.cancelled) {
+                        failed.increment();
+                    }
+                    result.setErrorResult(ex); // tras el timeout se ignora: ya se respondió 503
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            rejected.increment();
+            result.setResult(unavailable());
+            return result;
+        }
+        result.onTimeout(() -> {
+            timedOut.increment();
+            running.cancel();
+            result.setResult(unavailable());
+        });
+        return result;
+    }
+
+    /*
+     * La consulta corre en 'executor' con la misma transacción readOnly y timeout JDBC. Si el futuro vence
+     * (timeoutMs, TimeoutException) o se cancela, la consulta se cancela en la BD y, si aún esperaba en la cola,
+     * ya no corre: el hilo y la conexión quedan libres para las siguientes. Pool lleno → futuro fallido.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Executor executor, long timeoutMs, Supplier<T> query) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        RunningQuery running = new RunningQuery();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return; // venció o se canceló mientras esperaba en la cola
+                }
+                try {
+                    future.complete(readOnly.execute(status -> running.run(entityManager, timeoutMs, query)));
+                } catch (RuntimeException ex) {
+                    future.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) { // incluye TaskRejectedException
+            return CompletableFuture.failedFuture(ex);
+        }
+        future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        running.cancel(); // sin efecto si la consulta ya terminó
+                    }
+                });
+        return future;
+    }
+
+    /* En el hilo actual, con la transacción readOnly y el timeout JDBC; running.cancel() la corta en la BD */
+    public <T> T execute(RunningQuery running, long timeoutMs, Supplier<T> query) {
+        return readOnly.execute(status -> running.run(entityManager, timeoutMs, query));
+    }
+
+    private <T> ResponseEntity<T> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+
+    /* Consulta en curso: publica su sesión para que el hilo del timeout (o de la cancelación) la pueda cancelar */
+    public static final class RunningQuery {
+        private volatile Future<?> future;
+        private volatile Session session;
+        private volatile boolean cancelled;
+
+        <T> T run(EntityManager entityManager, long timeoutMs, Supplier<T> query) {
+            entityManager.setProperty(QUERY_TIMEOUT, timeoutMs);
+            session = entityManager.unwrap(Session.class);
+            try {
+                // Venció mientras esperaba en la cola o abría la transacción
+                if (cancelled) {
+                    throw new CancellationException("Consulta cancelada por timeout");
+                }
+                return query.get();
+            } finally {
+                session = null;
+            }
+        }
+
+        public void cancel() {
+            cancelled = true;
+            Session current = session;
+            if (current != null) {
+                try {
+                    current.cancelQuery(); // único método de Session que se puede llamar desde otro hilo
+                } catch (RuntimeException ex) {
+                    log.debug("No se pudo cancelar la consulta: {}", ex.getMessage());
+                }
+            }
+            Future<?> pending = future;
+            if (pending != null) {
+                pending.cancel(false); // si sigue en la cola ya no corre; sin interrupt (cerraría la conexión JDBC)
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.toolrent.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/*
+ * Respuestas binarias para cualquier controlador: Accept: application/x-jackson-smile o application/cbor.
+ * Spring MVC ya agrega estos convertidores si las librerías están en el classpath, pero con un ObjectMapper
+ * propio; acá se arman con el builder de Spring Boot (spring.jackson.*, JavaTimeModule, fechas ISO)
+ * para que el contenido sea el mismo que en JSON. JSON sigue primero: sin Accept o con comodín → JSON.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    // El builder de Spring Boot es prototype: cada convertidor recibe uno nuevo
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
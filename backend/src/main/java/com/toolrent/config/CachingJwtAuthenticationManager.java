@@ -0,0 +1,145 @@
+package com.toolrent.config;
+
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * AuthenticationManager de la cadena de la API: recuerda la autenticación ya verificada de cada token.
+ * El cliente repite el mismo token en todas sus llamadas mientras no vence; sin caché cada una vuelve a
+ * verificar la firma RSA, parsear los claims y convertir los roles.
+ *
+ * - Clave: SHA-256 del token (no se guarda el token en sí).
+ * - Vence con el exp del token, y como máximo maxTtl después de verificarlo.
+ * - Acotada a maxEntries: llena, se purgan los vencidos (como mucho una vez por segundo) y si no alcanza
+ *   el token nuevo simplemente no se cachea.
+ * - Cada petición recibe su propio JwtAuthenticationToken (los details son de la petición), con el Jwt y
+ *   las authorities compartidos.
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+    private record Entry(JwtAuthenticationToken authentication, Instant expiresAt) {
+    }
+
+    private final AuthenticationProvider delegate;
+    private final int maxEntries;
+    private final Duration maxTtl;
+    private final Clock clock;
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public CachingJwtAuthenticationManager(AuthenticationProvider delegate, int maxEntries, Duration maxTtl,
+                                           Clock clock) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+        String key = hash(bearer.getToken());
+        Instant now = clock.instant();
+
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            if (now.isBefore(entry.expiresAt())) {
+                hits.increment();
+                return forRequest(entry.authentication(), bearer);
+            }
+            cache.remove(key, entry);
+        }
+
+        misses.increment();
+        Authentication verified = delegate.authenticate(bearer); // lanza si la firma o el token no son válidos
+        if (verified instanceof JwtAuthenticationToken jwtAuthentication) {
+            Instant expiresAt = expiresAt(jwtAuthentication.getToken(), now);
+            if (expiresAt != null) {
+                store(key, new Entry(jwtAuthentication, expiresAt), now);
+            }
+        }
+        return verified;
+    }
+
+    private static JwtAuthenticationToken forRequest(JwtAuthenticationToken cached, BearerTokenAuthenticationToken bearer) {
+        JwtAuthenticationToken token = new JwtAuthenticationToken(cached.getToken(), cached.getAuthorities(),
+                cached.getName());
+        token.setDetails(bearer.getDetails());
+        return token;
+    }
+
+    private Instant expiresAt(Jwt jwt, Instant now) {
+        Instant exp = jwt.getExpiresAt();
+        if (exp == null) {
+            return null; // sin exp no hay cómo acotar la vigencia: no se cachea
+        }
+        Instant cap = now.plus(maxTtl);
+        return exp.isBefore(cap) ? exp : cap;
+    }
+
+    private void store(String key, Entry entry, Instant now) {
+        if (cache.size() >= maxEntries) {
+            purgeExpired(now);
+            if (cache.size() >= maxEntries) {
+                skipped.increment();
+                return;
+            }
+        }
+        cache.put(key, entry);
+    }
+
+    private void purgeExpired(Instant now) {
+        long last = lastPurge.get();
+        long nowMillis = now.toEpochMilli();
+        if (nowMillis - last < 1000 || !lastPurge.compareAndSet(last, nowMillis)) {
+            return;
+        }
+        cache.values().removeIf(e -> !now.isBefore(e.expiresAt()));
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex); // SHA-256 es obligatorio en toda JVM
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("skipped", skipped.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,45 @@
+package com.toolrent.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Convierte un Flux de elementos en los trozos de texto de un arreglo JSON: "[", lotes de elementos
+ * separados por comas y "]". Spring MVC escribe y vacía cada trozo a medida que llega y pide el siguiente
+ * solo después (backpressure hasta el driver R2DBC), así el arreglo completo nunca queda en memoria.
+ * Para el cliente es un arreglo JSON normal, igual al de los endpoints JPA.
+ */
+public final class JsonArrayStream {
+
+    private JsonArrayStream() {
+    }
+
+    public static Flux<String> of(Flux<?> elements, ObjectMapper mapper, int batchSize) {
+        return Flux.defer(() -> {
+            AtomicBoolean first = new AtomicBoolean(true);
+            Flux<String> body = elements
+                    .buffer(batchSize)
+                    .map(batch -> (first.getAndSet(false) ? "" : ",") + join(batch, mapper));
+            return Flux.concat(Flux.just("["), body, Flux.just("]"));
+        });
+    }
+
+    private static String join(List<?> batch, ObjectMapper mapper) {
+        StringBuilder chunk = new StringBuilder();
+        for (Object element : batch) {
+            if (!chunk.isEmpty()) {
+                chunk.append(',');
+            }
+            try {
+                chunk.append(mapper.writeValueAsString(element));
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("No se pudo serializar " + element.getClass().getSimpleName(), ex);
+            }
+        }
+        return chunk.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.toolrent.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+
+/*
+ * Validación de los JWT de Keycloak para la cadena de la API.
+ * - Decoder con el JWK set en caché local que se refresca en segundo plano antes de vencer: ninguna petición
+ *   espera la descarga de las llaves (el decoder por defecto la hace en línea cuando vence su caché).
+ * - AuthenticationManager que cachea la autenticación verificada por token (CachingJwtAuthenticationManager).
+ */
+@Configuration
+public class JwtConfig {
+
+    /* Si ya hay un JwtDecoder (loadtest, tests) se usa ese */
+    @Bean
+    @ConditionalOnMissingBean(JwtDecoder.class)
+    public JwtDecoder keycloakJwtDecoder(
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}") String jwkSetUri,
+            @Value("${toolrent.security.jwks.ttl-seconds:300}") long ttlSeconds,
+            @Value("${toolrent.security.jwks.refresh-ahead-seconds:30}") long refreshAheadSeconds)
+            throws MalformedURLException {
+
+        String certs = jwkSetUri.isBlank() ? issuer + "/protocol/openid-connect/certs" : jwkSetUri;
+        JWKSource<SecurityContext> keys = JWKSourceBuilder.<SecurityContext>create(URI.create(certs).toURL())
+                .cache(Duration.ofSeconds(ttlSeconds).toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                .refreshAheadCache(Duration.ofSeconds(refreshAheadSeconds).toMillis(), true) // hilo propio
+                .retrying(true)
+                .build();
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keys));
+        processor.setJWTClaimsSetVerifier((claims, context) -> { }); // exp, nbf e iss los valida Spring
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+
+    @Bean
+    public CachingJwtAuthenticationManager jwtAuthenticationManager(
+            JwtDecoder jwtDecoder,
+            @Value("${toolrent.security.jwt-cache.max-entries:10000}") int maxEntries,
+            @Value("${toolrent.security.jwt-cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter()); // extrae roles de Keycloak
+
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(converter);
+        return new CachingJwtAuthenticationManager(provider, maxEntries, Duration.ofSeconds(maxTtlSeconds),
+                Clock.systemUTC());
+    }
+}
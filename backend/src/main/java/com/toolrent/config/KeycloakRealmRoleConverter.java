@@ -0,0 +1,47 @@
+package com.toolrent.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * extrae roles de Keycloak (realm_access.roles → ROLE_*)
+ * Hay pocas combinaciones de roles (ADMIN, EMPLOYEE, ...): cada combinación se convierte una vez y
+ * todas las peticiones con la misma comparten la lista inmutable de authorities.
+ */
+public class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private static final int MAX_COMBINATIONS = 256; // tope por si llegan tokens con roles arbitrarios
+
+    private final Map<List<?>, List<GrantedAuthority>> interned = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        // ➜ cast SEGURO con instanceof
+        Object realmAccessObj = jwt.getClaims().get("realm_access");
+        if (realmAccessObj instanceof Map<?, ?> realmAccess
+                && realmAccess.get("roles") instanceof List<?> roles) {
+            List<GrantedAuthority> cached = interned.get(roles);
+            if (cached != null) {
+                return cached;
+            }
+            List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+            roles.forEach(r -> authorities.add(new SimpleGrantedAuthority("ROLE_" + r)));
+            List<GrantedAuthority> result = Collections.unmodifiableList(authorities);
+            if (interned.size() < MAX_COMBINATIONS) {
+                // clave copiada: la lista del claim pertenece al token
+                interned.putIfAbsent(Collections.unmodifiableList(new ArrayList<>(roles)), result);
+            }
+            return result;
+        }
+        return List.of();
+    }
+}
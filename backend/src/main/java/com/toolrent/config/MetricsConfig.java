@@ -0,0 +1,145 @@
+package com.toolrent.config;
+
+import com.toolrent.coordination.InvalidationBus;
+import com.toolrent.services.ReportJobService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+ * Métricas propias de la aplicación. El resto las registra Spring Boot:
+ * http.server.requests (por endpoint), spring.data.repository.invocations (por método de repositorio),
+ * hikaricp.connections.* (por pool), executor.* (por pool de hilos) e hibernate.* (estadísticas de sesión).
+ */
+@Configuration
+public class MetricsConfig {
+
+    /* Trabajos de reporte: cola, trabajadores y contadores por estado final */
+    @Bean
+    public MeterBinder reportJobMetrics(ReportJobService reportJobService) {
+        return registry -> {
+            Gauge.builder("toolrent.reports.jobs.queued", reportJobService, ReportJobService::getQueueDepth)
+                    .description("Trabajos de reporte esperando un hilo")
+                    .register(registry);
+            Gauge.builder("toolrent.reports.jobs.stored", reportJobService, s -> stat(s::getStats, "storedJobs"))
+                    .description("Trabajos de reporte en memoria (incluye terminados no vencidos)")
+                    .register(registry);
+            for (String outcome : new String[]{"submitted", "rejected", "completed", "failed", "cancelled"}) {
+                FunctionCounter.builder("toolrent.reports.jobs", reportJobService, s -> stat(s::getStats, outcome))
+                        .tag("outcome", outcome)
+                        .register(registry);
+            }
+        };
+    }
+
+    /* Enrutamiento primario/réplica (solo si toolrent.datasource.replica.enabled=true) */
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ObjectProvider<ReplicaRoutingDataSource> routingDataSource) {
+        return registry -> routingDataSource.ifAvailable(routing -> {
+            FunctionCounter.builder("toolrent.datasource.routed", routing, r -> stat(r::getStats, "primaryConnections"))
+                    .tag("target", "primary")
+                    .register(registry);
+            FunctionCounter.builder("toolrent.datasource.routed", routing, r -> stat(r::getStats, "replicaConnections"))
+                    .tag("target", "replica")
+                    .register(registry);
+            FunctionCounter.builder("toolrent.datasource.read.your.writes", routing,
+                            r -> stat(r::getStats, "readYourWritesReads"))
+                    .description("Lecturas readOnly enviadas al primario por una escritura reciente del usuario")
+                    .register(registry);
+        });
+    }
+
+    /* Locks por franja: adquisiciones totales y timeouts; la espera por franja la registra StripedLockManager
+       en el Timer toolrent.locks.contended (tag stripe) */
+    @Bean
+    public MeterBinder stripedLockMetrics(StripedLockManager locks) {
+        return registry -> {
+            FunctionCounter.builder("toolrent.locks.acquisitions", locks, l -> stat(l::getStats, "acquisitions"))
+                    .register(registry);
+            FunctionCounter.builder("toolrent.locks.timeouts", locks, l -> stat(l::getStats, "timeouts"))
+                    .description("Adquisiciones que superaron toolrent.locks.timeout-ms")
+                    .register(registry);
+        };
+    }
+
+    /* Bus de invalidación: eventos publicados por esta instancia y recibidos de las otras */
+    @Bean
+    public MeterBinder invalidationBusMetrics(InvalidationBus bus) {
+        return registry -> {
+            FunctionCounter.builder("toolrent.coordination.events", bus, b -> stat(b::getStats, "published"))
+                    .tag("direction", "published")
+                    .register(registry);
+            FunctionCounter.builder("toolrent.coordination.events", bus, b -> stat(b::getStats, "received"))
+                    .description("Invalidaciones recibidas de otras instancias")
+                    .tag("direction", "received")
+                    .register(registry);
+            FunctionCounter.builder("toolrent.coordination.poll.errors", bus, b -> stat(b::getStats, "pollErrors"))
+                    .register(registry);
+        };
+    }
+
+    /* Caché de autenticación JWT: cada "miss" es una verificación de firma completa */
+    @Bean
+    public MeterBinder jwtCacheMetrics(CachingJwtAuthenticationManager jwtCache) {
+        return registry -> {
+            FunctionCounter.builder("toolrent.security.jwt.cache", jwtCache, m -> stat(m::getStats, "hits"))
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("toolrent.security.jwt.cache", jwtCache, m -> stat(m::getStats, "misses"))
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("toolrent.security.jwt.cache.size", jwtCache, CachingJwtAuthenticationManager::size)
+                    .register(registry);
+        };
+    }
+
+    /* Lecturas async de reportes y kardex: timeouts (consulta cancelada) y rechazos por pool lleno */
+    @Bean
+    public MeterBinder asyncReadMetrics(AsyncReads asyncReads) {
+        return registry -> {
+            for (String outcome : new String[]{"completed", "failed", "timedOut", "rejected"}) {
+                FunctionCounter.builder("toolrent.reads.async", asyncReads, r -> stat(r::getStats, outcome))
+                        .tag("outcome", outcome)
+                        .register(registry);
+            }
+        };
+    }
+
+    /* Control de admisión: rechazos por rate limit (429) y por bulkhead lleno (503), y peticiones en curso */
+    @Bean
+    public MeterBinder admissionMetrics(ObjectProvider<AdmissionControl> admissionControl) {
+        return registry -> admissionControl.ifAvailable(admission -> {
+            for (AdmissionControl.EndpointClass endpoint : AdmissionControl.EndpointClass.values()) {
+                String prefix = endpoint.tag() + ".";
+                FunctionCounter.builder("toolrent.admission.rejected", admission,
+                                a -> stat(a::getStats, prefix + "rateLimited"))
+                        .tag("endpoint", endpoint.tag())
+                        .tag("reason", "rate_limit")
+                        .register(registry);
+                FunctionCounter.builder("toolrent.admission.rejected", admission,
+                                a -> stat(a::getStats, prefix + "shed"))
+                        .tag("endpoint", endpoint.tag())
+                        .tag("reason", "bulkhead")
+                        .register(registry);
+                Gauge.builder("toolrent.admission.active", admission, a -> a.active(endpoint))
+                        .description("Peticiones en curso dentro del bulkhead")
+                        .tag("endpoint", endpoint.tag())
+                        .register(registry);
+            }
+            Gauge.builder("toolrent.admission.buckets", admission, AdmissionControl::bucketCount)
+                    .description("Token buckets vivos (usuario x clase de endpoint)")
+                    .register(registry);
+        });
+    }
+
+    private static double stat(Supplier<Map<String, Object>> stats, String key) {
+        Object value = stats.get().get(key);
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,106 @@
+package com.toolrent.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Reintento con backoff exponencial acotado para los métodos @RetryOnConflict.
+ * Corre por fuera de @Transactional (mayor precedencia que el TransactionInterceptor): cada intento es una
+ * transacción nueva que vuelve a leer el estado actual, así que las validaciones de negocio se reevalúan.
+ * En el caso común no hay conflicto y el costo es una llamada más en la pila, sin bloqueos en la BD.
+ *
+ * Métricas: toolrent.optimistic.calls{operation, outcome} y toolrent.optimistic.conflicts{operation};
+ * tasa de conflicto = conflicts / calls.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryAspect.class);
+
+    private final MeterRegistry registry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetryAspect(MeterRegistry registry,
+                                 @Value("${toolrent.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                 @Value("${toolrent.optimistic-retry.initial-backoff-ms:5}") long initialBackoffMs,
+                                 @Value("${toolrent.optimistic-retry.max-backoff-ms:100}") long maxBackoffMs) {
+        this.registry = registry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(0, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+    }
+
+    @Around("@annotation(com.toolrent.config.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+
+        // Dentro de una transacción ajena el reintento no sirve: la externa ya quedó marcada para rollback
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                calls(operation, attempt == 1 ? "success" : "retried").increment();
+                return result;
+            } catch (OptimisticLockingFailureException | OptimisticLockException ex) {
+                conflicts(operation).increment();
+                if (attempt >= maxAttempts) {
+                    calls(operation, "exhausted").increment();
+                    log.warn("{}: conflicto de versión tras {} intentos", operation, attempt);
+                    throw ex;
+                }
+                log.debug("{}: conflicto de versión en el intento {}, reintentando", operation, attempt);
+                backoff(attempt);
+            } catch (Throwable ex) {
+                calls(operation, "error").increment();
+                throw ex;
+            }
+        }
+    }
+
+    // Exponencial con jitter ("equal jitter"): entre la mitad y el total de min(max, inicial * 2^(n-1))
+    private void backoff(int attempt) throws InterruptedException {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        long half = ceiling / 2;
+        Thread.sleep(half + ThreadLocalRandom.current().nextLong(ceiling - half + 1));
+    }
+
+    private Counter calls(String operation, String outcome) {
+        return Counter.builder("toolrent.optimistic.calls")
+                .description("Operaciones con bloqueo optimista por resultado (success, retried, exhausted, error)")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Counter conflicts(String operation) {
+        return Counter.builder("toolrent.optimistic.conflicts")
+                .description("Commits rechazados por @Version (cada uno provoca un reintento o agota los intentos)")
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.toolrent.config;
+
+import com.toolrent.repositories.ReactiveReportRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+ * Ruta de lectura reactiva (R2DBC) para reportes y kardex, en paralelo a JPA, que sigue con todas las escrituras.
+ * El pool R2DBC no se publica como bean ConnectionFactory: con uno en el contexto Spring Boot desactiva el
+ * DataSource JDBC (por eso también se excluye R2dbcAutoConfiguration en ToolrentApplication).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "toolrent.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReactiveReportRepository reactiveReportRepository(
+            @Value("${toolrent.reactive.url}") String url,
+            @Value("${toolrent.reactive.username:${spring.datasource.username:}}") String username,
+            @Value("${toolrent.reactive.password:${spring.datasource.password:}}") String password,
+            @Value("${toolrent.reactive.pool.max-size:4}") int maxSize) {
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isBlank()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        // Pocas conexiones alcanzan: ninguna queda tomada mientras el cliente HTTP lee lento
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("reactive-reports")
+                .initialSize(1)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .build());
+        return new ReactiveReportRepository(pool);
+    }
+}
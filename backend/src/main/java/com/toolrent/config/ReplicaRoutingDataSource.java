@@ -0,0 +1,96 @@
+package com.toolrent.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Envía las transacciones readOnly a la réplica y el resto al primario.
+ * Tras un commit de escritura, las lecturas del mismo usuario siguen en el primario
+ * durante la ventana read-your-writes para no leer datos atrasados de la réplica.
+ * Debe envolverse en un LazyConnectionDataSourceProxy: así la conexión se pide cuando
+ * el flag readOnly de la transacción ya está definido.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final long readYourWritesNanos;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final Map<Route, LongAdder> routed = new EnumMap<>(Route.class);
+    private final LongAdder stickyReads = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(Route.PRIMARY, primary);
+        targets.put(Route.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        for (Route route : Route.values()) {
+            routed.put(route, new LongAdder());
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = SecurityConfig.getCurrentUsername();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        markWrite(user);
+                    }
+                });
+            }
+            return route(Route.PRIMARY);
+        }
+
+        if (wroteRecently(user)) {
+            stickyReads.increment();
+            return route(Route.PRIMARY);
+        }
+        return route(Route.REPLICA);
+    }
+
+    void markWrite(String user) {
+        lastWriteByUser.put(user, System.nanoTime());
+    }
+
+    private boolean wroteRecently(String user) {
+        Long last = lastWriteByUser.get(user);
+        if (last == null) {
+            return false;
+        }
+        if (System.nanoTime() - last < readYourWritesNanos) {
+            return true;
+        }
+        lastWriteByUser.remove(user, last);
+        return false;
+    }
+
+    private Route route(Route route) {
+        routed.get(route).increment();
+        return route;
+    }
+
+    /* Contadores de enrutamiento (conexiones pedidas por pool) */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("primaryConnections", routed.get(Route.PRIMARY).sum());
+        stats.put("replicaConnections", routed.get(Route.REPLICA).sum());
+        stats.put("readYourWritesReads", stickyReads.sum());
+        stats.put("readYourWritesWindowMs", readYourWritesNanos / 1_000_000);
+        return stats;
+    }
+}
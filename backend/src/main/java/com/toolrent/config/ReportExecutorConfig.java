@@ -0,0 +1,87 @@
+package com.toolrent.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrency.DelegatingSecurityContextRunnable;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class ReportExecutorConfig {
+
+    /* Pool acotado para las consultas del dashboard de reportes */
+    @Bean(name = "reportExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor reportExecutor(
+            @Value("${toolrent.reports.executor.pool-size:4}") int poolSize,
+            @Value("${toolrent.reports.executor.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-");
+        // Propaga el usuario actual (auditoría y ventana read-your-writes de la réplica)
+        // y las estadísticas SQL de la petición (Server-Timing)
+        executor.setTaskDecorator(ReportExecutorConfig::decorate);
+        // Cola llena → se rechaza y la sección se degrada en vez de bloquear Tomcat
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /* Modo hilos virtuales (spring.threads.virtual.enabled=true, Java 21+): un hilo virtual por sección,
+       con límite de concurrencia; el pool JDBC de Hikari es el que acota las conexiones reales */
+    @Bean(name = "reportExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualReportExecutor(
+            @Value("${toolrent.reports.executor.pool-size:4}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("report-vt-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskDecorator(ReportExecutorConfig::decorate);
+        return executor;
+    }
+
+    /* Pool de trabajos de reportes largos: separado del dashboard y de Tomcat */
+    @Bean(name = "reportJobExecutor")
+    public ThreadPoolTaskExecutor reportJobExecutor(
+            @Value("${toolrent.reports.jobs.pool-size:2}") int poolSize,
+            @Value("${toolrent.reports.jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        executor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /* Pool de las lecturas async de reportes y kardex (AsyncReads): los hilos de Tomcat no esperan a la BD */
+    @Bean(name = "readQueryExecutor")
+    public ThreadPoolTaskExecutor readQueryExecutor(
+            @Value("${toolrent.reads.async.pool-size:4}") int poolSize,
+            @Value("${toolrent.reads.async.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("read-");
+        executor.setTaskDecorator(ReportExecutorConfig::decorate);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    static Runnable decorate(Runnable task) {
+        return new DelegatingSecurityContextRunnable(RequestSqlStats.wrap(task));
+    }
+}
@@ -0,0 +1,63 @@
+package com.toolrent.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Sentencias SQL y tiempo en BD de la petición HTTP en curso.
+ * ServerTimingFilter la asocia al hilo de la petición; los executors de reportes la propagan con wrap()
+ * para que las secciones del dashboard sumen a la misma petición.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder dbNanos = new LongAdder();
+
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    static RequestSqlStats bind(RequestSqlStats stats) {
+        RequestSqlStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    static void restore(RequestSqlStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /* Ejecuta la tarea en otro hilo sumando a las estadísticas de la petición que la creó */
+    public static Runnable wrap(Runnable task) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestSqlStats previous = bind(stats);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    void record(long nanos) {
+        statements.increment();
+        dbNanos.add(nanos);
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public double getDbMillis() {
+        return dbNanos.sum() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.toolrent.config;
+
+import java.lang.annotation.*;
+
+/*
+ * Reintenta el método completo (con su transacción) si el commit choca con el @Version de otra escritura.
+ * Solo sirve en el punto de entrada: si ya hay una transacción abierta, el conflicto se propaga al llamador.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
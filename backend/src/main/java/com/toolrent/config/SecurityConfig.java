@@ -2,84 +2,85 @@ package com.toolrent.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.client.oidc.web.logout.OidcClientInitiatedLogoutSuccessHandler;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /*
+     * Cadena con sesión: solo las rutas del login por navegador (redirección a Keycloak, callback y logout).
+     * El flujo authorization_code necesita la sesión para guardar el state entre la ida y la vuelta.
+     */
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http,
-                                            ClientRegistrationRepository repo) throws Exception {
+    @Order(1)
+    SecurityFilterChain browserLoginFilterChain(HttpSecurity http,
+                                                ClientRegistrationRepository repo) throws Exception {
         http
+                .securityMatcher("/oauth2/**", "/login/**", "/logout")
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(s -> s
                         .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
-                        // NO STATELESS mientras se use login browser
-                        //.sessionManagement(s -> s.sessionCreationPolicy(STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+
+                .oauth2Login(withDefaults())
+                .logout(logout -> logout
+                        .logoutSuccessHandler(oidcLogoutSuccessHandler(repo)));
 
+        return http.build();
+    }
+
+    /*
+     * Cadena de la API REST (todo lo demás): solo JWT en Authorization: Bearer, sin sesión HTTP.
+     * STATELESS → el contexto no se guarda en la sesión ni se guarda la petición para redirigir al login;
+     * sin token la respuesta es 401 (no un 302 a Keycloak). El frontend ya manda el token en cada llamada.
+     * El token verificado se cachea hasta su exp (JwtConfig): las llamadas siguientes no repiten la firma.
+     */
+    @Bean
+    @Order(2)
+    SecurityFilterChain apiFilterChain(HttpSecurity http,
+                                       CachingJwtAuthenticationManager jwtAuthenticationManager) throws Exception {
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(s -> s
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .logout(AbstractHttpConfigurer::disable)
 
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/swagger-ui/**",
+                                "/swagger-ui.html",
                                 "/swagger-ui/index.html",
                                 "/v3/api-docs/**",
-                                "/login/oauth2/code/keycloak",
-                                "/error"               // SpringBoot devuelve 401/403 aquí
+                                "/api-docs/**",        // springdoc.api-docs.path
+                                "/error",              // SpringBoot devuelve 401/403 aquí
+                                "/actuator/health/**"
                         ).permitAll()
+                        // incluye /actuator/prometheus: el scraper usa un token de cuenta de servicio con rol ADMIN
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/users/**").hasRole("ADMIN")
                         .requestMatchers("/tools/**").hasAnyRole("ADMIN", "EMPLOYEE")
                         .requestMatchers("/customers/**").hasAnyRole("ADMIN", "EMPLOYEE")
                         .anyRequest().authenticated())
 
-                .oauth2Login(withDefaults())
-                .logout(logout -> logout
-                        .logoutSuccessHandler(oidcLogoutSuccessHandler(repo)));
-
-        http.oauth2ResourceServer(oauth2 ->
-                oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthConverter())));
+                .oauth2ResourceServer(oauth2 ->
+                        oauth2.jwt(jwt -> jwt.authenticationManager(jwtAuthenticationManager)));
 
         return http.build();
     }
 
-    /* extrae roles de Keycloak */
-    private JwtAuthenticationConverter jwtAuthConverter() {
-        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Collection<GrantedAuthority> authorities = new ArrayList<>();
-
-            // ➜ cast SEGURO con instanceof
-            Object realmAccessObj = jwt.getClaims().get("realm_access");
-            if (realmAccessObj instanceof Map<?, ?> realmAccess) {
-                Object rolesObj = realmAccess.get("roles");
-                if (rolesObj instanceof List<?> roles) {
-                    roles.forEach(r -> authorities.add(new SimpleGrantedAuthority("ROLE_" + r)));
-                }
-            }
-            return authorities;
-        });
-        return converter;
-    }
-
     /* logout global */
     private OidcClientInitiatedLogoutSuccessHandler oidcLogoutSuccessHandler(ClientRegistrationRepository repo) {
         OidcClientInitiatedLogoutSuccessHandler handler =
@@ -95,4 +96,10 @@ public class SecurityConfig {
         }
         return "system"; // fallback
     }
+
+    public static boolean isCurrentUserAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
 }
\ No newline at end of file
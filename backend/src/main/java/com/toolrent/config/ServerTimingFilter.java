@@ -0,0 +1,186 @@
+package com.toolrent.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/*
+ * Agrega a cada respuesta "Server-Timing: db;dur=..;desc="N sql", app;dur=.." y escribe una línea
+ * de access log (logger toolrent.access) con las mismas cifras.
+ * Por defecto el cuerpo no se retiene: el header sale justo antes del primer byte del cuerpo, con las cifras hasta
+ * ese momento, y el access log trae las finales (incluye las consultas lazy que se disparan al serializar el JSON
+ * con open-in-view, que es donde suelen aparecer los N+1). Con toolrent.server-timing.buffer-body=true el cuerpo
+ * se retiene hasta el final y el header también trae las cifras finales, a costa de tener la respuesta completa
+ * en memoria (solo para diagnosticar).
+ * En peticiones async (DeferredResult, CompletableFuture) las cifras se cierran en el último dispatch.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "toolrent.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("toolrent.access");
+
+    private static final String STATS_ATTRIBUTE = ServerTimingFilter.class.getName() + ".stats";
+    private static final String START_ATTRIBUTE = ServerTimingFilter.class.getName() + ".start";
+
+    private final boolean bufferBody;
+
+    public ServerTimingFilter(@Value("${toolrent.server-timing.buffer-body:false}") boolean bufferBody) {
+        this.bufferBody = bufferBody;
+    }
+
+    // Actuator, descargas .jfr y streams R2DBC: sin SQL JDBC que medir
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/actuator") || path.startsWith("/admin/jfr")
+                || path.startsWith("/reports/stream") || path.startsWith("/kardex/stream");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        RequestSqlStats stats = (RequestSqlStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = new RequestSqlStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        // En el dispatch async la respuesta ya viene envuelta
+        HttpServletResponse wrapped = response;
+        if (WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null
+                && WebUtils.getNativeResponse(response, TimingHeaderResponse.class) == null) {
+            wrapped = bufferBody
+                    ? new ContentCachingResponseWrapper(response)
+                    : new TimingHeaderResponse(response, request, stats);
+        }
+
+        RequestSqlStats previous = RequestSqlStats.bind(stats);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            RequestSqlStats.restore(previous);
+            if (!isAsyncStarted(request)) {
+                complete(request, wrapped, stats);
+            }
+        }
+    }
+
+    private void complete(HttpServletRequest request, HttpServletResponse response, RequestSqlStats stats)
+            throws IOException {
+        double totalMs = elapsedMs(request);
+        long statements = stats.getStatements();
+        double dbMs = stats.getDbMillis();
+
+        TimingHeaderResponse timing = WebUtils.getNativeResponse(response, TimingHeaderResponse.class);
+        if (timing != null) {
+            timing.addTimingHeader(); // respuesta sin cuerpo
+        } else if (!response.isCommitted()) {
+            response.addHeader("Server-Timing", serverTiming(dbMs, statements, totalMs));
+        }
+        ContentCachingResponseWrapper wrapper =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (wrapper != null) {
+            wrapper.copyBodyToResponse();
+        }
+
+        if (accessLog.isInfoEnabled()) {
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            accessLog.info(String.format(Locale.ROOT,
+                    "method=%s uri=%s route=%s status=%d durationMs=%.1f sqlCount=%d dbMs=%.1f",
+                    request.getMethod(), request.getRequestURI(), route != null ? route : "-",
+                    response.getStatus(), totalMs, statements, dbMs));
+        }
+    }
+
+    private static double elapsedMs(HttpServletRequest request) {
+        return (System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE)) / 1_000_000.0;
+    }
+
+    private static String serverTiming(double dbMs, long statements, double totalMs) {
+        return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d sql\", app;dur=%.1f", dbMs, statements, totalMs);
+    }
+
+    /* Sin retener el cuerpo: agrega el header con las cifras hasta ese momento antes de que se confirme la respuesta */
+    private static final class TimingHeaderResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final RequestSqlStats stats;
+        private boolean headerAdded;
+
+        private TimingHeaderResponse(HttpServletResponse response, HttpServletRequest request, RequestSqlStats stats) {
+            super(response);
+            this.request = request;
+            this.stats = stats;
+        }
+
+        private void addTimingHeader() {
+            if (headerAdded || isCommitted()) {
+                return;
+            }
+            headerAdded = true;
+            addHeader("Server-Timing", serverTiming(stats.getDbMillis(), stats.getStatements(), elapsedMs(request)));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTimingHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
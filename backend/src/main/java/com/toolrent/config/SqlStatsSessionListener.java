@@ -0,0 +1,41 @@
+package com.toolrent.config;
+
+import org.hibernate.SessionEventListener;
+
+/*
+ * Registrado en cada sesión de Hibernate (hibernate.session.events.auto): mide cada ejecución JDBC
+ * (consulta, update o lote) y la suma a la petición HTTP en curso, si la hay.
+ * Una instancia por sesión y las sesiones no se comparten entre hilos, por eso el inicio va en un campo simple.
+ */
+public class SqlStatsSessionListener implements SessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null && executeStart != 0) {
+            stats.record(System.nanoTime() - executeStart);
+        }
+        executeStart = 0;
+    }
+}
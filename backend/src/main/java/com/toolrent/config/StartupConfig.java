@@ -0,0 +1,24 @@
+package com.toolrent.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/*
+ * Con spring.main.lazy-initialization=true (perfil 'fast') estos beans se crean igual al arrancar:
+ * - Migraciones Flyway y EntityManagerFactory: el esquema se migra y se valida antes de aceptar peticiones;
+ *   un esquema desalineado debe impedir el arranque, no fallar en la primera consulta.
+ * Los beans con @Scheduled ya los excluye Spring Boot. Sin lazy-initialization el filtro no tiene efecto.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerSchemaBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class,
+                EntityManagerFactory.class, AbstractEntityManagerFactoryBean.class);
+    }
+}
@@ -0,0 +1,23 @@
+package com.toolrent.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<AdmissionControl> admissionControl;
+
+    public WebMvcConfig(ObjectProvider<AdmissionControl> admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    /* Control de admisión solo en los endpoints caros (toolrent.admission.enabled) */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        admissionControl.ifAvailable(admission -> registry.addInterceptor(admission)
+                .addPathPatterns("/reports", "/reports/**", "/kardex", "/kardex/**"));
+    }
+}
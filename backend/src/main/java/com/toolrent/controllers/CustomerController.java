@@ -2,6 +2,7 @@ package com.toolrent.controllers;
 
 import com.toolrent.entities.CustomerEntity;
 import com.toolrent.entities.CustomerStatus;
+import com.toolrent.repositories.SparseView;
 import com.toolrent.services.CustomerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -59,17 +60,31 @@ public class CustomerController {
     @PreAuthorize("hasAnyRole('ADMIN')")
     @Operation(summary = "Listar todos los clientes", description = "Retorna todos los clientes para reportes o consulta.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de clientes"),
+            @ApiResponse(responseCode = "200", description = "Lista de clientes (solo las columnas de ?fields= si se indica)"),
+            @ApiResponse(responseCode = "400", description = "Campo desconocido en fields"),
             @ApiResponse(responseCode = "403", description = "No autorizado")
     })
-    public ResponseEntity<Iterable<CustomerEntity>> getAllCustomers() {
+    public ResponseEntity<Iterable<?>> getAllCustomers(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(customerService.getAllCustomers(fields));
+        }
         return ResponseEntity.ok(customerService.getAllCustomers());
     }
 
     @GetMapping("/active")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
-    @Operation(summary = "Listar clientes activos")
-    public ResponseEntity<List<CustomerEntity>> getActiveCustomers() {
+    @Operation(summary = "Listar clientes activos", description = "Con ?fields=id,name,rut responde solo esas " +
+            "columnas (selector del formulario de préstamo).")
+    public ResponseEntity<List<?>> getActiveCustomers(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(customerService.getCustomersByStatus(CustomerStatus.ACTIVE, fields));
+        }
         return ResponseEntity.ok(customerService.getCustomersByStatus(CustomerStatus.ACTIVE));
     }
+
+    // ?fields= con un campo desconocido
+    @ExceptionHandler(SparseView.InvalidFieldsException.class)
+    public ResponseEntity<String> handleInvalidFields(SparseView.InvalidFieldsException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
 }
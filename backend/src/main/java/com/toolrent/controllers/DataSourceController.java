@@ -0,0 +1,55 @@
+package com.toolrent.controllers;
+
+import com.toolrent.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/datasources")
+@Tag(name = "DataSource Controller", description = "Estado de los pools de conexiones")
+public class DataSourceController {
+
+    private final ObjectProvider<HikariDataSource> pools;
+    private final ObjectProvider<ReplicaRoutingDataSource> routingDataSource;
+
+    public DataSourceController(ObjectProvider<HikariDataSource> pools,
+                                ObjectProvider<ReplicaRoutingDataSource> routingDataSource) {
+        this.pools = pools;
+        this.routingDataSource = routingDataSource;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Métricas por pool", description = "Conexiones activas, ociosas y en espera de cada pool " +
+            "y, si la réplica está activa, el conteo de conexiones enrutadas al primario y a la réplica.")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        pools.orderedStream().forEach(ds -> result.put(ds.getPoolName() != null ? ds.getPoolName() : "default", poolStats(ds)));
+        routingDataSource.ifAvailable(routing -> result.put("routing", routing.getStats()));
+        return ResponseEntity.ok(result);
+    }
+
+    private Map<String, Object> poolStats(HikariDataSource ds) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maximumPoolSize", ds.getMaximumPoolSize());
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        if (pool != null) { // null hasta la primera conexión
+            stats.put("active", pool.getActiveConnections());
+            stats.put("idle", pool.getIdleConnections());
+            stats.put("total", pool.getTotalConnections());
+            stats.put("awaiting", pool.getThreadsAwaitingConnection());
+        }
+        return stats;
+    }
+}
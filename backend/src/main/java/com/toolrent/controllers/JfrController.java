@@ -0,0 +1,93 @@
+package com.toolrent.controllers;
+
+import com.toolrent.dto.JfrRecordingDTO;
+import com.toolrent.dto.JfrSummaryDTO;
+import com.toolrent.services.JfrRecordingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/jfr")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "JFR Controller", description = "Grabaciones de Java Flight Recorder para diagnóstico en producción")
+public class JfrController {
+
+    private final JfrRecordingService jfrRecordingService;
+
+    public JfrController(JfrRecordingService jfrRecordingService) {
+        this.jfrRecordingService = jfrRecordingService;
+    }
+
+    @PostMapping("/recordings")
+    @Operation(summary = "Iniciar grabación JFR", description = "Graba durante 'durationSeconds' con la " +
+            "configuración del JDK indicada ('default' ~1% de overhead, 'profile' más detalle). Solo una a la vez.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Grabación iniciada"),
+            @ApiResponse(responseCode = "400", description = "Perfil o duración inválidos"),
+            @ApiResponse(responseCode = "409", description = "Ya hay una grabación en curso")
+    })
+    public ResponseEntity<?> start(@RequestParam(defaultValue = "profile") String profile,
+                                   @RequestParam(defaultValue = "60") long durationSeconds) {
+        try {
+            JfrRecordingDTO recording = jfrRecordingService.start(profile, Duration.ofSeconds(durationSeconds));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(recording);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+        }
+    }
+
+    @GetMapping("/recordings")
+    @Operation(summary = "Listar grabaciones", description = "Grabaciones recientes, la más nueva primero.")
+    public ResponseEntity<List<JfrRecordingDTO>> list() {
+        return ResponseEntity.ok(jfrRecordingService.list());
+    }
+
+    @GetMapping("/recordings/{id}")
+    @Operation(summary = "Estado de una grabación")
+    public ResponseEntity<JfrRecordingDTO> get(@PathVariable String id) {
+        return ResponseEntity.of(jfrRecordingService.find(id));
+    }
+
+    @GetMapping(value = "/recordings/{id}/file", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Descargar el archivo .jfr", description = "Se abre con JDK Mission Control o 'jfr print'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo .jfr"),
+            @ApiResponse(responseCode = "404", description = "No existe o sigue grabando")
+    })
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        return jfrRecordingService.file(id)
+                .<ResponseEntity<Resource>>map(path -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename(path.getFileName().toString()).build().toString())
+                        .body(new FileSystemResource(path)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/recordings/{id}/summary")
+    @Operation(summary = "Resumen de la grabación", description = "Métodos com.toolrent.* con más muestras de CPU " +
+            "y sitios de asignación (método + clase) con más bytes, a partir del archivo .jfr.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumen"),
+            @ApiResponse(responseCode = "404", description = "No existe o sigue grabando")
+    })
+    public ResponseEntity<JfrSummaryDTO> summary(@PathVariable String id,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.of(jfrRecordingService.summary(id, Math.max(1, Math.min(limit, 200))));
+    }
+}
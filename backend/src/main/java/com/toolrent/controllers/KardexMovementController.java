@@ -1,6 +1,7 @@
 package com.toolrent.controllers;
 
-import com.toolrent.entities.KardexMovementEntity;
+import com.toolrent.config.AsyncReads;
+import com.toolrent.repositories.SparseView;
 import com.toolrent.services.KardexMovementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,10 +10,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -23,39 +26,63 @@ import java.util.List;
 public class KardexMovementController {
 
     private final KardexMovementService kardexMovementService;
+    private final AsyncReads asyncReads;
 
-    public KardexMovementController(KardexMovementService kardexMovementService) {
+    public KardexMovementController(KardexMovementService kardexMovementService, AsyncReads asyncReads) {
         this.kardexMovementService = kardexMovementService;
+        this.asyncReads = asyncReads;
     }
 
+    /* Los listados corren en readQueryExecutor (AsyncReads): el hilo de Tomcat se libera mientras consulta */
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     @Operation(summary = "Listar movimientos del Kardex", description = "Retorna todos los movimientos para reportes.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de movimientos"),
-            @ApiResponse(responseCode = "403", description = "No autorizado")
+            @ApiResponse(responseCode = "200", description = "Lista de movimientos (solo las columnas de ?fields= si se indica)"),
+            @ApiResponse(responseCode = "400", description = "Campo desconocido en fields"),
+            @ApiResponse(responseCode = "403", description = "No autorizado"),
+            @ApiResponse(responseCode = "503", description = "Consulta expirada o pool de lecturas lleno")
     })
-    public ResponseEntity<List<KardexMovementEntity>> getAllMovements() {
-        return ResponseEntity.ok(kardexMovementService.getAllMovements());
+    public DeferredResult<ResponseEntity<List<?>>> getAllMovements(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return asyncReads.submit(() -> kardexMovementService.getAllMovements(fields));
+        }
+        return asyncReads.submit(kardexMovementService::getAllMovements);
     }
 
     /* RF5.2 – historial por herramienta */
     @GetMapping("/by-tool")
     @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
     @Operation(summary = "Historial por herramienta")
-    public ResponseEntity<List<KardexMovementEntity>> getByTool(
-            @RequestParam Long toolGroupId) {
-        return ResponseEntity.ok(kardexMovementService.findByToolGroupId(toolGroupId));
+    public DeferredResult<ResponseEntity<List<?>>> getByTool(
+            @RequestParam Long toolGroupId,
+            @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return asyncReads.submit(() -> kardexMovementService.findByToolGroupId(toolGroupId, fields));
+        }
+        return asyncReads.submit(() -> kardexMovementService.findByToolGroupId(toolGroupId));
     }
 
     /* RF5.3 – movimientos por rango de fechas */
     @GetMapping("/by-range")
     @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
     @Operation(summary = "Movimientos por rango ")
-    public ResponseEntity<List<KardexMovementEntity>> getByRange(
+    public DeferredResult<ResponseEntity<List<?>>> getByRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
-        return ResponseEntity.ok(kardexMovementService.findByDateRange(from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return asyncReads.submit(() -> kardexMovementService.findByDateRange(from.atStartOfDay(),
+                    to.plusDays(1).atStartOfDay(), fields));
+        }
+        return asyncReads.submit(() -> kardexMovementService.findByDateRange(from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay()));
     }
 
+    // ?fields= con un campo desconocido (se lanza en readQueryExecutor y llega aquí en el dispatch async)
+    @ExceptionHandler(SparseView.InvalidFieldsException.class)
+    public ResponseEntity<String> handleInvalidFields(SparseView.InvalidFieldsException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
 }
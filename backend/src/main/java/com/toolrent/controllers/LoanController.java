@@ -1,11 +1,13 @@
 package com.toolrent.controllers;
 
-import com.toolrent.dto.LoanActiveDTO;
 import com.toolrent.entities.LoanEntity;
 import com.toolrent.services.LoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -53,8 +55,12 @@ public class LoanController {
 
     @GetMapping("/active")
     @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
-    @Operation(summary = "Muestra los préstamos activos", description = "Muestra todos los Loans en estado LOAN")
-    public ResponseEntity<List<LoanActiveDTO>> getActiveLoans() {
+    @Operation(summary = "Muestra los préstamos activos", description = "Muestra todos los Loans en estado LOAN. " +
+            "Con ?fields=id,customerName,... responde solo esas columnas.")
+    public ResponseEntity<List<?>> getActiveLoans(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(loanService.getActiveLoans(fields));
+        }
         return ResponseEntity.ok(loanService.getActiveLoans());
     }
 
@@ -79,19 +85,33 @@ public class LoanController {
 
     @GetMapping("/pending-payment")
     @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
-    @Operation(summary = "Muestra préstamos con deudas", description = "Préstamos con pago pendiente")
-    public ResponseEntity<List<LoanActiveDTO>> getPendingPayment() {
+    @Operation(summary = "Muestra préstamos con deudas", description = "Préstamos con pago pendiente. " +
+            "Con ?fields=id,customerName,... responde solo esas columnas.")
+    public ResponseEntity<List<?>> getPendingPayment(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(loanService.getReturnedWithDebts(fields));
+        }
         return ResponseEntity.ok(loanService.getPendingPayment());
     }
 
     @GetMapping("/returned-with-debts")
     @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
     @Operation(summary = "Mostrar préstamos con deudas", description = "Préstamos devueltos que aún tienen " +
-            "multas o daños sin pagar.")
-    public ResponseEntity<List<LoanActiveDTO>> getReturnedWithDebts() {
+            "multas o daños sin pagar. Con ?fields=id,customerName,... responde solo esas columnas.")
+    public ResponseEntity<List<?>> getReturnedWithDebts(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(loanService.getReturnedWithDebts(fields));
+        }
         return ResponseEntity.ok(loanService.getReturnedWithDebts());
     }
 
+    // Conflicto de versión que persistió tras los reintentos (ver OptimisticRetryAspect)
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<String> handleConflict(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("El préstamo o la unidad fue modificado por otra operación, intente nuevamente");
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @Operation(summary = "Mensajes de restricción", description = "Endpoint para que el Front indique el mensaje de restricción de Loan")
     public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
@@ -0,0 +1,82 @@
+package com.toolrent.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toolrent.config.JsonArrayStream;
+import com.toolrent.services.ReactiveReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/*
+ * Variantes en streaming (R2DBC) de los reportes y del kardex, solo con toolrent.reactive.enabled=true.
+ * Responden el mismo arreglo JSON que /reports/active-loans, /reports/top-tools y /kardex (/by-range),
+ * escrito por lotes mientras se lee de la BD: sin hilo bloqueado esperando la consulta ni lista completa en memoria.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "toolrent.reactive", name = "enabled", havingValue = "true")
+@Tag(name = "Reporte Stream Controller", description = "Reportes y kardex en streaming (R2DBC)")
+public class ReactiveReportController {
+
+    private final ReactiveReportService reactiveReportService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ReactiveReportController(ReactiveReportService reactiveReportService,
+                                    ObjectMapper objectMapper,
+                                    @Value("${toolrent.reactive.batch-size:256}") int batchSize) {
+        this.reactiveReportService = reactiveReportService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    @GetMapping(value = "/reports/stream/active-loans", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @Operation(summary = "Préstamos activos en streaming", description = "Igual que /reports/active-loans.")
+    public Flux<String> streamActiveLoans(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        LocalDateTime start = from != null ? from : LocalDateTime.now().minusMonths(1);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+
+        return JsonArrayStream.of(reactiveReportService.getActiveLoans(start, end), objectMapper, batchSize);
+    }
+
+    @GetMapping(value = "/reports/stream/top-tools", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @Operation(summary = "Ranking de herramientas en streaming", description = "Igual que /reports/top-tools.")
+    public Flux<String> streamTopTools(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        LocalDateTime start = from != null ? from : LocalDateTime.now().minusMonths(1);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+
+        return JsonArrayStream.of(reactiveReportService.getTopTools(start, end), objectMapper, batchSize);
+    }
+
+    @GetMapping(value = "/kardex/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @Operation(summary = "Movimientos del kardex en streaming", description = "Todos los movimientos, o los del " +
+            "rango si se indican from y to (como /kardex/by-range). Filas planas: ids y nombres de herramienta y cliente.")
+    public Flux<String> streamMovements(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDateTime start = from != null && to != null ? from.atStartOfDay() : null;
+        LocalDateTime end = from != null && to != null ? to.plusDays(1).atStartOfDay() : null;
+
+        return JsonArrayStream.of(reactiveReportService.getMovements(start, end), objectMapper, batchSize);
+    }
+}
@@ -1,21 +1,32 @@
 package com.toolrent.controllers;
 
+import com.toolrent.config.AsyncReads;
 import com.toolrent.dto.CustomerDebtDTO;
 import com.toolrent.dto.LoanActiveDTO;
+import com.toolrent.dto.ReportDashboardDTO;
+import com.toolrent.dto.ReportJobDTO;
 import com.toolrent.entities.CustomerEntity;
+import com.toolrent.services.ReportDashboardService;
+import com.toolrent.services.ReportJobService;
 import com.toolrent.services.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/reports")
@@ -23,33 +34,43 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportDashboardService reportDashboardService;
+    private final ReportJobService reportJobService;
+    private final AsyncReads asyncReads;
 
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService,
+                            ReportDashboardService reportDashboardService,
+                            ReportJobService reportJobService,
+                            AsyncReads asyncReads) {
         this.reportService = reportService;
+        this.reportDashboardService = reportDashboardService;
+        this.reportJobService = reportJobService;
+        this.asyncReads = asyncReads;
     }
 
+    /* Los reportes corren en readQueryExecutor (AsyncReads): el hilo de Tomcat se libera mientras consulta */
     @GetMapping("/active-loans")
     @Operation(summary = "Listar préstamos activos", description = "Muestra todos los prestamos activos.")
-    public ResponseEntity<List<LoanActiveDTO>> getActiveLoans(
+    public DeferredResult<ResponseEntity<List<LoanActiveDTO>>> getActiveLoans(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
 
-        if (from == null) from = LocalDateTime.now().minusMonths(1);
-        if (to == null)   to = LocalDateTime.now();
+        LocalDateTime start = from != null ? from : LocalDateTime.now().minusMonths(1);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
 
-        return ResponseEntity.ok(reportService.getActiveLoans(from, to));
+        return asyncReads.submit(() -> reportService.getActiveLoans(start, end));
     }
 
     @GetMapping("/top-tools")
     @Operation(summary = "Listar ranking de Herramientas", description = "Ranking de herramientas más prestadas.")
-    public ResponseEntity<List<Map<String, Object>>> getTopTools(
+    public DeferredResult<ResponseEntity<List<Map<String, Object>>>> getTopTools(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
 
-        if (from == null) from = LocalDateTime.now().minusMonths(1);
-        if (to == null)   to = LocalDateTime.now();
+        LocalDateTime start = from != null ? from : LocalDateTime.now().minusMonths(1);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
 
-        return ResponseEntity.ok(reportService.getTopTools(from, to));
+        return asyncReads.submit(() -> reportService.getTopTools(start, end));
     }
 
     @GetMapping("/overdue-customers")
@@ -57,10 +78,11 @@ public class ReportController {
     @Operation(summary = "Listar clientes con atrasos", description = "Retorna clientes con préstamos atrasados.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de clientes"),
-            @ApiResponse(responseCode = "403", description = "No autorizado")
+            @ApiResponse(responseCode = "403", description = "No autorizado"),
+            @ApiResponse(responseCode = "503", description = "Consulta expirada o pool de lecturas lleno")
     })
-    public ResponseEntity<List<CustomerEntity>> getOverdueCustomers() {
-        return ResponseEntity.ok(reportService.getOverdueCustomers());
+    public DeferredResult<ResponseEntity<List<CustomerEntity>>> getOverdueCustomers() {
+        return asyncReads.submit(reportService::getOverdueCustomers);
     }
 
     @GetMapping("/customers-with-debt")
@@ -68,9 +90,91 @@ public class ReportController {
     @Operation(summary = "Listar clientes con deudas", description = "Retorna clientes con deudas.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de clientes"),
+            @ApiResponse(responseCode = "403", description = "No autorizado"),
+            @ApiResponse(responseCode = "503", description = "Consulta expirada o pool de lecturas lleno")
+    })
+    public DeferredResult<ResponseEntity<List<CustomerDebtDTO>>> getCustomersWithDebt() {
+        LocalDateTime now = LocalDateTime.now();
+        return asyncReads.submit(() -> reportService.getCustomersWithDebt(now));
+    }
+
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @Operation(summary = "Dashboard de reportes", description = "Ejecuta los cuatro reportes en paralelo y los " +
+            "retorna en una sola respuesta. Una sección con error o timeout se retorna vacía y se informa en 'errors'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Dashboard (posiblemente parcial)"),
             @ApiResponse(responseCode = "403", description = "No autorizado")
     })
-    public ResponseEntity<List<CustomerDebtDTO>> getCustomersWithDebt() {
-        return ResponseEntity.ok(reportService.getCustomersWithDebt(LocalDateTime.now()));
+    public CompletableFuture<ResponseEntity<ReportDashboardDTO>> getDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        if (from == null) from = LocalDateTime.now().minusMonths(1);
+        if (to == null)   to = LocalDateTime.now();
+
+        // Las secciones ya corren en reportExecutor: se responde cuando terminan, sin ocupar el hilo de Tomcat
+        return reportDashboardService.getDashboardAsync(from, to)
+                .thenApply(dashboard -> ResponseEntity.ok()
+                        .header("Server-Timing", serverTiming(dashboard.timings()))
+                        .body(dashboard));
+    }
+
+    /* ---------- Trabajos asíncronos para rangos amplios ---------- */
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @Operation(summary = "Encolar reporte largo", description = "Encola el cálculo de 'ACTIVE_LOANS' o 'TOP_TOOLS' " +
+            "y retorna el id del trabajo. El resultado se consulta en GET /reports/jobs/{id}.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Trabajo encolado"),
+            @ApiResponse(responseCode = "503", description = "Cola de reportes llena")
+    })
+    public ResponseEntity<ReportJobDTO> submitJob(
+            @RequestParam ReportJobService.JobType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        if (from == null) from = LocalDateTime.now().minusMonths(1);
+        if (to == null)   to = LocalDateTime.now();
+
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(type, from, to));
+        } catch (TaskRejectedException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "10").build();
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @Operation(summary = "Estado y resultado de un trabajo de reporte")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Trabajo encontrado"),
+            @ApiResponse(responseCode = "404", description = "Trabajo no existe, expiró o es de otro usuario")
+    })
+    public ResponseEntity<ReportJobDTO> getJob(@PathVariable String id) {
+        return ResponseEntity.of(reportJobService.find(id));
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @Operation(summary = "Cancelar un trabajo de reporte", description = "Solo quien lo encoló o un ADMIN; " +
+            "la consulta en curso se cancela en la BD.")
+    public ResponseEntity<ReportJobDTO> cancelJob(@PathVariable String id) {
+        return ResponseEntity.of(reportJobService.cancel(id));
+    }
+
+    @GetMapping("/jobs/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Métricas de la cola de reportes", description = "Profundidad de cola, workers activos " +
+            "y contadores de trabajos.")
+    public ResponseEntity<Map<String, Object>> getJobStats() {
+        return ResponseEntity.ok(reportJobService.getStats());
+    }
+
+    // Formato: activeLoans;dur=12.4, topTools;dur=8.1, ...
+    private String serverTiming(Map<String, Double> timings) {
+        return timings.entrySet().stream()
+                .map(e -> String.format(Locale.ROOT, "%s;dur=%.1f", e.getKey(), e.getValue()))
+                .collect(Collectors.joining(", "));
     }
 }
\ No newline at end of file
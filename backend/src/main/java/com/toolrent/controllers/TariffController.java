@@ -1,7 +1,6 @@
 package com.toolrent.controllers;
 
 import com.toolrent.entities.TariffEntity;
-import com.toolrent.repositories.TariffRepository;
 import com.toolrent.services.TariffService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,11 +18,9 @@ import java.util.List;
 public class TariffController {
 
     private final TariffService tariffService;
-    private final TariffRepository tariffRepository;
 
-    public TariffController(TariffService tariffService, TariffRepository tariffRepository) {
+    public TariffController(TariffService tariffService) {
         this.tariffService = tariffService;
-        this.tariffRepository = tariffRepository;
     }
 
     @PutMapping
@@ -48,9 +45,7 @@ public class TariffController {
             @ApiResponse(responseCode = "404", description = "Tarifa no encontrada")
     })
     public ResponseEntity<TariffEntity> getTariffById(@PathVariable Long id) {
-        TariffEntity tariff = tariffRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Tariff not found"));
-        return ResponseEntity.ok(tariff);
+        return ResponseEntity.ok(tariffService.getTariffById(id));
     }
 
     @GetMapping
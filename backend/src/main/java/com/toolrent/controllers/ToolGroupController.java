@@ -3,10 +3,14 @@ package com.toolrent.controllers;
 import com.toolrent.entities.ToolGroupEntity;
 import com.toolrent.entities.ToolStatus;
 import com.toolrent.entities.ToolUnitEntity;
+import com.toolrent.repositories.SparseView;
 import com.toolrent.services.ToolGroupService;
 import com.toolrent.services.ToolUnitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -43,16 +47,24 @@ public class ToolGroupController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
-    @Operation(summary = "Listar todos los grupos")
-    public ResponseEntity<Iterable<ToolGroupEntity>> getAllToolGroups() {
-        return ResponseEntity.ok(toolGroupService.getAllToolGroups());
+    @Operation(summary = "Listar todos los grupos", description = "Grupo con su tarifa y conteo de unidades por estado. " +
+            "Con ?fields=id,name,tariff,... responde solo esas columnas.")
+    public ResponseEntity<List<?>> getAllToolGroups(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(toolGroupService.getToolGroupFields(fields, false));
+        }
+        return ResponseEntity.ok(toolGroupService.getToolGroupSummaries());
     }
 
     @GetMapping("/available")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
-    @Operation(summary = "Listar grupos con unidades disponibles")
-    public ResponseEntity<List<ToolGroupEntity>> getAvailableToolGroups() {
-        return ResponseEntity.ok(toolGroupService.getToolGroupsWithAvailableUnits());
+    @Operation(summary = "Listar grupos con unidades disponibles", description = "Con ?fields=id,name,category " +
+            "responde solo esas columnas (selector del formulario de préstamo).")
+    public ResponseEntity<List<?>> getAvailableToolGroups(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(toolGroupService.getToolGroupFields(fields, true));
+        }
+        return ResponseEntity.ok(toolGroupService.getAvailableToolGroupSummaries());
     }
 
 
@@ -73,9 +85,13 @@ public class ToolGroupController {
     /* ---------- Listar todas las unidades con detalles ---------- */
     @GetMapping("/units")
     @PreAuthorize("hasAnyRole('ADMIN')")
-    @Operation(summary = "Obtener todas las herramientas de forma unitaria")
-    public ResponseEntity<List<ToolUnitEntity>> getAllUnitsWithDetails() {
-        return ResponseEntity.ok(toolUnitService.findAllUnitsWithDetails());
+    @Operation(summary = "Obtener todas las herramientas de forma unitaria",
+            description = "Unidad con estado y nombre/categoría de su grupo. Con ?fields= solo esas columnas.")
+    public ResponseEntity<List<?>> getAllUnitsWithDetails(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(toolUnitService.findAllUnitFields(fields));
+        }
+        return ResponseEntity.ok(toolUnitService.findAllUnitRows());
     }
 
 
@@ -131,4 +147,16 @@ public class ToolGroupController {
         return ResponseEntity.ok(toolGroupService.save(group));
     }
 
-}
\ No newline at end of file
+    // ?fields= con un campo desconocido
+    @ExceptionHandler(SparseView.InvalidFieldsException.class)
+    public ResponseEntity<String> handleInvalidFields(SparseView.InvalidFieldsException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    // Conflicto de versión que persistió tras los reintentos (ver OptimisticRetryAspect)
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<String> handleConflict(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("La unidad fue modificada por otra operación, intente nuevamente");
+    }
+}
@@ -0,0 +1,15 @@
+package com.toolrent.coordination;
+
+/*
+ * Locks con nombre compartidos por todas las instancias del backend (viven en la base de datos).
+ * Se toman dentro de la transacción actual y se liberan cuando termina (commit o rollback).
+ * Complementan a StripedLockManager, que solo coordina hilos de una misma JVM.
+ */
+@FunctionalInterface
+public interface AdvisoryLocks {
+
+    /* Una sola instancia (toolrent.coordination.enabled=false): no hace falta coordinar nada */
+    AdvisoryLocks NONE = name -> { };
+
+    void lockForTransaction(String name);
+}
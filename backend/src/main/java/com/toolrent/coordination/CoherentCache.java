@@ -0,0 +1,57 @@
+package com.toolrent.coordination;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * Caché local que se vacía con los eventos de InvalidationBus de su entidad (de esta u otra instancia).
+ * Pensada para datos chicos y que cambian poco: ante cualquier evento se descarta entera.
+ *
+ * Carrera clásica: un lector carga el valor viejo, el escritor confirma e invalida, y el lector guarda el viejo.
+ * La generación lo evita: el valor cargado solo se guarda si no hubo invalidación durante la carga.
+ */
+public class CoherentCache<K, V> {
+
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CoherentCache(String entity, InvalidationBus bus) {
+        bus.subscribe(entity, event -> invalidateAll());
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        V cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long before = generation.get();
+        V loaded = loader.apply(key);
+        if (loaded != null && generation.get() == before) {
+            entries.putIfAbsent(key, loaded);
+            if (generation.get() != before) {
+                entries.remove(key, loaded); // invalidada justo entre la verificación y el put
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+}
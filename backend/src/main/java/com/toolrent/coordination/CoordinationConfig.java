@@ -0,0 +1,103 @@
+package com.toolrent.coordination;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.util.UUID;
+
+/*
+ * Coordinación entre instancias del backend (toolrent.coordination.enabled=true al correr más de una réplica):
+ * locks con nombre en la base de datos y bus de invalidación para las cachés locales.
+ * Deshabilitada: locks no-op y bus solo local (las cachés siguen funcionando dentro de la instancia).
+ */
+@Configuration
+public class CoordinationConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CoordinationConfig.class);
+
+    @Bean
+    @DependsOnDatabaseInitialization
+    public AdvisoryLocks advisoryLocks(DataSource dataSource,
+                                       @Value("${toolrent.coordination.enabled:false}") boolean enabled,
+                                       @Value("${spring.flyway.enabled:false}") boolean flyway,
+                                       @Value("${toolrent.coordination.locks.mode:auto}") String mode,
+                                       @Value("${toolrent.coordination.locks.timeout-seconds:5}") long timeoutSeconds) {
+        if (!enabled) {
+            return AdvisoryLocks.NONE;
+        }
+        boolean mysql = "mysql".equals(mode) || ("auto".equals(mode) && isMySql(dataSource));
+        log.info("Locks de coordinación: {}", mysql ? "GET_LOCK de MySQL" : "tabla coordination_locks");
+        if (mysql) {
+            return new MySqlAdvisoryLocks(dataSource, timeoutSeconds);
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        if (!flyway) {
+            createTables(jdbc);
+        }
+        return new TableAdvisoryLocks(jdbc);
+    }
+
+    @Bean
+    @DependsOnDatabaseInitialization
+    public InvalidationBus invalidationBus(DataSource dataSource,
+                                           @Value("${toolrent.coordination.enabled:false}") boolean enabled,
+                                           @Value("${spring.flyway.enabled:false}") boolean flyway,
+                                           @Value("${toolrent.coordination.node-id:}") String nodeId,
+                                           @Value("${toolrent.coordination.settle-lag-ms:10000}") long settleLagMs,
+                                           @Value("${toolrent.coordination.retention-minutes:10}") long retentionMinutes) {
+        if (!enabled) {
+            return InvalidationBus.localOnly();
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        if (!flyway) {
+            createTables(jdbc);
+        }
+        String node = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        log.info("Bus de invalidación activo, nodo {}", node);
+        return new InvalidationBus(jdbc, node, Duration.ofMillis(settleLagMs), Duration.ofMinutes(retentionMinutes));
+    }
+
+    /*
+     * Tablas propias del módulo (no son entidades JPA); la sintaxis sirve en MySQL y en H2.
+     * Con spring.flyway.enabled=true las crea la migración V2__coordination_tables.sql (mismo DDL).
+     */
+    static void createTables(JdbcTemplate jdbc) {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS coordination_locks (name VARCHAR(64) PRIMARY KEY, " +
+                "created_at TIMESTAMP(3) NOT NULL)");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS coordination_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "node VARCHAR(64) NOT NULL, entity VARCHAR(64) NOT NULL, entity_id VARCHAR(64), " +
+                "created_at TIMESTAMP(3) NOT NULL)");
+    }
+
+    private static boolean isMySql(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "MySQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException ex) {
+            log.warn("No se pudo detectar la base de datos, se usa la tabla de locks: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            host = "node";
+        }
+        String id = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return id.length() <= 64 ? id : id.substring(id.length() - 64);
+    }
+}
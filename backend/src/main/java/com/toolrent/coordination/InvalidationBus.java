@@ -0,0 +1,166 @@
+package com.toolrent.coordination;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/*
+ * Avisos de "esta entidad cambió" entre instancias del backend, a través de la tabla coordination_events.
+ *
+ * - publish() inserta el evento en la misma transacción que el cambio (si hay rollback, el aviso no existe)
+ *   y avisa a los suscriptores locales después del commit.
+ * - poll() (programado) lee los eventos nuevos de las otras instancias y los reparte a los suscriptores.
+ *
+ * Los ids AUTO_INCREMENT no se confirman en orden: un id menor puede aparecer después de uno mayor. Por eso la
+ * marca de agua solo avanza hasta eventos con más de settle-lag de antigüedad y los más nuevos se releen en cada
+ * ciclo (los ya entregados se recuerdan y no se repiten). Las invalidaciones son idempotentes.
+ *
+ * Sin JdbcTemplate (toolrent.coordination.enabled=false) el bus es solo local.
+ */
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    public record Invalidation(String entity, String id, String node) {
+    }
+
+    private record Row(long id, Invalidation event, Instant createdAt) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final String node;
+    private final Duration settleLag;
+    private final Duration retention;
+    private final Map<String, List<Consumer<Invalidation>>> listeners = new ConcurrentHashMap<>();
+
+    // Estado del poller (poll() es synchronized)
+    private long watermark;
+    private final Set<Long> delivered = new HashSet<>();
+    private Instant lastPurge = Instant.now();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder pollErrors = new LongAdder();
+
+    public InvalidationBus(JdbcTemplate jdbc, String node, Duration settleLag, Duration retention) {
+        this.jdbc = jdbc;
+        this.node = node;
+        this.settleLag = settleLag;
+        this.retention = retention;
+        if (jdbc != null) {
+            // Las cachés empiezan vacías: basta con lo reciente (la ventana de settle-lag se relee por si acaso)
+            Long max = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM coordination_events WHERE created_at < ?",
+                    Long.class, Timestamp.from(Instant.now().minus(settleLag)));
+            this.watermark = max == null ? 0 : max;
+        }
+    }
+
+    public static InvalidationBus localOnly() {
+        return new InvalidationBus(null, "local", Duration.ZERO, Duration.ZERO);
+    }
+
+    public String node() {
+        return node;
+    }
+
+    public void subscribe(String entity, Consumer<Invalidation> listener) {
+        listeners.computeIfAbsent(entity, e -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /* id null = toda la entidad */
+    public void publish(String entity, Object id) {
+        Invalidation event = new Invalidation(entity, id == null ? null : id.toString(), node);
+        published.increment();
+        if (jdbc != null) {
+            jdbc.update("INSERT INTO coordination_events (node, entity, entity_id, created_at) VALUES (?, ?, ?, ?)",
+                    node, entity, event.id(), Timestamp.from(Instant.now()));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${toolrent.coordination.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (jdbc == null) {
+            return;
+        }
+        try {
+            Instant settledBefore = Instant.now().minus(settleLag);
+            List<Row> rows = jdbc.query(
+                    "SELECT id, node, entity, entity_id, created_at FROM coordination_events WHERE id > ? ORDER BY id",
+                    (rs, i) -> new Row(rs.getLong("id"),
+                            new Invalidation(rs.getString("entity"), rs.getString("entity_id"), rs.getString("node")),
+                            rs.getTimestamp("created_at").toInstant()),
+                    watermark);
+
+            long settled = watermark;
+            for (Row row : rows) {
+                if (delivered.add(row.id()) && !node.equals(row.event().node())) {
+                    received.increment();
+                    dispatch(row.event());
+                }
+                if (row.createdAt().isBefore(settledBefore)) {
+                    settled = row.id();
+                }
+            }
+            watermark = settled;
+            long floor = settled;
+            delivered.removeIf(id -> id <= floor);
+
+            purgeIfDue();
+        } catch (RuntimeException ex) {
+            pollErrors.increment();
+            log.warn("No se pudieron leer los eventos de coordinación: {}", ex.getMessage());
+        }
+    }
+
+    // Cualquier instancia puede borrar los eventos viejos; ninguna los necesita pasada la retención
+    private void purgeIfDue() {
+        Instant now = Instant.now();
+        if (Duration.between(lastPurge, now).compareTo(retention) < 0) {
+            return;
+        }
+        lastPurge = now;
+        jdbc.update("DELETE FROM coordination_events WHERE created_at < ? AND id <= ?",
+                Timestamp.from(now.minus(retention)), watermark);
+    }
+
+    private void dispatch(Invalidation event) {
+        for (Consumer<Invalidation> listener : listeners.getOrDefault(event.entity(), List.of())) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException ex) {
+                log.warn("Suscriptor de {} falló: {}", event.entity(), ex.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("node", node);
+        stats.put("published", published.sum());
+        stats.put("received", received.sum());
+        stats.put("pollErrors", pollErrors.sum());
+        return stats;
+    }
+}
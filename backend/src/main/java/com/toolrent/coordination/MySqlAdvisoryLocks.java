@@ -0,0 +1,74 @@
+package com.toolrent.coordination;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/*
+ * GET_LOCK / RELEASE_LOCK de MySQL. Son locks de sesión, no de transacción: se piden sobre la misma conexión
+ * de la transacción y se sueltan en afterCompletion, antes de que la conexión vuelva al pool.
+ */
+public class MySqlAdvisoryLocks implements AdvisoryLocks {
+
+    private static final Logger log = LoggerFactory.getLogger(MySqlAdvisoryLocks.class);
+    private static final int MAX_NAME_LENGTH = 64; // límite de MySQL
+
+    private final DataSource dataSource;
+    private final long timeoutSeconds;
+
+    public MySqlAdvisoryLocks(DataSource dataSource, long timeoutSeconds) {
+        this.dataSource = dataSource;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Override
+    public void lockForTransaction(String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("lockForTransaction requiere una transacción activa");
+        }
+        String key = lockName(name);
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, key);
+            ps.setLong(2, timeoutSeconds);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                if (rs.getInt(1) != 1) { // 0 = timeout, NULL = error
+                    DataSourceUtils.releaseConnection(con, dataSource);
+                    throw new RuntimeException("Operación en curso en otra instancia, intente nuevamente");
+                }
+            }
+        } catch (SQLException ex) {
+            DataSourceUtils.releaseConnection(con, dataSource);
+            throw new IllegalStateException("GET_LOCK falló para " + key, ex);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    ps.setString(1, key);
+                    ps.execute();
+                } catch (SQLException ex) {
+                    // La sesión se cerró: MySQL ya liberó el lock junto con ella
+                    log.warn("RELEASE_LOCK falló para {}: {}", key, ex.getMessage());
+                } finally {
+                    DataSourceUtils.releaseConnection(con, dataSource);
+                }
+            }
+        });
+    }
+
+    static String lockName(String name) {
+        String key = "toolrent:" + name;
+        return key.length() <= MAX_NAME_LENGTH ? key : key.substring(0, MAX_NAME_LENGTH);
+    }
+}
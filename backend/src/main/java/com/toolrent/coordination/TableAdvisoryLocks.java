@@ -0,0 +1,42 @@
+package com.toolrent.coordination;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/*
+ * Lock por fila de coordination_locks (SELECT ... FOR UPDATE): lo suelta el commit o rollback de la transacción.
+ * Funciona en cualquier base con bloqueo de filas; es el reemplazo de GET_LOCK para H2 (tests, loadtest).
+ * La espera máxima es la de la base (LOCK_TIMEOUT en H2, innodb_lock_wait_timeout en MySQL).
+ */
+public class TableAdvisoryLocks implements AdvisoryLocks {
+
+    private static final String SELECT_FOR_UPDATE = "SELECT name FROM coordination_locks WHERE name = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbc;
+
+    public TableAdvisoryLocks(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void lockForTransaction(String name) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("lockForTransaction requiere una transacción activa");
+        }
+        if (!jdbc.queryForList(SELECT_FOR_UPDATE, String.class, name).isEmpty()) {
+            return;
+        }
+        try {
+            // Primera vez que se usa el nombre: la fila recién insertada queda bloqueada hasta el commit
+            jdbc.update("INSERT INTO coordination_locks (name, created_at) VALUES (?, ?)", name,
+                    Timestamp.from(Instant.now()));
+        } catch (DuplicateKeyException ex) {
+            // Otra transacción la creó en paralelo: esperar su fin como con cualquier fila existente
+            jdbc.queryForList(SELECT_FOR_UPDATE, String.class, name);
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.toolrent.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Llena customers, tariffs, tool_groups, tool_units, loans y kardex_movements con JDBC por lotes,
+ * en paralelo por bloques. Los ids se asignan explícitamente a partir del máximo actual de cada tabla,
+ * así cada bloque es independiente y el resultado depende solo de la semilla (no del orden de los hilos).
+ * En MySQL conviene agregar rewriteBatchedStatements=true a la URL.
+ */
+@Component
+public class DatasetGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String[] CATEGORIES = {"Eléctricas", "Manuales", "Jardín", "Construcción",
+            "Medición", "Pintura", "Soldadura", "Carpintería", "Fontanería", "Seguridad"};
+
+    // Sales para que cada tabla use una secuencia aleatoria distinta
+    private static final long SALT_CUSTOMERS = 0x1L;
+    private static final long SALT_GROUPS = 0x2L;
+    private static final long SALT_UNITS = 0x3L;
+    private static final long SALT_LOANS = 0x4L;
+
+    public record Result(long customers, long toolGroups, long toolUnits, long loans, long activeLoans,
+                         long kardexMovements, Duration elapsed) {}
+
+    private final DataSource dataSource;
+
+    public DatasetGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public Result generate(DatasetSpec spec) {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, spec.threads()));
+        try {
+            Offsets offsets = readOffsets();
+            log.info("Generando dataset (semilla {}): {} clientes, {} grupos x {} unidades, {} préstamos",
+                    spec.seed(), spec.customers(), spec.toolGroups(), spec.unitsPerGroup(), spec.loans());
+
+            runChunks(pool, spec.customers(), spec.chunkSize(), (from, to, chunk) ->
+                    insertCustomers(spec, offsets, from, to, chunk));
+
+            Catalog catalog = buildCatalog(spec, offsets);
+            insertCatalog(spec, offsets, catalog);
+            runChunks(pool, spec.toolGroups(), Math.max(1, spec.chunkSize() / Math.max(1, spec.unitsPerGroup())),
+                    (from, to, chunk) -> insertUnits(spec, offsets, catalog, from, to));
+
+            long activeLoans = Math.min(catalog.loanedUnits.length, spec.loans());
+            runChunks(pool, spec.loans(), spec.chunkSize(), (from, to, chunk) ->
+                    insertLoans(spec, offsets, catalog, activeLoans, from, to, chunk));
+
+            restartIdentities(offsets, spec);
+
+            long kardexRows = spec.kardex() ? spec.toolGroups() + 2 * spec.loans() - activeLoans : 0;
+            Result result = new Result(spec.customers(), spec.toolGroups(), spec.totalUnits(), spec.loans(),
+                    activeLoans, kardexRows, Duration.ofNanos(System.nanoTime() - start));
+            log.info("Dataset generado en {} s: {}", result.elapsed().toSeconds(), result);
+            return result;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Error generando dataset: " + ex.getMessage(), ex);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /* ---------- Planificación ---------- */
+
+    private record Offsets(long customer, long tariff, long group, long unit, long loan, long kardex,
+                           boolean mysql, boolean h2) {}
+
+    // Datos de grupos y unidades que necesitan los préstamos (pequeño, en memoria)
+    private record Catalog(double[] zipfCdf, int[] rankToGroup, double[] rentalRate, double[] fineRate,
+                           double[] replacementValue, long[] loanedUnits) {}
+
+    private Offsets readOffsets() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            String product = con.getMetaData().getDatabaseProductName().toLowerCase();
+            return new Offsets(maxId(con, "customers"), maxId(con, "tariffs"), maxId(con, "tool_groups"),
+                    maxId(con, "tool_units"), maxId(con, "loans"), maxId(con, "kardex_movements"),
+                    product.contains("mysql"), product.contains("h2"));
+        }
+    }
+
+    private long maxId(Connection con, String table) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private Catalog buildCatalog(DatasetSpec spec, Offsets offsets) {
+        int groups = spec.toolGroups();
+        SplittableRandom random = random(spec.seed(), SALT_GROUPS, 0);
+
+        // Zipf: rango k tiene peso 1/(k+1)^s; los rangos se reparten al azar entre los grupos
+        double[] cdf = new double[groups];
+        double total = 0;
+        for (int k = 0; k < groups; k++) {
+            total += 1.0 / Math.pow(k + 1, spec.zipfExponent());
+            cdf[k] = total;
+        }
+        for (int k = 0; k < groups; k++) {
+            cdf[k] /= total;
+        }
+        int[] rankToGroup = new int[groups];
+        for (int g = 0; g < groups; g++) {
+            rankToGroup[g] = g;
+        }
+        for (int g = groups - 1; g > 0; g--) {
+            int j = random.nextInt(g + 1);
+            int tmp = rankToGroup[g];
+            rankToGroup[g] = rankToGroup[j];
+            rankToGroup[j] = tmp;
+        }
+
+        double[] rentalRate = new double[groups];
+        double[] fineRate = new double[groups];
+        double[] replacementValue = new double[groups];
+        for (int g = 0; g < groups; g++) {
+            rentalRate[g] = 1000.0 * (2 + random.nextInt(19));          // 2.000 – 20.000 por día
+            fineRate[g] = 2500.0;
+            replacementValue[g] = rentalRate[g] * (10 + random.nextInt(30));
+        }
+
+        // Estado de cada unidad: se decide aquí para saber qué unidades tienen un préstamo activo
+        long[] loaned = new long[(int) Math.min(Integer.MAX_VALUE - 8, spec.totalUnits())];
+        int loanedCount = 0;
+        for (long u = 0; u < spec.totalUnits(); u++) {
+            if (unitStatus(spec, u) == UnitStatus.LOANED) {
+                loaned[loanedCount++] = offsets.unit() + u + 1;
+            }
+        }
+        return new Catalog(cdf, rankToGroup, rentalRate, fineRate, replacementValue,
+                Arrays.copyOf(loaned, loanedCount));
+    }
+
+    private enum UnitStatus { AVAILABLE, LOANED, IN_REPAIR, RETIRED }
+
+    // Función pura del índice de unidad: buildCatalog e insertUnits obtienen el mismo estado sin compartir estado
+    private UnitStatus unitStatus(DatasetSpec spec, long unitIndex) {
+        double r = (mix(spec.seed() * 0x9E3779B97F4A7C15L + SALT_UNITS * 0xBF58476D1CE4E5B9L + unitIndex) >>> 11)
+                * 0x1.0p-53;
+        if (r < spec.loanedUnitRatio()) return UnitStatus.LOANED;
+        r -= spec.loanedUnitRatio();
+        if (r < spec.repairRate() / 2) return UnitStatus.IN_REPAIR;
+        r -= spec.repairRate() / 2;
+        if (r < spec.repairRate() / 5) return UnitStatus.RETIRED;
+        return UnitStatus.AVAILABLE;
+    }
+
+    /* ---------- Inserciones ---------- */
+
+    private void insertCustomers(DatasetSpec spec, Offsets offsets, long from, long to, long chunk) throws SQLException {
+        SplittableRandom random = random(spec.seed(), SALT_CUSTOMERS, chunk);
+        try (Connection con = open(offsets);
+             PreparedStatement ps = con.prepareStatement(
+                     "INSERT INTO customers (id, name, rut, phone, email, status) VALUES (?, ?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (long i = from; i < to; i++) {
+                long id = offsets.customer() + i + 1;
+                ps.setLong(1, id);
+                ps.setString(2, "Cliente " + id);
+                ps.setString(3, "GEN-" + id);
+                ps.setString(4, "+569" + (10_000_000 + random.nextInt(89_999_999)));
+                ps.setString(5, "cliente" + id + "@datagen.toolrent");
+                ps.setString(6, random.nextDouble() < 0.03 ? "RESTRICTED" : "ACTIVE");
+                ps.addBatch();
+                pending = flushIfFull(ps, pending, spec.batchSize());
+            }
+            finish(con, ps, pending);
+        }
+    }
+
+    private void insertCatalog(DatasetSpec spec, Offsets offsets, Catalog catalog) throws SQLException {
+        try (Connection con = open(offsets);
+             PreparedStatement tariffs = con.prepareStatement(
+                     "INSERT INTO tariffs (id, daily_rental_rate, daily_fine_rate) VALUES (?, ?, ?)");
+             PreparedStatement groups = con.prepareStatement(
+                     "INSERT INTO tool_groups (id, name, category, replacement_value, tariff_id) VALUES (?, ?, ?, ?, ?)")) {
+            for (int g = 0; g < spec.toolGroups(); g++) {
+                long tariffId = offsets.tariff() + g + 1;
+                tariffs.setLong(1, tariffId);
+                tariffs.setDouble(2, catalog.rentalRate[g]);
+                tariffs.setDouble(3, catalog.fineRate[g]);
+                tariffs.addBatch();
+
+                long groupId = offsets.group() + g + 1;
+                groups.setLong(1, groupId);
+                groups.setString(2, "Herramienta " + groupId);
+                groups.setString(3, CATEGORIES[g % CATEGORIES.length]);
+                groups.setDouble(4, catalog.replacementValue[g]);
+                groups.setLong(5, tariffId);
+                groups.addBatch();
+            }
+            tariffs.executeBatch();
+            groups.executeBatch();
+            con.commit();
+        }
+    }
+
+    private void insertUnits(DatasetSpec spec, Offsets offsets, Catalog catalog, long fromGroup, long toGroup)
+            throws SQLException {
+        try (Connection con = open(offsets);
+             PreparedStatement units = con.prepareStatement(
+                     "INSERT INTO tool_units (id, tool_group_id, status, version) VALUES (?, ?, ?, 0)");
+             PreparedStatement registry = spec.kardex() ? con.prepareStatement(
+                     "INSERT INTO kardex_movements (id, tool_unit_id, customer_id, movement_type, movement_date, details) " +
+                             "VALUES (?, ?, ?, ?, ?, ?)") : null) {
+            int pending = 0;
+            LocalDateTime registeredAt = spec.anchor().atStartOfDay().minusDays(spec.historyDays() + 1L);
+            for (long g = fromGroup; g < toGroup; g++) {
+                long groupId = offsets.group() + g + 1;
+                for (int u = 0; u < spec.unitsPerGroup(); u++) {
+                    long unitIndex = g * spec.unitsPerGroup() + u;
+                    units.setLong(1, offsets.unit() + unitIndex + 1);
+                    units.setLong(2, groupId);
+                    units.setString(3, unitStatus(spec, unitIndex).name());
+                    units.addBatch();
+                    pending = flushIfFull(units, pending, spec.batchSize());
+                }
+                if (registry != null && spec.unitsPerGroup() > 0) {
+                    // Movimiento REGISTRY por grupo (el cliente "sistema" se reemplaza por el primer cliente generado)
+                    registry.setLong(1, offsets.kardex() + g + 1);
+                    registry.setLong(2, offsets.unit() + g * spec.unitsPerGroup() + 1);
+                    registry.setLong(3, offsets.customer() + 1);
+                    registry.setString(4, "REGISTRY");
+                    registry.setTimestamp(5, Timestamp.valueOf(registeredAt));
+                    registry.setString(6, "Creación de grupo: Herramienta " + groupId + " - Stock inicial: "
+                            + spec.unitsPerGroup() + " - Usuario: datagen");
+                    registry.addBatch();
+                }
+            }
+            if (pending > 0) {
+                units.executeBatch();
+            }
+            if (registry != null) {
+                registry.executeBatch();
+            }
+            con.commit();
+        }
+    }
+
+    private void insertLoans(DatasetSpec spec, Offsets offsets, Catalog catalog, long activeLoans,
+                             long from, long to, long chunk) throws SQLException {
+        SplittableRandom random = random(spec.seed(), SALT_LOANS, chunk);
+        LocalDateTime anchor = spec.anchor().atStartOfDay();
+        long kardexBase = offsets.kardex() + spec.toolGroups();
+
+        try (Connection con = open(offsets);
+             PreparedStatement loans = con.prepareStatement(
+                     "INSERT INTO loans (id, customer_id, tool_unit_id, loan_date, due_date, return_date, total_cost, " +
+                             "fine_amount, damage_charge, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)");
+             PreparedStatement kardex = spec.kardex() ? con.prepareStatement(
+                     "INSERT INTO kardex_movements (id, tool_unit_id, customer_id, movement_type, movement_date, details) " +
+                             "VALUES (?, ?, ?, ?, ?, ?)") : null) {
+            int pending = 0;
+            for (long i = from; i < to; i++) {
+                long loanId = offsets.loan() + i + 1;
+                long customerId = offsets.customer() + 1 + random.nextInt(spec.customers());
+                int days = 1 + random.nextInt(14);
+
+                long unitId;
+                int group;
+                LocalDateTime loanDate;
+                LocalDateTime dueDate;
+                LocalDateTime returnDate = null;
+                double fine = 0.0;
+                double damage = 0.0;
+
+                if (i < activeLoans) {
+                    // Préstamo activo sobre una unidad marcada LOANED
+                    unitId = catalog.loanedUnits[(int) i];
+                    group = (int) ((unitId - offsets.unit() - 1) / spec.unitsPerGroup());
+                    loanDate = anchor.minusDays(random.nextInt(14)).plusMinutes(random.nextInt(600) + 540);
+                    dueDate = random.nextDouble() < spec.overdueRatio()
+                            ? anchor.minusDays(1 + random.nextInt(10)) // atrasado
+                            : loanDate.plusDays(days);
+                    if (dueDate.isBefore(loanDate)) {
+                        loanDate = dueDate.minusDays(days);
+                    }
+                } else {
+                    group = catalog.rankToGroup[zipfRank(catalog.zipfCdf, random.nextDouble())];
+                    unitId = offsets.unit() + (long) group * spec.unitsPerGroup() + random.nextInt(spec.unitsPerGroup()) + 1;
+                    loanDate = anchor.minusDays(14 + random.nextInt(spec.historyDays())).plusMinutes(random.nextInt(600) + 540);
+                    dueDate = loanDate.plusDays(days);
+                    if (random.nextDouble() < spec.overdueRatio()) {
+                        int lateDays = 1 + random.nextInt(10);
+                        returnDate = dueDate.plusDays(lateDays).plusHours(random.nextInt(8));
+                        fine = random.nextDouble() < spec.unpaidRatio() ? lateDays * catalog.fineRate[group] : 0.0;
+                    } else {
+                        returnDate = loanDate.plusHours(1 + random.nextInt(days * 24));
+                    }
+                    if (random.nextDouble() < spec.repairRate() && random.nextDouble() < spec.unpaidRatio()) {
+                        damage = 1000.0 * (1 + random.nextInt(20));
+                    }
+                }
+
+                loans.setLong(1, loanId);
+                loans.setLong(2, customerId);
+                loans.setLong(3, unitId);
+                loans.setTimestamp(4, Timestamp.valueOf(loanDate));
+                loans.setTimestamp(5, Timestamp.valueOf(dueDate));
+                loans.setTimestamp(6, returnDate == null ? null : Timestamp.valueOf(returnDate));
+                loans.setDouble(7, catalog.rentalRate[group] * days);
+                loans.setDouble(8, fine);
+                loans.setDouble(9, damage);
+                loans.addBatch();
+
+                if (kardex != null) {
+                    addKardex(kardex, kardexBase + 2 * i + 1, unitId, customerId, "LOAN", loanDate,
+                            "Préstamo a cliente ID: " + customerId + " - Usuario: datagen");
+                    if (returnDate != null) {
+                        addKardex(kardex, kardexBase + 2 * i + 2, unitId, customerId,
+                                damage > 0 ? "REPAIR" : "RETURN", returnDate,
+                                "Devolución ID: " + loanId + " - Daño: " + damage + " - Usuario: datagen");
+                    }
+                }
+
+                if (++pending >= spec.batchSize()) {
+                    loans.executeBatch();
+                    if (kardex != null) {
+                        kardex.executeBatch();
+                    }
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                loans.executeBatch();
+                if (kardex != null) {
+                    kardex.executeBatch();
+                }
+            }
+            con.commit();
+        }
+    }
+
+    private void addKardex(PreparedStatement ps, long id, long unitId, long customerId, String type,
+                           LocalDateTime date, String details) throws SQLException {
+        ps.setLong(1, id);
+        ps.setLong(2, unitId);
+        ps.setLong(3, customerId);
+        ps.setString(4, type);
+        ps.setTimestamp(5, Timestamp.valueOf(date));
+        ps.setString(6, details);
+        ps.addBatch();
+    }
+
+    /* H2 no avanza la identidad con ids explícitos; MySQL ajusta AUTO_INCREMENT solo */
+    private void restartIdentities(Offsets offsets, DatasetSpec spec) throws SQLException {
+        if (!offsets.h2()) {
+            return;
+        }
+        try (Connection con = dataSource.getConnection(); Statement st = con.createStatement()) {
+            for (String table : List.of("customers", "tariffs", "tool_groups", "tool_units", "loans", "kardex_movements")) {
+                long next = maxId(con, table) + 1;
+                st.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            }
+        }
+    }
+
+    /* ---------- Utilidades ---------- */
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(long from, long to, long chunk) throws SQLException;
+    }
+
+    private void runChunks(ExecutorService pool, long total, long chunkSize, ChunkTask task) throws SQLException {
+        List<Future<?>> futures = new ArrayList<>();
+        long chunk = 0;
+        for (long from = 0; from < total; from += chunkSize, chunk++) {
+            long start = from;
+            long end = Math.min(total, from + chunkSize);
+            long index = chunk;
+            futures.add(pool.submit(() -> {
+                task.run(start, end, index);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Generación interrumpida", ex);
+            } catch (java.util.concurrent.ExecutionException ex) {
+                if (ex.getCause() instanceof SQLException sql) {
+                    throw sql;
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+    }
+
+    private Connection open(Offsets offsets) throws SQLException {
+        Connection con = dataSource.getConnection();
+        con.setAutoCommit(false);
+        if (offsets.mysql()) {
+            try (Statement st = con.createStatement()) {
+                st.execute("SET foreign_key_checks = 0, unique_checks = 0");
+            }
+        }
+        return con;
+    }
+
+    private int flushIfFull(PreparedStatement ps, int pending, int batchSize) throws SQLException {
+        if (++pending >= batchSize) {
+            ps.executeBatch();
+            return 0;
+        }
+        return pending;
+    }
+
+    private void finish(Connection con, PreparedStatement ps, int pending) throws SQLException {
+        if (pending > 0) {
+            ps.executeBatch();
+        }
+        con.commit();
+    }
+
+    static int zipfRank(double[] cdf, double u) {
+        int idx = Arrays.binarySearch(cdf, u);
+        return Math.min(cdf.length - 1, idx >= 0 ? idx : -idx - 1);
+    }
+
+    static SplittableRandom random(long seed, long salt, long chunk) {
+        return new SplittableRandom(mix(seed * 0x9E3779B97F4A7C15L + salt * 0xBF58476D1CE4E5B9L + chunk));
+    }
+
+    // SplitMix64: dispersa semillas consecutivas
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
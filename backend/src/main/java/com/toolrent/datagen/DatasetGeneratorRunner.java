@@ -0,0 +1,55 @@
+package com.toolrent.datagen;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/*
+ * Uso por línea de comandos (perfil datagen, sin servidor web):
+ * java -jar Toolrent-backend-exec.jar --spring.profiles.active=datagen \
+ *      --toolrent.datagen.loans=10000000 --toolrent.datagen.seed=7
+ */
+@Component
+@Profile("datagen")
+public class DatasetGeneratorRunner implements CommandLineRunner {
+
+    private final DatasetGenerator generator;
+    private final Environment env;
+    private final ApplicationContext context;
+
+    public DatasetGeneratorRunner(DatasetGenerator generator, Environment env, ApplicationContext context) {
+        this.generator = generator;
+        this.env = env;
+        this.context = context;
+    }
+
+    @Override
+    public void run(String... args) {
+        DatasetSpec d = DatasetSpec.defaults();
+        DatasetSpec spec = new DatasetSpec(
+                env.getProperty("toolrent.datagen.seed", Long.class, d.seed()),
+                env.getProperty("toolrent.datagen.customers", Integer.class, d.customers()),
+                env.getProperty("toolrent.datagen.tool-groups", Integer.class, d.toolGroups()),
+                env.getProperty("toolrent.datagen.units-per-group", Integer.class, d.unitsPerGroup()),
+                env.getProperty("toolrent.datagen.loans", Long.class, d.loans()),
+                env.getProperty("toolrent.datagen.zipf-exponent", Double.class, d.zipfExponent()),
+                env.getProperty("toolrent.datagen.overdue-ratio", Double.class, d.overdueRatio()),
+                env.getProperty("toolrent.datagen.unpaid-ratio", Double.class, d.unpaidRatio()),
+                env.getProperty("toolrent.datagen.repair-rate", Double.class, d.repairRate()),
+                env.getProperty("toolrent.datagen.loaned-unit-ratio", Double.class, d.loanedUnitRatio()),
+                env.getProperty("toolrent.datagen.history-days", Integer.class, d.historyDays()),
+                env.getProperty("toolrent.datagen.anchor", LocalDate.class, d.anchor()),
+                env.getProperty("toolrent.datagen.kardex", Boolean.class, d.kardex()),
+                env.getProperty("toolrent.datagen.threads", Integer.class, d.threads()),
+                env.getProperty("toolrent.datagen.batch-size", Integer.class, d.batchSize()),
+                env.getProperty("toolrent.datagen.chunk-size", Integer.class, d.chunkSize()));
+
+        generator.generate(spec);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,57 @@
+package com.toolrent.datagen;
+
+import java.time.LocalDate;
+
+/*
+ * Parámetros del dataset sintético. Con la misma semilla y la misma fecha ancla se generan
+ * exactamente las mismas filas, sin importar la cantidad de hilos.
+ */
+public record DatasetSpec(
+        long seed,
+        int customers,
+        int toolGroups,
+        int unitsPerGroup,
+        long loans,
+        double zipfExponent,     // popularidad de herramientas (1.0 ≈ ley de Zipf clásica)
+        double overdueRatio,     // préstamos devueltos (o activos) con atraso
+        double unpaidRatio,      // multas / daños que quedan sin pagar
+        double repairRate,       // devoluciones con daño → REPAIR
+        double loanedUnitRatio,  // unidades actualmente prestadas (= préstamos activos)
+        int historyDays,         // ventana de fechas de préstamo hacia atrás desde el ancla
+        LocalDate anchor,
+        boolean kardex,          // genera LOAN + RETURN/REPAIR por préstamo
+        int threads,
+        int batchSize,
+        int chunkSize
+) {
+
+    public static DatasetSpec defaults() {
+        return new DatasetSpec(42L, 50_000, 2_000, 25, 1_000_000,
+                1.1, 0.12, 0.2, 0.05, 0.1, 3 * 365, LocalDate.now(), true,
+                Runtime.getRuntime().availableProcessors(), 1_000, 50_000);
+    }
+
+    public DatasetSpec withSeed(long seed) {
+        return new DatasetSpec(seed, customers, toolGroups, unitsPerGroup, loans, zipfExponent, overdueRatio,
+                unpaidRatio, repairRate, loanedUnitRatio, historyDays, anchor, kardex, threads, batchSize, chunkSize);
+    }
+
+    public DatasetSpec withSize(int customers, int toolGroups, int unitsPerGroup, long loans) {
+        return new DatasetSpec(seed, customers, toolGroups, unitsPerGroup, loans, zipfExponent, overdueRatio,
+                unpaidRatio, repairRate, loanedUnitRatio, historyDays, anchor, kardex, threads, batchSize, chunkSize);
+    }
+
+    public DatasetSpec withAnchor(LocalDate anchor) {
+        return new DatasetSpec(seed, customers, toolGroups, unitsPerGroup, loans, zipfExponent, overdueRatio,
+                unpaidRatio, repairRate, loanedUnitRatio, historyDays, anchor, kardex, threads, batchSize, chunkSize);
+    }
+
+    public DatasetSpec withParallelism(int threads, int batchSize, int chunkSize) {
+        return new DatasetSpec(seed, customers, toolGroups, unitsPerGroup, loans, zipfExponent, overdueRatio,
+                unpaidRatio, repairRate, loanedUnitRatio, historyDays, anchor, kardex, threads, batchSize, chunkSize);
+    }
+
+    public long totalUnits() {
+        return (long) toolGroups * unitsPerGroup;
+    }
+}
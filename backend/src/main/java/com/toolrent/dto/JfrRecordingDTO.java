@@ -0,0 +1,13 @@
+package com.toolrent.dto;
+
+import java.time.LocalDateTime;
+
+public record JfrRecordingDTO(
+        String id,
+        String profile, // default / profile (configuraciones .jfc del JDK)
+        String status, // RUNNING, DONE, FAILED
+        LocalDateTime startedAt,
+        long durationSeconds,
+        Long sizeBytes, // null mientras graba
+        String error
+) {}
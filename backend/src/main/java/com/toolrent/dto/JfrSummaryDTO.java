@@ -0,0 +1,14 @@
+package com.toolrent.dto;
+
+import java.util.List;
+
+public record JfrSummaryDTO(
+        String id,
+        long executionSamples, // muestras de CPU (jdk.ExecutionSample)
+        long allocationSamples, // muestras de asignación (jdk.ObjectAllocationSample)
+        long sampledAllocationBytes, // bytes estimados por el muestreo de asignaciones
+        List<Entry> hotMethods, // métodos com.toolrent.* más cercanos al tope de la pila
+        List<Entry> allocationSites // método com.toolrent.* + clase asignada
+) {
+    public record Entry(String frame, long samples, long bytes) {}
+}
@@ -0,0 +1,17 @@
+package com.toolrent.dto;
+
+import java.time.LocalDateTime;
+
+/* Movimiento del kardex en una fila plana (lectura R2DBC, sin entidades ni relaciones lazy) */
+public record KardexMovementRowDTO(
+        Long id,
+        String movementType,
+        LocalDateTime movementDate,
+        String details,
+        Long toolUnitId,
+        Long toolGroupId,
+        String toolGroupName,
+        Long customerId,
+        String customerName,
+        String customerRut
+) {}
@@ -0,0 +1,15 @@
+package com.toolrent.dto;
+
+import com.toolrent.entities.CustomerEntity;
+
+import java.util.List;
+import java.util.Map;
+
+public record ReportDashboardDTO(
+        List<LoanActiveDTO> activeLoans,
+        List<Map<String, Object>> topTools,
+        List<CustomerEntity> overdueCustomers,
+        List<CustomerDebtDTO> customersWithDebt,
+        Map<String, Double> timings, // ms por sección
+        Map<String, String> errors // secciones degradadas (timeout / error)
+) {}
@@ -0,0 +1,16 @@
+package com.toolrent.dto;
+
+import java.time.LocalDateTime;
+
+public record ReportJobDTO(
+        String id,
+        String type, // ACTIVE_LOANS / TOP_TOOLS
+        String status, // QUEUED, RUNNING, DONE, FAILED, CANCELLED
+        LocalDateTime from,
+        LocalDateTime to,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        Object result, // solo cuando status = DONE
+        String error
+) {}
@@ -0,0 +1,33 @@
+package com.toolrent.dto;
+
+// Fila de GET /tools: grupo, tarifa y conteo de unidades por estado (sin serializar las unidades)
+public record ToolGroupSummaryDTO(
+        Long id,
+        String name,
+        String category,
+        Double replacementValue,
+        Tariff tariff,
+        long totalStock,
+        long availableCount,
+        long loanedCount,
+        long inRepairCount,
+        long retiredCount
+) {
+    public record Tariff(Long id, Double dailyRentalRate, Double dailyFineRate) {}
+
+    // Constructor plano para la proyección JPQL (SELECT new ...)
+    public ToolGroupSummaryDTO(Long id, String name, String category, Double replacementValue,
+                               Long tariffId, Double dailyRentalRate, Double dailyFineRate,
+                               Long totalStock, Long availableCount, Long loanedCount,
+                               Long inRepairCount, Long retiredCount) {
+        this(id, name, category, replacementValue,
+                new Tariff(tariffId, dailyRentalRate, dailyFineRate),
+                count(totalStock), count(availableCount), count(loanedCount),
+                count(inRepairCount), count(retiredCount));
+    }
+
+    // SUM sobre un grupo sin unidades (LEFT JOIN) devuelve NULL
+    private static long count(Long value) {
+        return value == null ? 0 : value;
+    }
+}
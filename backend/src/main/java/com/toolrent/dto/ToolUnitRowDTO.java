@@ -0,0 +1,17 @@
+package com.toolrent.dto;
+
+import com.toolrent.entities.ToolStatus;
+
+// Fila de GET /tools/units: la unidad con el nombre y categoría de su grupo
+public record ToolUnitRowDTO(
+        Long id,
+        ToolStatus status,
+        ToolGroup toolGroup
+) {
+    public record ToolGroup(Long id, String name, String category) {}
+
+    // Constructor plano para la proyección JPQL (SELECT new ...)
+    public ToolUnitRowDTO(Long id, ToolStatus status, Long toolGroupId, String toolGroupName, String category) {
+        this(id, status, new ToolGroup(toolGroupId, toolGroupName, category));
+    }
+}
@@ -1,5 +1,6 @@
 package com.toolrent.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "kardex_movements")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // proxies lazy de Hibernate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,11 +19,11 @@ public class KardexMovementEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tool_unit_id", nullable = false)
     private ToolUnitEntity toolUnit;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private CustomerEntity customer; // Cliente al que está asociado el movimiento
 
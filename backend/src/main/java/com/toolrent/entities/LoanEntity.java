@@ -1,14 +1,24 @@
 package com.toolrent.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "loans")
+// Devolución: unidad, grupo y tarifa (multa) en una consulta; el cliente solo se usa como referencia
+@NamedEntityGraph(name = "LoanEntity.return",
+        attributeNodes = @NamedAttributeNode(value = "toolUnit", subgraph = "unit"),
+        subgraphs = {
+                @NamedSubgraph(name = "unit", attributeNodes = @NamedAttributeNode(value = "toolGroup", subgraph = "group")),
+                @NamedSubgraph(name = "group", attributeNodes = @NamedAttributeNode("tariff"))
+        })
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // proxies lazy de Hibernate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,11 +27,11 @@ public class LoanEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private CustomerEntity customer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tool_unit_id", nullable = false)
     private ToolUnitEntity toolUnit;
 
@@ -37,4 +47,10 @@ public class LoanEntity {
 
     private Double fineAmount = 0.0; // Multa por retraso
     private Double damageCharge = 0.0; // Cargo por daño
+
+    // Bloqueo optimista: devolución, cargos y pago concurrentes sobre el mismo préstamo no se pisan
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
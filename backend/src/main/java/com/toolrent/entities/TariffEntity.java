@@ -1,6 +1,7 @@
 package com.toolrent.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "tariffs")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // proxies lazy de Hibernate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,7 +20,9 @@ public class TariffEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(mappedBy = "tariff")
+    // Lado inverso: sin bytecode enhancement Hibernate no puede dejarlo lazy; solo se resuelve sin consulta
+    // extra cuando la tarifa se carga junto a su grupo (grafos ToolGroupEntity.*)
+    @OneToOne(mappedBy = "tariff", fetch = FetchType.LAZY)
     @JsonIgnore
     private ToolGroupEntity tool_group;
 
@@ -1,13 +1,20 @@
 package com.toolrent.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "tool_groups")
+// Préstamo y edición de tarifa: solo la tarifa. Catálogo (GET /tools): tarifa y unidades
+@NamedEntityGraph(name = "ToolGroupEntity.tariff", attributeNodes = @NamedAttributeNode("tariff"))
+@NamedEntityGraph(name = "ToolGroupEntity.catalog",
+        attributeNodes = {@NamedAttributeNode("tariff"), @NamedAttributeNode("units")})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // proxies lazy de Hibernate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,11 +33,12 @@ public class ToolGroupEntity {
     @Column(nullable = false)
     private Double replacementValue;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "tariff_id", nullable = false)
     private TariffEntity tariff;
 
     @OneToMany(mappedBy = "toolGroup", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 32)
     @Builder.Default
     private List<ToolUnitEntity> units = new ArrayList<>();
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +13,9 @@ import java.util.List;
 @ToString(exclude = "toolGroup")
 @Entity
 @Table(name = "tool_units")
+// Cambio de estado y retiro: la respuesta incluye el grupo y el retiro usa su valor de reposición
+@NamedEntityGraph(name = "ToolUnitEntity.group", attributeNodes = @NamedAttributeNode("toolGroup"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // proxies lazy de Hibernate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +25,7 @@ public class ToolUnitEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tool_group_id", nullable = false)
     @JsonIgnoreProperties({"units", "tariff", "replacementValue", "category"})
     private ToolGroupEntity toolGroup;
@@ -30,7 +35,15 @@ public class ToolUnitEntity {
     @Builder.Default
     private ToolStatus status = ToolStatus.AVAILABLE;
 
+    // Bloqueo optimista: dos cambios de estado concurrentes sobre la misma unidad no se pisan
+    // (null en entidades nuevas para que Spring Data las detecte como nuevas; el default cubre filas existentes)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "toolUnit")
+    @BatchSize(size = 32)
     @JsonIgnore
     @Builder.Default
     private List<LoanEntity> loans = new ArrayList<>();
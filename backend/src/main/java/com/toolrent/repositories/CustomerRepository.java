@@ -9,11 +9,23 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<CustomerEntity, Long> {
+public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>, SparseFieldRepository {
+
+    // Campos disponibles para GET /customers?fields=...
+    SparseView FIELDS = new SparseView("CustomerEntity c", null, "c.id", SparseView.columns(
+            "id", "c.id",
+            "name", "c.name",
+            "rut", "c.rut",
+            "phone", "c.phone",
+            "email", "c.email",
+            "status", "c.status"));
+
     Optional<CustomerEntity> findByEmail(String mail);
 
     // Clientes con atrasos
@@ -48,4 +60,12 @@ public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>
 
     // Encontrar por estado
     List<CustomerEntity> findByStatus(CustomerStatus status);
+
+    default List<Map<String, Object>> findAllFields(Collection<String> fields) {
+        return findFields(FIELDS, fields, Map.of());
+    }
+
+    default List<Map<String, Object>> findFieldsByStatus(CustomerStatus status, Collection<String> fields) {
+        return findFields(FIELDS.filtered("c.status = :status", "c.id"), fields, Map.of("status", status));
+    }
 }
@@ -7,10 +7,27 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Repository
-public interface KardexMovementRepository extends JpaRepository<KardexMovementEntity, Long> {
+public interface KardexMovementRepository extends JpaRepository<KardexMovementEntity, Long>, SparseFieldRepository {
+
+    // Campos disponibles con ?fields=...; mismas rutas que el JSON de KardexMovementEntity
+    SparseView FIELDS = new SparseView("KardexMovementEntity km", null, "km.movementDate DESC", SparseView.columns(
+            "id", "km.id",
+            "movementType", "km.movementType",
+            "movementDate", "km.movementDate",
+            "details", "km.details",
+            "toolUnit.id", "km.toolUnit.id",
+            "toolUnit.status", "km.toolUnit.status",
+            "toolUnit.toolGroup.id", "km.toolUnit.toolGroup.id",
+            "toolUnit.toolGroup.name", "km.toolUnit.toolGroup.name",
+            "customer.id", "km.customer.id",
+            "customer.name", "km.customer.name",
+            "customer.rut", "km.customer.rut"));
+
     @Query("SELECT km FROM KardexMovementEntity km " +
             "JOIN FETCH km.toolUnit tu " +
             "JOIN FETCH tu.toolGroup tg " +
@@ -36,4 +53,19 @@ public interface KardexMovementRepository extends JpaRepository<KardexMovementEn
             "ORDER BY km.movementDate DESC")
     List<KardexMovementEntity> findByDateRange(@Param("from") LocalDateTime from,
                                                @Param("to") LocalDateTime to);
+
+    default List<Map<String, Object>> findAllFields(Collection<String> fields) {
+        return findFields(FIELDS, fields, Map.of());
+    }
+
+    default List<Map<String, Object>> findFieldsByToolGroupId(Long toolGroupId, Collection<String> fields) {
+        return findFields(FIELDS.filtered("km.toolUnit.toolGroup.id = :toolGroupId", "km.movementDate DESC"),
+                fields, Map.of("toolGroupId", toolGroupId));
+    }
+
+    default List<Map<String, Object>> findFieldsByDateRange(LocalDateTime from, LocalDateTime to,
+                                                           Collection<String> fields) {
+        return findFields(FIELDS.filtered("km.movementDate BETWEEN :from AND :to", "km.movementDate DESC"),
+                fields, Map.of("from", from, "to", to));
+    }
 }
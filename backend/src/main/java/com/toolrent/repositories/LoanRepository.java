@@ -2,18 +2,36 @@ package com.toolrent.repositories;
 
 import com.toolrent.dto.LoanActiveDTO;
 import com.toolrent.entities.LoanEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public interface LoanRepository extends JpaRepository<LoanEntity, Long> {
+public interface LoanRepository extends JpaRepository<LoanEntity, Long>, SparseFieldRepository {
+
+    // Campos de LoanActiveDTO disponibles con ?fields=...
+    SparseView FIELDS = new SparseView("LoanEntity l", null, "l.id", SparseView.columns(
+            "id", "l.id",
+            "customerName", "l.customer.name",
+            "toolName", "l.toolUnit.toolGroup.name",
+            "loanDate", "l.loanDate",
+            "dueDate", "l.dueDate",
+            "returnDate", "l.returnDate",
+            "fineAmount", "l.fineAmount",
+            "damageCharge", "l.damageCharge",
+            "status", "CASE WHEN l.returnDate IS NULL THEN 'ACTIVE' ELSE 'RETURNED' END"));
+
+    // Mismo filtro que findReturnedWithDebts / findPendingPayment
+    String WITH_DEBTS = "l.returnDate IS NOT NULL AND (l.fineAmount > 0 OR l.damageCharge > 0)";
+
 
     // Préstamos activos (sin devolución) en rango de fecha de préstamo
     @Query("""
@@ -108,6 +126,10 @@ public interface LoanRepository extends JpaRepository<LoanEntity, Long> {
 """)
     Optional<LoanEntity> findTopByToolUnitIdAndReturnDateIsNotNullOrderByReturnDateDesc(@Param("unitId") Long unitId);
 
+    // Devolución y cargo por daño: unidad, grupo y tarifa en una consulta
+    @EntityGraph("LoanEntity.return")
+    Optional<LoanEntity> findWithToolUnitById(Long id);
+
     /* ---------- Métodos de validación de negocio ---------- */
 
     boolean existsByCustomerIdAndReturnDateIsNullAndDueDateBefore(Long customerId, LocalDateTime now);
@@ -119,4 +141,14 @@ public interface LoanRepository extends JpaRepository<LoanEntity, Long> {
     long countByCustomerIdAndReturnDateIsNull(Long customerId);
 
     boolean existsByCustomerIdAndToolUnitToolGroupIdAndReturnDateIsNull(Long customerId, Long toolGroupId);
-}
\ No newline at end of file
+
+    default List<Map<String, Object>> findActiveLoanFieldsInRange(LocalDateTime from, LocalDateTime to,
+                                                                  Collection<String> fields) {
+        return findFields(FIELDS.filtered("l.returnDate IS NULL AND l.loanDate BETWEEN :from AND :to", "l.dueDate ASC"),
+                fields, Map.of("from", from, "to", to));
+    }
+
+    default List<Map<String, Object>> findReturnedWithDebtsFields(Collection<String> fields) {
+        return findFields(FIELDS.filtered(WITH_DEBTS, "l.returnDate DESC"), fields, Map.of());
+    }
+}
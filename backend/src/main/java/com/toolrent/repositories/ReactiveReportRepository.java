@@ -0,0 +1,129 @@
+package com.toolrent.repositories;
+
+import com.toolrent.dto.KardexMovementRowDTO;
+import com.toolrent.dto.LoanActiveDTO;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Lecturas de reportes y kardex por R2DBC. Cada consulta es un Flux de filas con backpressure hasta el driver:
+ * las filas se piden a la BD a medida que el cliente HTTP las consume. Mismas consultas que LoanRepository y
+ * KardexMovementRepository, en SQL nativo con los nombres físicos de Hibernate (snake_case).
+ * Solo lectura: las escrituras siguen en JPA. No es un repositorio de Spring Data; lo crea ReactiveReadConfig.
+ */
+public class ReactiveReportRepository implements AutoCloseable {
+
+    private static final String KARDEX_SELECT = """
+            SELECT km.id, km.movement_type, km.movement_date, km.details,
+                   tu.id AS tool_unit_id, tg.id AS tool_group_id, tg.name AS tool_group_name,
+                   c.id AS customer_id, c.name AS customer_name, c.rut AS customer_rut
+            FROM kardex_movements km
+            JOIN tool_units tu ON tu.id = km.tool_unit_id
+            JOIN tool_groups tg ON tg.id = tu.tool_group_id
+            JOIN customers c ON c.id = km.customer_id
+            """;
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient client;
+
+    public ReactiveReportRepository(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        this.client = DatabaseClient.create(connectionFactory);
+    }
+
+    // Igual que LoanRepository.findActiveLoansInRange
+    public Flux<LoanActiveDTO> findActiveLoansInRange(LocalDateTime from, LocalDateTime to) {
+        return client.sql("""
+                        SELECT l.id, c.name AS customer_name, tg.name AS tool_name,
+                               l.loan_date, l.due_date, l.return_date, l.fine_amount, l.damage_charge
+                        FROM loans l
+                        JOIN customers c ON c.id = l.customer_id
+                        JOIN tool_units tu ON tu.id = l.tool_unit_id
+                        JOIN tool_groups tg ON tg.id = tu.tool_group_id
+                        WHERE l.return_date IS NULL
+                          AND l.loan_date BETWEEN :from AND :to
+                        ORDER BY l.due_date ASC
+                        """)
+                .bind("from", from)
+                .bind("to", to)
+                .map(row -> new LoanActiveDTO(
+                        row.get("id", Long.class),
+                        row.get("customer_name", String.class),
+                        row.get("tool_name", String.class),
+                        row.get("loan_date", LocalDateTime.class),
+                        row.get("due_date", LocalDateTime.class),
+                        row.get("return_date", LocalDateTime.class),
+                        row.get("fine_amount", Double.class),
+                        row.get("damage_charge", Double.class)))
+                .all();
+    }
+
+    // Igual que LoanRepository.countLoansByToolGroupInRange (mismas claves en cada fila)
+    public Flux<Map<String, Object>> countLoansByToolGroupInRange(LocalDateTime from, LocalDateTime to) {
+        return client.sql("""
+                        SELECT tg.id, tg.name, tg.category, COUNT(l.id) AS total
+                        FROM loans l
+                        JOIN tool_units tu ON tu.id = l.tool_unit_id
+                        JOIN tool_groups tg ON tg.id = tu.tool_group_id
+                        WHERE l.loan_date BETWEEN :from AND :to
+                        GROUP BY tg.id, tg.name, tg.category
+                        ORDER BY COUNT(l.id) DESC
+                        """)
+                .bind("from", from)
+                .bind("to", to)
+                .map(row -> {
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("toolGroupId", row.get("id", Long.class));
+                    result.put("toolGroupName", row.get("name", String.class));
+                    result.put("category", row.get("category", String.class));
+                    result.put("total", row.get("total", Long.class));
+                    return result;
+                })
+                .all();
+    }
+
+    // Igual que KardexMovementRepository.findAllWithDetails, en filas planas
+    public Flux<KardexMovementRowDTO> findKardexMovements() {
+        return client.sql(KARDEX_SELECT + "ORDER BY km.movement_date DESC")
+                .map(ReactiveReportRepository::kardexRow)
+                .all();
+    }
+
+    // Igual que KardexMovementRepository.findByDateRange
+    public Flux<KardexMovementRowDTO> findKardexMovementsInRange(LocalDateTime from, LocalDateTime to) {
+        return client.sql(KARDEX_SELECT + "WHERE km.movement_date BETWEEN :from AND :to ORDER BY km.movement_date DESC")
+                .bind("from", from)
+                .bind("to", to)
+                .map(ReactiveReportRepository::kardexRow)
+                .all();
+    }
+
+    private static KardexMovementRowDTO kardexRow(Readable row) {
+        return new KardexMovementRowDTO(
+                row.get("id", Long.class),
+                row.get("movement_type", String.class),
+                row.get("movement_date", LocalDateTime.class),
+                row.get("details", String.class),
+                row.get("tool_unit_id", Long.class),
+                row.get("tool_group_id", Long.class),
+                row.get("tool_group_name", String.class),
+                row.get("customer_id", Long.class),
+                row.get("customer_name", String.class),
+                row.get("customer_rut", String.class));
+    }
+
+    // Cierra el pool de conexiones R2DBC al bajar el contexto
+    @Override
+    public void close() {
+        if (connectionFactory instanceof Disposable pool) {
+            pool.dispose();
+        }
+    }
+}
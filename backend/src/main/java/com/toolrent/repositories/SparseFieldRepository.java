@@ -0,0 +1,12 @@
+package com.toolrent.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/* Fragmento común de los repositorios con listados ?fields= (implementación en SparseFieldRepositoryImpl) */
+public interface SparseFieldRepository {
+
+    /* Una fila por resultado, solo con los campos pedidos (anidados según la ruta: "tariff.dailyRentalRate") */
+    List<Map<String, Object>> findFields(SparseView view, Collection<String> fields, Map<String, Object> params);
+}
@@ -0,0 +1,60 @@
+package com.toolrent.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.*;
+
+public class SparseFieldRepositoryImpl implements SparseFieldRepository {
+
+    private final EntityManager entityManager;
+
+    public SparseFieldRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(SparseView view, Collection<String> fields, Map<String, Object> params) {
+        List<String> selected = view.resolve(fields);
+
+        // Las expresiones salen de la vista (lista blanca), nunca del request
+        StringJoiner select = new StringJoiner(", ", "SELECT ", "");
+        for (int i = 0; i < selected.size(); i++) {
+            select.add(view.columns().get(selected.get(i)) + " AS f" + i);
+        }
+        StringBuilder jpql = new StringBuilder(select.toString()).append(" FROM ").append(view.from());
+        if (view.where() != null) {
+            jpql.append(" WHERE ").append(view.where());
+        }
+        if (view.orderBy() != null) {
+            jpql.append(" ORDER BY ").append(view.orderBy());
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        params.forEach(query::setParameter);
+
+        List<Tuple> rows = query.getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (int i = 0; i < selected.size(); i++) {
+                put(item, selected.get(i), row.get(i));
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> item, String path, Object value) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            item.put(path, value);
+            return;
+        }
+        Map<String, Object> nested = (Map<String, Object>) item.computeIfAbsent(path.substring(0, dot),
+                k -> new LinkedHashMap<String, Object>());
+        put(nested, path.substring(dot + 1), value);
+    }
+}
@@ -0,0 +1,63 @@
+package com.toolrent.repositories;
+
+import java.util.*;
+
+/*
+ * Listado con columnas a elección (?fields=...): de qué entidad sale, qué campos se pueden pedir y con qué
+ * expresión JPQL se lee cada uno. Los nombres son las rutas JSON de la respuesta completa
+ * (p. ej. "toolUnit.toolGroup.name"), así el front lee igual la respuesta con o sin fields.
+ * Las asociaciones se navegan con rutas implícitas: Hibernate solo agrega el JOIN si se pidió una columna de ella.
+ */
+public record SparseView(String from, String where, String orderBy, Map<String, String> columns) {
+
+    /* Pares nombre, expresión; conserva el orden declarado */
+    public static Map<String, String> columns(String... pairs) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            columns.put(pairs[i], pairs[i + 1]);
+        }
+        return Collections.unmodifiableMap(columns);
+    }
+
+    /* Misma vista con otro filtro y orden (los parámetros :nombre se pasan al consultar) */
+    public SparseView filtered(String where, String orderBy) {
+        return new SparseView(from, where, orderBy, columns);
+    }
+
+    /*
+     * Campos pedidos → columnas de la vista. Un prefijo ("tariff", "customer") incluye todas sus columnas.
+     * Lanza InvalidFieldsException con un campo desconocido o sin campos.
+     */
+    public List<String> resolve(Collection<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String raw : fields) {
+            String field = raw == null ? "" : raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (columns.containsKey(field)) {
+                selected.add(field);
+                continue;
+            }
+            List<String> nested = columns.keySet().stream().filter(c -> c.startsWith(field + ".")).toList();
+            if (nested.isEmpty()) {
+                throw new InvalidFieldsException("Campo desconocido: " + field + " (disponibles: " + columns.keySet() + ")");
+            }
+            selected.addAll(nested);
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidFieldsException("Indique al menos un campo en 'fields'");
+        }
+        return List.copyOf(selected);
+    }
+
+    /*
+     * No extiende IllegalArgumentException a propósito: el proxy de Spring Data la traduciría a
+     * InvalidDataAccessApiUsageException y el controlador ya no podría responder 400 con el mensaje.
+     */
+    public static class InvalidFieldsException extends RuntimeException {
+        public InvalidFieldsException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,8 +1,78 @@
 package com.toolrent.repositories;
 
+import com.toolrent.dto.ToolGroupSummaryDTO;
 import com.toolrent.entities.ToolGroupEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface ToolGroupRepository extends JpaRepository<ToolGroupEntity, Long>, SparseFieldRepository {
+
+    // Campos de ToolGroupSummaryDTO disponibles con ?fields=...; los conteos solo se calculan si se piden
+    SparseView FIELDS = new SparseView("ToolGroupEntity g", null, "g.id", SparseView.columns(
+            "id", "g.id",
+            "name", "g.name",
+            "category", "g.category",
+            "replacementValue", "g.replacementValue",
+            "tariff.id", "g.tariff.id",
+            "tariff.dailyRentalRate", "g.tariff.dailyRentalRate",
+            "tariff.dailyFineRate", "g.tariff.dailyFineRate",
+            "totalStock", "(SELECT COUNT(u) FROM ToolUnitEntity u WHERE u.toolGroup = g)",
+            "availableCount", unitCount("AVAILABLE"),
+            "loanedCount", unitCount("LOANED"),
+            "inRepairCount", unitCount("IN_REPAIR"),
+            "retiredCount", unitCount("RETIRED")));
+
+    private static String unitCount(String status) {
+        return "(SELECT COUNT(u) FROM ToolUnitEntity u WHERE u.toolGroup = g"
+                + " AND u.status = com.toolrent.entities.ToolStatus." + status + ")";
+    }
 
-public interface ToolGroupRepository extends JpaRepository<ToolGroupEntity, Long> {
-}
 
+    // Tarifa y unidades en la misma consulta: GET /tools no crece con la cantidad de grupos
+    @Override
+    @EntityGraph("ToolGroupEntity.catalog")
+    List<ToolGroupEntity> findAll();
+
+    // Préstamo (costo según tarifa) y edición de tarifa / valor de reposición
+    @Override
+    @EntityGraph("ToolGroupEntity.tariff")
+    Optional<ToolGroupEntity> findById(Long id);
+
+    // Catálogo para GET /tools: una fila por grupo, los conteos por estado se calculan en la base
+    @Query("""
+    SELECT new com.toolrent.dto.ToolGroupSummaryDTO(
+           g.id,
+           g.name,
+           g.category,
+           g.replacementValue,
+           t.id,
+           t.dailyRentalRate,
+           t.dailyFineRate,
+           COUNT(u.id),
+           SUM(CASE WHEN u.status = com.toolrent.entities.ToolStatus.AVAILABLE THEN 1L ELSE 0L END),
+           SUM(CASE WHEN u.status = com.toolrent.entities.ToolStatus.LOANED THEN 1L ELSE 0L END),
+           SUM(CASE WHEN u.status = com.toolrent.entities.ToolStatus.IN_REPAIR THEN 1L ELSE 0L END),
+           SUM(CASE WHEN u.status = com.toolrent.entities.ToolStatus.RETIRED THEN 1L ELSE 0L END)
+    )
+    FROM ToolGroupEntity g
+    JOIN g.tariff t
+    LEFT JOIN g.units u
+    GROUP BY g.id, g.name, g.category, g.replacementValue, t.id, t.dailyRentalRate, t.dailyFineRate
+    ORDER BY g.id
+""")
+    List<ToolGroupSummaryDTO> findAllSummaries();
+
+    default List<Map<String, Object>> findAllFields(Collection<String> fields, boolean onlyAvailable) {
+        SparseView view = onlyAvailable
+                ? FIELDS.filtered("EXISTS (SELECT u FROM ToolUnitEntity u WHERE u.toolGroup = g"
+                        + " AND u.status = com.toolrent.entities.ToolStatus.AVAILABLE)", "g.id")
+                : FIELDS;
+        return findFields(view, fields, Map.of());
+    }
+}
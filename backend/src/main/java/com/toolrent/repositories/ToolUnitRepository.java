@@ -1,19 +1,45 @@
 package com.toolrent.repositories;
 
+import com.toolrent.dto.ToolUnitRowDTO;
 import com.toolrent.entities.ToolStatus;
 import com.toolrent.entities.ToolUnitEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-//import java.util.List;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public interface ToolUnitRepository extends JpaRepository<ToolUnitEntity, Long> {
+public interface ToolUnitRepository extends JpaRepository<ToolUnitEntity, Long>, SparseFieldRepository {
+
+    // Campos de ToolUnitRowDTO disponibles con ?fields=...
+    SparseView FIELDS = new SparseView("ToolUnitEntity u", null, "u.id", SparseView.columns(
+            "id", "u.id",
+            "status", "u.status",
+            "toolGroup.id", "u.toolGroup.id",
+            "toolGroup.name", "u.toolGroup.name",
+            "toolGroup.category", "u.toolGroup.category"));
+
     Optional<ToolUnitEntity> findFirstByToolGroupIdAndStatus(Long toolGroupId, ToolStatus status);
 
     @Query("SELECT u FROM ToolUnitEntity u JOIN FETCH u.toolGroup g")
     List<ToolUnitEntity> findAllWithToolGroup();
 
+    // Listado para GET /tools/units: solo las columnas que muestra la tabla
+    @Query("SELECT new com.toolrent.dto.ToolUnitRowDTO(u.id, u.status, g.id, g.name, g.category) " +
+            "FROM ToolUnitEntity u JOIN u.toolGroup g ORDER BY u.id")
+    List<ToolUnitRowDTO> findAllRows();
+
     long countByToolGroupIdAndStatus(Long toolGroupId, ToolStatus status);
+
+    // Cambio de estado y retiro desde reparación: la unidad con su grupo
+    @Override
+    @EntityGraph("ToolUnitEntity.group")
+    Optional<ToolUnitEntity> findById(Long id);
+
+    default List<Map<String, Object>> findAllFields(Collection<String> fields) {
+        return findFields(FIELDS, fields, Map.of());
+    }
 }
@@ -1,19 +1,31 @@
 package com.toolrent.services;
 
+import com.toolrent.coordination.CoherentCache;
+import com.toolrent.coordination.InvalidationBus;
 import com.toolrent.entities.CustomerEntity;
 import com.toolrent.entities.CustomerStatus;
 import com.toolrent.repositories.CustomerRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CustomerService {
 
+    public static final String ENTITY = "customer";
+    private static final String SYSTEM_EMAIL = "system@toolrent.com";
+
     private final CustomerRepository customerRepository;
+    private final InvalidationBus invalidationBus;
+
+    // El cliente "Sistema" se lee en cada movimiento de kardex interno; se vacía con cualquier evento "customer"
+    private final CoherentCache<String, CustomerEntity> systemCustomer;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, InvalidationBus invalidationBus) {
         this.customerRepository = customerRepository;
+        this.invalidationBus = invalidationBus;
+        this.systemCustomer = new CoherentCache<>(ENTITY, invalidationBus);
     }
 
     /* Registrar cliente */
@@ -39,6 +51,7 @@ public class CustomerService {
                 "not found"));
         customer.setStatus(newStatus);
         customerRepository.save(customer);
+        invalidationBus.publish(ENTITY, id);
     }
 
     public Iterable<CustomerEntity> getAllCustomers() {
@@ -49,17 +62,28 @@ public class CustomerService {
         return customerRepository.findByStatus(status);
     }
 
-    public CustomerEntity getSystemCustomer() {
+    /* Listados con solo las columnas pedidas (?fields=) */
+    public List<Map<String, Object>> getAllCustomers(List<String> fields) {
+        return customerRepository.findAllFields(fields);
+    }
 
-        return customerRepository.findByEmail("system@toolrent.com")
-                .orElseGet(() -> {
-                    CustomerEntity sys = new CustomerEntity();
-                    sys.setName("Sistema");
-                    sys.setRut("0-0");
-                    sys.setEmail("system@toolrent.com");
-                    sys.setPhone("000");
-                    sys.setStatus(CustomerStatus.ACTIVE);
-                    return customerRepository.save(sys);
-                });
+    public List<Map<String, Object>> getCustomersByStatus(CustomerStatus status, List<String> fields) {
+        return customerRepository.findFieldsByStatus(status, fields);
+    }
+
+    public CustomerEntity getSystemCustomer() {
+        // Solo se cachea el que ya existe: el recién creado podría perderse si la transacción del llamador hace rollback
+        CustomerEntity cached = systemCustomer.get(SYSTEM_EMAIL,
+                email -> customerRepository.findByEmail(email).orElse(null));
+        if (cached != null) {
+            return cached;
+        }
+        CustomerEntity sys = new CustomerEntity();
+        sys.setName("Sistema");
+        sys.setRut("0-0");
+        sys.setEmail(SYSTEM_EMAIL);
+        sys.setPhone("000");
+        sys.setStatus(CustomerStatus.ACTIVE);
+        return customerRepository.save(sys);
     }
 }
\ No newline at end of file
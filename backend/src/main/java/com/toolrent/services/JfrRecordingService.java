@@ -0,0 +1,302 @@
+package com.toolrent.services;
+
+import com.toolrent.dto.JfrRecordingDTO;
+import com.toolrent.dto.JfrSummaryDTO;
+import jakarta.servlet.Filter;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/*
+ * Grabaciones JFR bajo demanda: una a la vez, con duración acotada, en un directorio local del contenedor.
+ * Al cumplirse la duración el JDK detiene la grabación y escribe el .jfr en su destino.
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingService.class);
+
+    private static final String APP_PACKAGE = "com.toolrent.";
+
+    public enum Status { RUNNING, DONE, FAILED }
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final int maxRecordings;
+
+    // Orden de inicio; acceso siempre sincronizado sobre this
+    private final Map<String, JfrRecording> recordings = new LinkedHashMap<>();
+
+    public JfrRecordingService(@Value("${toolrent.jfr.directory:${java.io.tmpdir}/toolrent-jfr}") String directory,
+                               @Value("${toolrent.jfr.max-duration-seconds:300}") long maxDurationSeconds,
+                               @Value("${toolrent.jfr.max-recordings:10}") int maxRecordings) {
+        this.directory = Path.of(directory);
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxRecordings = maxRecordings;
+    }
+
+    /* Inicia una grabación; lanza IllegalStateException si ya hay una en curso */
+    public synchronized JfrRecordingDTO start(String profile, Duration duration) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Java Flight Recorder no está disponible en esta JVM");
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("La duración debe estar entre 1 y " + maxDuration.toSeconds() + " segundos");
+        }
+        refresh();
+        if (recordings.values().stream().anyMatch(r -> r.status == Status.RUNNING)) {
+            throw new IllegalStateException("Ya hay una grabación JFR en curso");
+        }
+
+        Configuration configuration = configuration(profile);
+        String id = UUID.randomUUID().toString();
+        Path file = directory.resolve("toolrent-" + id + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            Recording recording = new Recording(configuration);
+            recording.setName("toolrent-" + id);
+            recording.setToDisk(true);
+            recording.setDestination(file);
+            recording.setDuration(duration);
+            recording.start();
+            recordings.put(id, new JfrRecording(id, profile, duration, file, recording));
+        } catch (IOException ex) {
+            throw new IllegalStateException("No se pudo iniciar la grabación JFR: " + ex.getMessage(), ex);
+        }
+        log.info("Grabación JFR {} iniciada (perfil {}, {} s)", id, profile, duration.toSeconds());
+        purgeOld();
+        return recordings.get(id).toDTO();
+    }
+
+    public synchronized List<JfrRecordingDTO> list() {
+        refresh();
+        List<JfrRecordingDTO> result = new ArrayList<>();
+        recordings.values().forEach(r -> result.add(r.toDTO()));
+        Collections.reverse(result); // más reciente primero
+        return result;
+    }
+
+    public synchronized Optional<JfrRecordingDTO> find(String id) {
+        refresh();
+        return Optional.ofNullable(recordings.get(id)).map(JfrRecording::toDTO);
+    }
+
+    /* Archivo .jfr de una grabación terminada */
+    public synchronized Optional<Path> file(String id) {
+        refresh();
+        JfrRecording recording = recordings.get(id);
+        if (recording == null || recording.status != Status.DONE) {
+            return Optional.empty();
+        }
+        return Optional.of(recording.file);
+    }
+
+    /*
+     * Resumen de la grabación: se calcula una vez y se conserva. La búsqueda y la marca de lectura se hacen bajo el
+     * mismo lock que purgeOld, que no borra una grabación mientras se lee su archivo; si ya se purgó, vacío.
+     */
+    public Optional<JfrSummaryDTO> summary(String id, int limit) {
+        JfrRecording recording;
+        synchronized (this) {
+            refresh();
+            recording = recordings.get(id);
+            if (recording == null || recording.status != Status.DONE) {
+                return Optional.empty();
+            }
+            recording.readers++;
+        }
+        try {
+            synchronized (recording) {
+                if (recording.summary == null || recording.summaryLimit != limit) {
+                    recording.summary = summarize(id, recording.file, limit);
+                    recording.summaryLimit = limit;
+                }
+                return Optional.of(recording.summary);
+            }
+        } finally {
+            synchronized (this) {
+                recording.readers--;
+            }
+        }
+    }
+
+    /* ---------- Análisis ---------- */
+
+    static JfrSummaryDTO summarize(String id, Path file, int limit) {
+        long executionSamples = 0;
+        long allocationSamples = 0;
+        long allocationBytes = 0;
+        Map<String, long[]> hot = new HashMap<>();
+        Map<String, long[]> allocations = new HashMap<>();
+        Map<String, Boolean> skipped = new HashMap<>();
+
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        executionSamples++;
+                        String frame = appFrame(event.getStackTrace(), skipped);
+                        if (frame != null) {
+                            hot.computeIfAbsent(frame, k -> new long[2])[0]++;
+                        }
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        long weight = event.getLong("weight");
+                        allocationSamples++;
+                        allocationBytes += weight;
+                        String frame = appFrame(event.getStackTrace(), skipped);
+                        if (frame != null) {
+                            String site = frame + " -> " + event.getClass("objectClass").getName();
+                            long[] totals = allocations.computeIfAbsent(site, k -> new long[2]);
+                            totals[0]++;
+                            totals[1] += weight;
+                        }
+                    }
+                    default -> { }
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("No se pudo leer la grabación JFR: " + ex.getMessage(), ex);
+        }
+
+        return new JfrSummaryDTO(id, executionSamples, allocationSamples, allocationBytes,
+                top(hot, limit, Comparator.comparingLong(e -> e.getValue()[0])),
+                top(allocations, limit, Comparator.comparingLong(e -> e.getValue()[1])));
+    }
+
+    /*
+     * Primer marco de la aplicación desde el tope: el tiempo en librerías se atribuye al método propio que las llamó.
+     * Se saltan los filtros servlet (ServerTimingFilter, CorsFilter: envuelven toda la petición y se llevarían cualquier
+     * muestra tomada en la cadena de Spring) y los proxies CGLIB, para llegar al controlador, servicio o repositorio.
+     */
+    private static String appFrame(RecordedStackTrace stackTrace, Map<String, Boolean> skipped) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APP_PACKAGE) && !skipped.computeIfAbsent(type, JfrRecordingService::isInfrastructure)) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInfrastructure(String type) {
+        if (type.contains("$$SpringCGLIB$$")) {
+            return true;
+        }
+        try {
+            Class<?> clazz = Class.forName(type, false, JfrRecordingService.class.getClassLoader());
+            return Filter.class.isAssignableFrom(clazz);
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false; // clase de otra versión o ya descargada: se cuenta
+        }
+    }
+
+    private static List<JfrSummaryDTO.Entry> top(Map<String, long[]> totals, int limit,
+                                                 Comparator<Map.Entry<String, long[]>> order) {
+        return totals.entrySet().stream()
+                .sorted(order.reversed())
+                .limit(limit)
+                .map(e -> new JfrSummaryDTO.Entry(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                .toList();
+    }
+
+    /* ---------- Estado ---------- */
+
+    private Configuration configuration(String profile) {
+        try {
+            return Configuration.getConfiguration(profile);
+        } catch (IOException | ParseException ex) {
+            List<String> names = Configuration.getConfigurations().stream().map(Configuration::getName).toList();
+            throw new IllegalArgumentException("Perfil JFR desconocido: " + profile + " (disponibles: " + names + ")");
+        }
+    }
+
+    // Marca como terminadas las grabaciones que el JDK ya detuvo y escribió en disco
+    private void refresh() {
+        for (JfrRecording r : recordings.values()) {
+            if (r.status == Status.RUNNING && r.recording.getState() == RecordingState.STOPPED) {
+                r.recording.close();
+                r.status = Files.exists(r.file) ? Status.DONE : Status.FAILED;
+                r.error = r.status == Status.FAILED ? "La grabación no generó archivo" : null;
+                log.info("Grabación JFR {} terminada: {}", r.id, r.status);
+            }
+        }
+    }
+
+    // Conserva solo las últimas maxRecordings grabaciones (y sus archivos); las que se están leyendo quedan para la próxima
+    private void purgeOld() {
+        Iterator<JfrRecording> it = recordings.values().iterator();
+        int excess = recordings.size() - maxRecordings;
+        while (excess > 0 && it.hasNext()) {
+            JfrRecording r = it.next();
+            if (r.status == Status.RUNNING || r.readers > 0) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(r.file);
+            } catch (IOException ex) {
+                log.warn("No se pudo borrar {}: {}", r.file, ex.getMessage());
+            }
+            it.remove();
+            excess--;
+        }
+    }
+
+    private static final class JfrRecording {
+        private final String id;
+        private final String profile;
+        private final Duration duration;
+        private final Path file;
+        private final Recording recording;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private Status status = Status.RUNNING;
+        private String error;
+        private JfrSummaryDTO summary;
+        private int summaryLimit;
+        private int readers; // summary() leyendo el archivo; sincronizado sobre el servicio
+
+        private JfrRecording(String id, String profile, Duration duration, Path file, Recording recording) {
+            this.id = id;
+            this.profile = profile;
+            this.duration = duration;
+            this.file = file;
+            this.recording = recording;
+        }
+
+        private JfrRecordingDTO toDTO() {
+            Long size = null;
+            if (status == Status.DONE) {
+                try {
+                    size = Files.size(file);
+                } catch (IOException ignored) {
+                    // archivo borrado desde fuera: se informa sin tamaño
+                }
+            }
+            return new JfrRecordingDTO(id, profile, status.name(), startedAt, duration.toSeconds(), size, error);
+        }
+    }
+}
@@ -6,9 +6,11 @@ import com.toolrent.entities.MovementType;
 import com.toolrent.entities.ToolGroupEntity;
 import com.toolrent.repositories.KardexMovementRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class KardexMovementService {
@@ -23,20 +25,39 @@ public class KardexMovementService {
     }
 
     //Obtener Todos los movimientos
+    @Transactional(readOnly = true)
     public List<KardexMovementEntity> getAllMovements() {
         return kardexMovementRepository.findAllWithDetails();
     }
 
     // Filtro por herramienta
+    @Transactional(readOnly = true)
     public List<KardexMovementEntity> findByToolGroupId(Long toolGroupId) {
         return kardexMovementRepository.findByToolGroupId(toolGroupId);
     }
 
     // Filtro por rango de fecha
+    @Transactional(readOnly = true)
     public List<KardexMovementEntity> findByDateRange(LocalDateTime from, LocalDateTime to) {
         return kardexMovementRepository.findByDateRange(from, to);
     }
 
+    // Mismos listados con solo las columnas pedidas (?fields=)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllMovements(List<String> fields) {
+        return kardexMovementRepository.findAllFields(fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByToolGroupId(Long toolGroupId, List<String> fields) {
+        return kardexMovementRepository.findFieldsByToolGroupId(toolGroupId, fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByDateRange(LocalDateTime from, LocalDateTime to, List<String> fields) {
+        return kardexMovementRepository.findFieldsByDateRange(from, to, fields);
+    }
+
     //Kardex Registro
     public void saveRegistryKardex(ToolGroupEntity group, int stock) {
         if (stock == 0) return;
@@ -0,0 +1,27 @@
+package com.toolrent.services;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/* Cálculo de costo de arriendo y multa por atraso (sin dependencias, reutilizable en benchmarks) */
+public final class LoanCharges {
+
+    private LoanCharges() {
+    }
+
+    // Costo de arriendo: días completos entre ahora y la fecha de devolución (mínimo 1 día)
+    public static double rentalCost(double dailyRentalRate, LocalDateTime from, LocalDateTime dueDate) {
+        long days = ChronoUnit.DAYS.between(from, dueDate);
+        days = Math.max(1, days);
+        return dailyRentalRate * days;
+    }
+
+    // Multa por atraso: días completos de retraso × tarifa diaria; 0 si se devolvió a tiempo
+    public static double lateFine(LocalDateTime dueDate, LocalDateTime returnDate, double dailyFineRate) {
+        if (!returnDate.isAfter(dueDate)) {
+            return 0.0;
+        }
+        long lateDays = ChronoUnit.DAYS.between(dueDate, returnDate);
+        return lateDays * dailyFineRate;
+    }
+}
@@ -1,14 +1,18 @@
 package com.toolrent.services;
 
 import com.toolrent.dto.LoanActiveDTO;
+import com.toolrent.config.RetryOnConflict;
 import com.toolrent.config.SecurityConfig;
+import com.toolrent.config.StripedLockManager;
+import com.toolrent.coordination.AdvisoryLocks;
 import com.toolrent.entities.*;
 import com.toolrent.repositories.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class LoanService {
@@ -18,21 +22,33 @@ public class LoanService {
     private final ToolUnitRepository toolUnitRepository;
     private final KardexMovementRepository kardexMovementRepository;
     private final CustomerRepository customerRepository;
+    private final StripedLockManager stripedLockManager;
+    private final AdvisoryLocks advisoryLocks;
 
 
     public LoanService(LoanRepository loanRepository,
                        ToolGroupRepository toolGroupRepository,
                        ToolUnitRepository toolUnitRepository,
                        KardexMovementRepository kardexMovementRepository,
-                       CustomerRepository customerRepository) {
+                       CustomerRepository customerRepository,
+                       StripedLockManager stripedLockManager,
+                       AdvisoryLocks advisoryLocks) {
         this.loanRepository = loanRepository;
         this.toolGroupRepository = toolGroupRepository;
         this.toolUnitRepository = toolUnitRepository;
         this.kardexMovementRepository = kardexMovementRepository;
         this.customerRepository = customerRepository;
+        this.stripedLockManager = stripedLockManager;
+        this.advisoryLocks = advisoryLocks;
     }
 
     // REGISTRAR PRÉSTAMO
+    // Una sola transacción: validaciones, cambio de estado de la unidad, préstamo y kárdex
+    // se escriben en un único flush/commit; si algo falla no queda nada a medias.
+    // Dos préstamos simultáneos del mismo grupo pueden tomar la misma unidad: el @Version rechaza
+    // el segundo commit y el reintento elige otra unidad disponible.
+    @RetryOnConflict
+    @Transactional
     public LoanEntity registerLoan(Long toolGroupId, Long customerId, LocalDateTime dueDate) {
         /* ---------- Validaciones de negocio ---------- */
         // Restricción fecha de devolución
@@ -40,6 +56,13 @@ public class LoanService {
             throw new RuntimeException("La fecha de devolución no puede ser anterior a la fecha actual");
         }
 
+        // Verificar y asignar es check-then-act: dos empleados atendiendo al mismo cliente (o prestando el mismo
+        // grupo) se serializan hasta el commit; clientes y grupos distintos siguen en paralelo
+        stripedLockManager.lockForTransaction(StripedLockManager.customer(customerId),
+                StripedLockManager.toolGroup(toolGroupId));
+        // Con varias instancias el mismo cliente puede llegar a otra JVM: lock con nombre en la BD (no-op con una)
+        advisoryLocks.lockForTransaction("customer:" + customerId);
+
         // Préstamos vencidos sin devolver
         boolean hasOverdueLoans = loanRepository.existsByCustomerIdAndReturnDateIsNullAndDueDateBefore(customerId, LocalDateTime.now());
         if (hasOverdueLoans) {
@@ -88,8 +111,7 @@ public class LoanService {
         loan.setDueDate(dueDate);
         loan.setTotalCost(calculateTotalCost(toolGroup, dueDate));
 
-        availableUnit.setStatus(ToolStatus.LOANED);
-        toolUnitRepository.save(availableUnit);
+        availableUnit.setStatus(ToolStatus.LOANED); // entidad administrada: el UPDATE sale en el flush
 
         LoanEntity savedLoan = loanRepository.save(loan);
 
@@ -104,34 +126,38 @@ public class LoanService {
     }
 
     // REGISTRAR DEVOLUCIÓN
+    // Préstamo y unidad quedan administrados dentro de la transacción: sin save() explícitos,
+    // Hibernate emite un UPDATE por entidad modificada al hacer commit.
+    @RetryOnConflict
+    @Transactional
     public void returnLoan(Long loanId, Double damageCharge, boolean irreparable) {
-        LoanEntity loan = loanRepository.findById(loanId)
+        LoanEntity loan = loanRepository.findWithToolUnitById(loanId)
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
 
+        // También corta la segunda de dos devoluciones concurrentes cuando se reintenta tras el conflicto
+        if (loan.getReturnDate() != null) {
+            throw new RuntimeException("El préstamo ya fue devuelto");
+        }
+
         ToolUnitEntity unit = loan.getToolUnit();
         CustomerEntity customer = loan.getCustomer();
 
         /* ---------- Multa por atraso ---------- */
         loan.setReturnDate(LocalDateTime.now());
         if (loan.getReturnDate().isAfter(loan.getDueDate())) {
-            long lateDays = ChronoUnit.DAYS.between(loan.getDueDate(), loan.getReturnDate());
             double dailyFine = unit.getToolGroup().getTariff().getDailyFineRate();
-            loan.setFineAmount(lateDays * dailyFine);
+            loan.setFineAmount(LoanCharges.lateFine(loan.getDueDate(), loan.getReturnDate(), dailyFine));
         }
 
         /* ---------- Daños ---------- */
         if (irreparable) {
             loan.setDamageCharge(unit.getToolGroup().getReplacementValue()); // valor fijo reposición
             unit.setStatus(ToolStatus.RETIRED); // damos de baja la unidad
-            toolUnitRepository.save(unit);
         } else {
             loan.setDamageCharge(damageCharge); // daño leve
             unit.setStatus(damageCharge > 0 ? ToolStatus.IN_REPAIR : ToolStatus.AVAILABLE);
         }
 
-        toolUnitRepository.save(unit);
-        loanRepository.save(loan);
-
         /* ---------- Kardex ---------- */
         MovementType movementType;
         if (irreparable) {
@@ -153,14 +179,14 @@ public class LoanService {
 
     // CÁLCULO DE COSTO
     private Double calculateTotalCost(ToolGroupEntity toolGroup, LocalDateTime dueDate) {
-        long days = ChronoUnit.DAYS.between(LocalDateTime.now(), dueDate);
-        days = Math.max(1, days);
-        return toolGroup.getTariff().getDailyRentalRate() * days;
+        return LoanCharges.rentalCost(toolGroup.getTariff().getDailyRentalRate(), LocalDateTime.now(), dueDate);
     }
 
     // Aplicar cargo por daño
+    @RetryOnConflict
+    @Transactional
     public void applyDamage(Long loanId, Double amount, boolean irreparable) {
-        LoanEntity loan = loanRepository.findById(loanId)
+        LoanEntity loan = loanRepository.findWithToolUnitById(loanId)
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
 
         if (loan.getReturnDate() == null) {
@@ -170,15 +196,14 @@ public class LoanService {
         if (irreparable) {
             loan.setDamageCharge(loan.getToolUnit().getToolGroup().getReplacementValue());
             loan.getToolUnit().setStatus(ToolStatus.RETIRED);
-            toolUnitRepository.save(loan.getToolUnit());
         } else {
             loan.setDamageCharge(amount);
         }
-
-        loanRepository.save(loan);
     }
 
     // Pagar deudas
+    @RetryOnConflict
+    @Transactional
     public void payDebts(Long loanId) {
         LoanEntity loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
@@ -189,7 +214,6 @@ public class LoanService {
 
         loan.setFineAmount(0.0);
         loan.setDamageCharge(0.0);
-        loanRepository.save(loan);
     }
 
     // Obtener préstamos activos
@@ -210,4 +234,18 @@ public class LoanService {
         return loanRepository.findPendingPayment();
     }
 
+    /* Mismos listados con solo las columnas pedidas (?fields=) */
+    public List<Map<String, Object>> getActiveLoans(List<String> fields) {
+        return loanRepository.findActiveLoanFieldsInRange(
+                LocalDateTime.now().minusMonths(1),
+                LocalDateTime.now().plusMonths(1),
+                fields
+        );
+    }
+
+    // Deudas y pendientes de pago comparten filtro (ver LoanRepository.WITH_DEBTS)
+    public List<Map<String, Object>> getReturnedWithDebts(List<String> fields) {
+        return loanRepository.findReturnedWithDebtsFields(fields);
+    }
+
 }
\ No newline at end of file
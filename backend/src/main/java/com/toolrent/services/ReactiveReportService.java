@@ -0,0 +1,41 @@
+package com.toolrent.services;
+
+import com.toolrent.dto.KardexMovementRowDTO;
+import com.toolrent.dto.LoanActiveDTO;
+import com.toolrent.repositories.ReactiveReportRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/* Mismos reportes que ReportService y listados del kardex, leídos por R2DBC (toolrent.reactive.enabled=true) */
+@Service
+@ConditionalOnProperty(prefix = "toolrent.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReportService {
+
+    private final ReactiveReportRepository reactiveReportRepository;
+
+    public ReactiveReportService(ReactiveReportRepository reactiveReportRepository) {
+        this.reactiveReportRepository = reactiveReportRepository;
+    }
+
+    /* Préstamos activos (sin devolver) en rango de loanDate */
+    public Flux<LoanActiveDTO> getActiveLoans(LocalDateTime from, LocalDateTime to) {
+        return reactiveReportRepository.findActiveLoansInRange(from, to);
+    }
+
+    /* Ranking de herramientas más prestadas en rango de loanDate */
+    public Flux<Map<String, Object>> getTopTools(LocalDateTime from, LocalDateTime to) {
+        return reactiveReportRepository.countLoansByToolGroupInRange(from, to);
+    }
+
+    /* Movimientos del kardex, todos o en un rango de movementDate */
+    public Flux<KardexMovementRowDTO> getMovements(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            return reactiveReportRepository.findKardexMovements();
+        }
+        return reactiveReportRepository.findKardexMovementsInRange(from, to);
+    }
+}
@@ -0,0 +1,111 @@
+package com.toolrent.services;
+
+import com.toolrent.config.AsyncReads;
+import com.toolrent.dto.CustomerDebtDTO;
+import com.toolrent.dto.LoanActiveDTO;
+import com.toolrent.dto.ReportDashboardDTO;
+import com.toolrent.entities.CustomerEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class ReportDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportDashboardService.class);
+
+    public static final String ACTIVE_LOANS = "activeLoans";
+    public static final String TOP_TOOLS = "topTools";
+    public static final String OVERDUE_CUSTOMERS = "overdueCustomers";
+    public static final String CUSTOMERS_WITH_DEBT = "customersWithDebt";
+
+    private final ReportService reportService;
+    private final TaskExecutor reportExecutor;
+    private final AsyncReads asyncReads;
+    private final long sectionTimeoutMs;
+
+    public ReportDashboardService(ReportService reportService,
+                                  @Qualifier("reportExecutor") TaskExecutor reportExecutor,
+                                  AsyncReads asyncReads,
+                                  @Value("${toolrent.reports.dashboard.section-timeout-ms:5000}") long sectionTimeoutMs) {
+        this.reportService = reportService;
+        this.reportExecutor = reportExecutor;
+        this.asyncReads = asyncReads;
+        this.sectionTimeoutMs = sectionTimeoutMs;
+    }
+
+    /* Ejecuta los cuatro reportes en paralelo; una sección que falla o expira queda en null */
+    public ReportDashboardDTO getDashboard(LocalDateTime from, LocalDateTime to) {
+        return getDashboardAsync(from, to).join();
+    }
+
+    /* Igual, sin bloquear al llamador: el futuro se completa cuando terminan (o expiran) las cuatro secciones */
+    public CompletableFuture<ReportDashboardDTO> getDashboardAsync(LocalDateTime from, LocalDateTime to) {
+        Map<String, Double> timings = new ConcurrentHashMap<>();
+        Map<String, String> errors = new ConcurrentHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        CompletableFuture<List<LoanActiveDTO>> activeLoans =
+                section(ACTIVE_LOANS, () -> reportService.getActiveLoans(from, to), timings, errors);
+        CompletableFuture<List<Map<String, Object>>> topTools =
+                section(TOP_TOOLS, () -> reportService.getTopTools(from, to), timings, errors);
+        CompletableFuture<List<CustomerEntity>> overdueCustomers =
+                section(OVERDUE_CUSTOMERS, reportService::getOverdueCustomers, timings, errors);
+        CompletableFuture<List<CustomerDebtDTO>> customersWithDebt =
+                section(CUSTOMERS_WITH_DEBT, () -> reportService.getCustomersWithDebt(now), timings, errors);
+
+        return CompletableFuture.allOf(activeLoans, topTools, overdueCustomers, customersWithDebt)
+                .thenApply(done -> new ReportDashboardDTO(
+                        activeLoans.join(),
+                        topTools.join(),
+                        overdueCustomers.join(),
+                        customersWithDebt.join(),
+                        ordered(timings),
+                        ordered(errors)));
+    }
+
+    /* Al vencer, la consulta de la sección se cancela en la BD (AsyncReads.supplyAsync): una sección lenta no
+       deja ocupado un hilo de reportExecutor ni su conexión para los dashboards siguientes */
+    private <T> CompletableFuture<T> section(String name, Supplier<T> query,
+                                             Map<String, Double> timings, Map<String, String> errors) {
+        long start = System.nanoTime();
+        return asyncReads.supplyAsync(reportExecutor, sectionTimeoutMs, query)
+                .handle((result, ex) -> {
+                    timings.put(name, (System.nanoTime() - start) / 1_000_000.0);
+                    if (ex == null) {
+                        return result;
+                    }
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    String message = cause instanceof TimeoutException
+                            ? "Tiempo de espera agotado (" + sectionTimeoutMs + " ms)"
+                            : cause.getMessage();
+                    log.warn("Sección {} del dashboard degradada: {}", name, message);
+                    errors.put(name, message == null ? cause.getClass().getSimpleName() : message);
+                    return null;
+                });
+    }
+
+    // Orden estable de secciones para el header y la respuesta
+    private <V> Map<String, V> ordered(Map<String, V> source) {
+        Map<String, V> result = new LinkedHashMap<>();
+        for (String key : List.of(ACTIVE_LOANS, TOP_TOOLS, OVERDUE_CUSTOMERS, CUSTOMERS_WITH_DEBT)) {
+            if (source.containsKey(key)) {
+                result.put(key, source.get(key));
+            }
+        }
+        return result;
+    }
+}
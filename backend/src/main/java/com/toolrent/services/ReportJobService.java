@@ -0,0 +1,213 @@
+package com.toolrent.services;
+
+import com.toolrent.config.AsyncReads;
+import com.toolrent.config.SecurityConfig;
+import com.toolrent.dto.ReportJobDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    public enum JobType { ACTIVE_LOANS, TOP_TOOLS }
+
+    public enum JobStatus { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+
+    private final ReportService reportService;
+    private final ThreadPoolTaskExecutor reportJobExecutor;
+    private final AsyncReads asyncReads;
+    private final Duration ttl;
+    private final long queryTimeoutMs;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    public ReportJobService(ReportService reportService,
+                            @Qualifier("reportJobExecutor") ThreadPoolTaskExecutor reportJobExecutor,
+                            AsyncReads asyncReads,
+                            @Value("${toolrent.reports.jobs.ttl-minutes:30}") long ttlMinutes,
+                            @Value("${toolrent.reports.jobs.query-timeout-ms:300000}") long queryTimeoutMs) {
+        this.reportService = reportService;
+        this.reportJobExecutor = reportJobExecutor;
+        this.asyncReads = asyncReads;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.queryTimeoutMs = queryTimeoutMs;
+    }
+
+    /* Encola un reporte a nombre del usuario actual; lanza TaskRejectedException si el pool y la cola están llenos */
+    public ReportJobDTO submit(JobType type, LocalDateTime from, LocalDateTime to) {
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), SecurityConfig.getCurrentUsername(), type, from, to);
+        jobs.put(job.id, job);
+        try {
+            job.future = reportJobExecutor.submit(() -> run(job));
+        } catch (RuntimeException ex) {
+            jobs.remove(job.id);
+            rejected.incrementAndGet();
+            throw ex;
+        }
+        submitted.incrementAndGet();
+        return job.toDTO();
+    }
+
+    /* Solo el usuario que lo encoló (o un ADMIN) lo ve; para el resto el trabajo no existe */
+    public Optional<ReportJobDTO> find(String id) {
+        ReportJob job = visibleJob(id);
+        if (job == null || job.isExpired(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toDTO());
+    }
+
+    /*
+     * Cancela un trabajo en cola o en ejecución. La consulta en curso se cancela en la BD (Session.cancelQuery,
+     * como AsyncReads) y el hilo no se interrumpe: el trabajador y su conexión quedan libres enseguida.
+     */
+    public Optional<ReportJobDTO> cancel(String id) {
+        ReportJob job = visibleJob(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        synchronized (job) {
+            if (job.status == JobStatus.QUEUED || job.status == JobStatus.RUNNING) {
+                job.status = JobStatus.CANCELLED;
+                job.finishedAt = LocalDateTime.now();
+                cancelled.incrementAndGet();
+                job.running.cancel();
+                if (job.future != null) {
+                    job.future.cancel(false); // si sigue en la cola ya no corre
+                }
+            }
+        }
+        return Optional.of(job.toDTO());
+    }
+
+    private ReportJob visibleJob(String id) {
+        ReportJob job = jobs.get(id);
+        if (job == null || SecurityConfig.isCurrentUserAdmin()
+                || job.owner.equals(SecurityConfig.getCurrentUsername())) {
+            return job;
+        }
+        return null;
+    }
+
+    /* Métricas de la cola de trabajos */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", getQueueDepth());
+        stats.put("activeWorkers", reportJobExecutor.getActiveCount());
+        stats.put("poolSize", reportJobExecutor.getMaxPoolSize());
+        stats.put("storedJobs", jobs.size());
+        stats.put("submitted", submitted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("cancelled", cancelled.get());
+        return stats;
+    }
+
+    public int getQueueDepth() {
+        return reportJobExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    /* Limpieza periódica de resultados vencidos */
+    @Scheduled(fixedDelayString = "${toolrent.reports.jobs.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.isExpired(now));
+        int purged = before - jobs.size();
+        if (purged > 0) {
+            log.debug("Trabajos de reporte vencidos eliminados: {}", purged);
+        }
+    }
+
+    private void run(ReportJob job) {
+        synchronized (job) {
+            if (job.status != JobStatus.QUEUED) {
+                return; // cancelado mientras esperaba en cola
+            }
+            job.status = JobStatus.RUNNING;
+            job.startedAt = LocalDateTime.now();
+        }
+        try {
+            Object result = asyncReads.execute(job.running, queryTimeoutMs, () -> switch (job.type) {
+                case ACTIVE_LOANS -> reportService.getActiveLoans(job.from, job.to);
+                case TOP_TOOLS -> reportService.getTopTools(job.from, job.to);
+            });
+            synchronized (job) {
+                if (job.status == JobStatus.RUNNING) {
+                    job.result = result;
+                    job.status = JobStatus.DONE;
+                    job.finishedAt = LocalDateTime.now();
+                    completed.incrementAndGet();
+                }
+            }
+        } catch (RuntimeException ex) {
+            synchronized (job) {
+                if (job.status == JobStatus.RUNNING) {
+                    job.error = ex.getMessage();
+                    job.status = JobStatus.FAILED;
+                    job.finishedAt = LocalDateTime.now();
+                    failed.incrementAndGet();
+                    log.warn("Trabajo de reporte {} ({}) falló: {}", job.id, job.type, ex.getMessage());
+                }
+                // CANCELLED: la excepción es la consulta cancelada en la BD
+            }
+        }
+    }
+
+    private final class ReportJob {
+        private final String id;
+        private final String owner;
+        private final JobType type;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Object result;
+        private volatile String error;
+        private volatile Future<?> future;
+        private final AsyncReads.RunningQuery running = new AsyncReads.RunningQuery();
+
+        private ReportJob(String id, String owner, JobType type, LocalDateTime from, LocalDateTime to) {
+            this.id = id;
+            this.owner = owner;
+            this.type = type;
+            this.from = from;
+            this.to = to;
+        }
+
+        // Solo vencen los trabajos terminados; los pendientes se conservan
+        private boolean isExpired(LocalDateTime now) {
+            return finishedAt != null && finishedAt.plus(ttl).isBefore(now);
+        }
+
+        private synchronized ReportJobDTO toDTO() {
+            return new ReportJobDTO(id, type.name(), status.name(), from, to,
+                    createdAt, startedAt, finishedAt, result, error);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.toolrent.entities.CustomerEntity;
 import com.toolrent.repositories.LoanRepository;
 import com.toolrent.repositories.CustomerRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true) // solo lecturas: se enrutan a la réplica si está activa
 public class ReportService {
 
     private final LoanRepository loanRepository;
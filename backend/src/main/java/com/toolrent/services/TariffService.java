@@ -1,5 +1,7 @@
 package com.toolrent.services;
 
+import com.toolrent.coordination.CoherentCache;
+import com.toolrent.coordination.InvalidationBus;
 import com.toolrent.entities.TariffEntity;
 import com.toolrent.repositories.TariffRepository;
 import org.springframework.stereotype.Service;
@@ -9,26 +11,38 @@ import java.util.List;
 @Service
 public class TariffService {
 
+    public static final String ENTITY = "tariff";
+
     private final TariffRepository tariffRepository;
+    private final InvalidationBus invalidationBus;
+
+    // Las tarifas cambian poco y se leen en cada pantalla de catálogo; se vacían con cualquier evento "tariff"
+    private final CoherentCache<String, List<TariffEntity>> allTariffs;
+    private final CoherentCache<Long, TariffEntity> tariffsById;
 
-    public TariffService(TariffRepository tariffRepository) {
+    public TariffService(TariffRepository tariffRepository, InvalidationBus invalidationBus) {
         this.tariffRepository = tariffRepository;
+        this.invalidationBus = invalidationBus;
+        this.allTariffs = new CoherentCache<>(ENTITY, invalidationBus);
+        this.tariffsById = new CoherentCache<>(ENTITY, invalidationBus);
     }
 
     public TariffEntity updateTariff(Double dailyRentalRate, Double dailyFineRate) {
         TariffEntity tariff = tariffRepository.findById(1L).orElse(new TariffEntity());
         tariff.setDailyRentalRate(dailyRentalRate);
         tariff.setDailyFineRate(dailyFineRate);
-        return tariffRepository.save(tariff);
+        TariffEntity saved = tariffRepository.save(tariff);
+        invalidationBus.publish(ENTITY, saved.getId());
+        return saved;
     }
 
     public List<TariffEntity> getAllTariffs() {          // devuelve TODAS
-        return tariffRepository.findAll();
+        return allTariffs.get("all", key -> List.copyOf(tariffRepository.findAll()));
     }
 
     public TariffEntity getTariffById(Long id) {         // devuelve una por ID
-        return tariffRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Tariff not found"));
+        return tariffsById.get(id, key -> tariffRepository.findById(key)
+                .orElseThrow(() -> new RuntimeException("Tariff not found")));
     }
 
 }
\ No newline at end of file
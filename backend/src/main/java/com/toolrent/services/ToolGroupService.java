@@ -1,21 +1,27 @@
 package com.toolrent.services;
 
+import com.toolrent.coordination.InvalidationBus;
+import com.toolrent.dto.ToolGroupSummaryDTO;
 import com.toolrent.entities.*;
 import com.toolrent.repositories.*;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ToolGroupService {
 
     private final ToolGroupRepository toolGroupRepository;
     private final KardexMovementService kardexMovementService;
+    private final InvalidationBus invalidationBus;
 
     public ToolGroupService(ToolGroupRepository toolGroupRepository,
-                            KardexMovementService kardexMovementService) {
+                            KardexMovementService kardexMovementService,
+                            InvalidationBus invalidationBus) {
         this.toolGroupRepository = toolGroupRepository;
         this.kardexMovementService = kardexMovementService;
+        this.invalidationBus = invalidationBus;
     }
 
     /* Crear grupo + unidades */
@@ -51,6 +57,7 @@ public class ToolGroupService {
 
         ToolGroupEntity saved = toolGroupRepository.save(group);
         kardexMovementService.saveRegistryKardex(saved,stock);
+        invalidationBus.publish(TariffService.ENTITY, null); // tarifa nueva → GET /tariffs cambia
 
         return saved;
     }
@@ -66,12 +73,30 @@ public class ToolGroupService {
                 .toList();
     }
 
+    /* Catálogo liviano: grupo + tarifa + conteos, una sola consulta */
+    public List<ToolGroupSummaryDTO> getToolGroupSummaries() {
+        return toolGroupRepository.findAllSummaries();
+    }
+
+    public List<ToolGroupSummaryDTO> getAvailableToolGroupSummaries() {
+        return toolGroupRepository.findAllSummaries().stream()
+                .filter(g -> g.availableCount() > 0)
+                .toList();
+    }
+
+    /* Catálogo con solo las columnas pedidas (?fields=) */
+    public List<Map<String, Object>> getToolGroupFields(List<String> fields, boolean onlyAvailable) {
+        return toolGroupRepository.findAllFields(fields, onlyAvailable);
+    }
+
     public ToolGroupEntity findById(Long id) {
         return toolGroupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("ToolGroup not found"));
     }
 
     public ToolGroupEntity save(ToolGroupEntity group) {
-        return toolGroupRepository.save(group);
+        ToolGroupEntity saved = toolGroupRepository.save(group);
+        invalidationBus.publish(TariffService.ENTITY, null); // la tarifa se guarda en cascada
+        return saved;
     }
 }
\ No newline at end of file
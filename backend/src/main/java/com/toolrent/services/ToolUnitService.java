@@ -1,14 +1,17 @@
 package com.toolrent.services;
 
+import com.toolrent.dto.ToolUnitRowDTO;
 import com.toolrent.entities.*;
 import com.toolrent.repositories.LoanRepository;
 import com.toolrent.repositories.ToolUnitRepository;
 import com.toolrent.repositories.KardexMovementRepository;
+import com.toolrent.config.RetryOnConflict;
 import com.toolrent.config.SecurityConfig;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 
 @Service
@@ -29,6 +32,7 @@ public class ToolUnitService {
         this.loanRepository = loanRepository;
     }
 
+    @RetryOnConflict
     @Transactional
     public ToolUnitEntity changeStatus(Long unitId, ToolStatus newStatus) {
         ToolUnitEntity unit = toolUnitRepository.findById(unitId)
@@ -77,6 +81,7 @@ public class ToolUnitService {
 
     // Retira una unidad que está en reparación y carga el valor de reposición
     // como deuda al último préstamo devuelto de esa unidad.
+    @RetryOnConflict
     @Transactional
     public void retireFromRepair(Long unitId) {
         ToolUnitEntity unit = findById(unitId);
@@ -107,6 +112,14 @@ public class ToolUnitService {
         return toolUnitRepository.findAllWithToolGroup();
     }
 
+    public List<ToolUnitRowDTO> findAllUnitRows() {
+        return toolUnitRepository.findAllRows();
+    }
+
+    public List<Map<String, Object>> findAllUnitFields(List<String> fields) {
+        return toolUnitRepository.findAllFields(fields);
+    }
+
     public ToolUnitEntity save(ToolUnitEntity unit) {
         return toolUnitRepository.save(unit);
     }
@@ -0,0 +1,70 @@
+-- Esquema inicial: el mismo que generaba spring.jpa.hibernate.ddl-auto=update en MySQL.
+-- Las bases creadas antes con ddl-auto=update quedan marcadas en la version 1 (spring.flyway.baseline-on-migrate)
+-- y no ejecutan este script. Cambios de esquema posteriores: V2__..., V3__... (nunca editar uno ya aplicado).
+
+create table customers (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    phone varchar(255) not null,
+    rut varchar(255) not null,
+    status enum ('ACTIVE','RESTRICTED') not null,
+    primary key (id),
+    constraint uk_customers_email unique (email),
+    constraint uk_customers_rut unique (rut)
+);
+
+create table tariffs (
+    id bigint not null auto_increment,
+    daily_fine_rate float(53) not null,
+    daily_rental_rate float(53) not null,
+    primary key (id)
+);
+
+create table tool_groups (
+    id bigint not null auto_increment,
+    category varchar(255) not null,
+    name varchar(255) not null,
+    replacement_value float(53) not null,
+    tariff_id bigint not null,
+    primary key (id),
+    constraint uk_tool_groups_tariff unique (tariff_id),
+    constraint fk_tool_groups_tariff foreign key (tariff_id) references tariffs (id)
+);
+
+create table tool_units (
+    id bigint not null auto_increment,
+    status enum ('AVAILABLE','LOANED','IN_REPAIR','RETIRED') not null,
+    version bigint default 0 not null,
+    tool_group_id bigint not null,
+    primary key (id),
+    constraint fk_tool_units_group foreign key (tool_group_id) references tool_groups (id)
+);
+
+create table loans (
+    id bigint not null auto_increment,
+    damage_charge float(53),
+    due_date datetime(6) not null,
+    fine_amount float(53),
+    loan_date datetime(6) not null,
+    return_date datetime(6),
+    total_cost float(53),
+    version bigint default 0 not null,
+    customer_id bigint not null,
+    tool_unit_id bigint not null,
+    primary key (id),
+    constraint fk_loans_customer foreign key (customer_id) references customers (id),
+    constraint fk_loans_tool_unit foreign key (tool_unit_id) references tool_units (id)
+);
+
+create table kardex_movements (
+    id bigint not null auto_increment,
+    details varchar(255),
+    movement_date datetime(6) not null,
+    movement_type enum ('REGISTRY','RE_ENTRY','LOAN','RETURN','RETIRE','REPAIR') not null,
+    customer_id bigint not null,
+    tool_unit_id bigint not null,
+    primary key (id),
+    constraint fk_kardex_customer foreign key (customer_id) references customers (id),
+    constraint fk_kardex_tool_unit foreign key (tool_unit_id) references tool_units (id)
+);
@@ -0,0 +1,18 @@
+-- Tablas del paquete coordination (toolrent.coordination.enabled=true): locks con nombre y bus de invalidacion.
+-- No son entidades JPA. Sin Flyway las crea CoordinationConfig al arrancar; "if not exists" cubre las bases donde
+-- ya se habian creado asi antes de migrar.
+
+create table if not exists coordination_locks (
+    name varchar(64) not null,
+    created_at timestamp(3) not null,
+    primary key (name)
+);
+
+create table if not exists coordination_events (
+    id bigint not null auto_increment,
+    node varchar(64) not null,
+    entity varchar(64) not null,
+    entity_id varchar(64),
+    created_at timestamp(3) not null,
+    primary key (id)
+);
@@ -0,0 +1,176 @@
+package com.toolrent.config;
+
+import com.toolrent.config.AdmissionControl.EndpointClass;
+import com.toolrent.config.AdmissionControl.Limits;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    // reports: ráfaga 2, 6 por minuto (uno cada 10 s), 1 en curso; kardex: ráfaga 5, 60/min, 2 en curso
+    private final AdmissionControl admission = new AdmissionControl(Map.of(
+            EndpointClass.REPORTS, new Limits(2, 6, 1),
+            EndpointClass.KARDEX, new Limits(5, 60, 2)), 3, now::get);
+
+    @AfterEach
+    void clearContext(){
+        SecurityContextHolder.clearContext();
+    }
+
+    /* ======================================================================
+            1. Token bucket por usuario
+       ====================================================================== */
+
+    @Test @DisplayName("ráfaga agotada → 429 con Retry-After hasta el próximo token")
+    void burstExhausted_429(){
+        login("emp1");
+
+        assertThat(call("GET", "/reports/top-tools").getStatus()).isEqualTo(200);
+        assertThat(call("GET", "/reports/top-tools").getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = call("GET", "/reports/top-tools");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+        assertThat(admission.getStats()).containsEntry("reports.rateLimited", 1L);
+    }
+
+    @Test @DisplayName("pasado el tiempo de recarga → vuelve a admitir")
+    void refill_admitsAgain(){
+        login("emp1");
+        call("GET", "/reports/top-tools");
+        call("GET", "/reports/top-tools");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(call("GET", "/reports/top-tools").getStatus()).isEqualTo(200);
+        assertThat(call("GET", "/reports/top-tools").getStatus()).isEqualTo(429);
+    }
+
+    @Test @DisplayName("otro usuario u otra clase de endpoint → bucket propio")
+    void bucketsPerUserAndClass(){
+        login("emp1");
+        call("GET", "/reports/top-tools");
+        call("GET", "/reports/top-tools");
+
+        assertThat(call("GET", "/kardex").getStatus()).isEqualTo(200);
+        login("emp2");
+        assertThat(call("GET", "/reports/top-tools").getStatus()).isEqualTo(200);
+    }
+
+    @Test @DisplayName("endpoints transaccionales y consulta de trabajos → no pasan por el control")
+    void otherPaths_notLimited(){
+        login("emp1");
+        for (int i = 0; i < 5; i++) {
+            assertThat(call("POST", "/loans").getStatus()).isEqualTo(200);
+            assertThat(call("GET", "/reports/jobs/abc").getStatus()).isEqualTo(200);
+        }
+        assertThat(admission.bucketCount()).isZero();
+    }
+
+    @Test @DisplayName("buckets llenos → se purgan")
+    void purgeIdle(){
+        login("emp1");
+        call("GET", "/kardex");
+        assertThat(admission.bucketCount()).isEqualTo(1);
+
+        admission.purgeIdle();
+        assertThat(admission.bucketCount()).isEqualTo(1); // aún le falta un token
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        admission.purgeIdle();
+        assertThat(admission.bucketCount()).isZero();
+    }
+
+    /* ======================================================================
+            2. Bulkhead
+       ====================================================================== */
+
+    @Test @DisplayName("cupos ocupados → 503 con Retry-After; al terminar se libera el cupo")
+    void bulkheadFull_503() throws Exception {
+        login("emp1");
+        MockHttpServletRequest first = request("GET", "/reports/dashboard");
+        assertThat(admission.preHandle(first, new MockHttpServletResponse(), new Object())).isTrue();
+
+        login("emp2");
+        MockHttpServletResponse rejected = call("GET", "/reports/dashboard");
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(admission.active(EndpointClass.REPORTS)).isEqualTo(1);
+
+        admission.afterCompletion(first, new MockHttpServletResponse(), new Object(), null);
+
+        assertThat(admission.active(EndpointClass.REPORTS)).isZero();
+        assertThat(call("GET", "/reports/dashboard").getStatus()).isEqualTo(200);
+        assertThat(admission.getStats()).containsEntry("reports.shed", 1L);
+    }
+
+    @Test @DisplayName("dispatch async → no vuelve a cobrar; el cupo se libera al completar")
+    void asyncDispatch_keepsPermit() throws Exception {
+        login("emp1");
+        MockHttpServletRequest request = request("GET", "/kardex");
+        admission.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertThat(admission.preHandle(request, new MockHttpServletResponse(), new Object())).isTrue();
+        assertThat(admission.active(EndpointClass.KARDEX)).isEqualTo(1);
+
+        admission.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+        admission.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+        assertThat(admission.active(EndpointClass.KARDEX)).isZero();
+    }
+
+    @Test @DisplayName("POST /reports/jobs → consume token pero no cupo (tiene su propia cola)")
+    void jobSubmit_tokenOnly() throws Exception {
+        login("emp1");
+        MockHttpServletRequest request = request("POST", "/reports/jobs");
+
+        assertThat(admission.preHandle(request, new MockHttpServletResponse(), new Object())).isTrue();
+        assertThat(admission.active(EndpointClass.REPORTS)).isZero();
+        assertThat(admission.bucketCount()).isEqualTo(1);
+    }
+
+    /* ======================================================================
+                                      Helpers
+       ====================================================================== */
+
+    private MockHttpServletResponse call(String method, String path) {
+        MockHttpServletRequest request = request(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            if (admission.preHandle(request, response, new Object())) {
+                admission.afterCompletion(request, response, new Object(), null);
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setDispatcherType(DispatcherType.REQUEST);
+        return request;
+    }
+
+    private static void login(String username) {
+        Jwt jwt = Jwt.withTokenValue("t")
+                .header("alg", "RS256")
+                .claim("preferred_username", username)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+}
@@ -0,0 +1,186 @@
+package com.toolrent.config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncReadsTest {
+
+    @Mock private EntityManager entityManager;
+    @Mock private Session session;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp(){
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown(){
+        executor.shutdown();
+    }
+
+    private AsyncReads asyncReads(AsyncTaskExecutor executor) {
+        return new AsyncReads(executor, entityManager, transactionManager, 5000, 7);
+    }
+
+    /* ======================================================================
+            1. Resultado en el pool de lecturas
+       ====================================================================== */
+
+    @Test @DisplayName("consulta OK → 200 con el cuerpo, en transacción readOnly y con timeout JDBC")
+    void submit_ok() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+        DeferredResult<ResponseEntity<List<String>>> result = asyncReads(executor).submit(() -> List.of("a", "b"));
+
+        assertThat(awaitResult(result)).isEqualTo(ResponseEntity.ok(List.of("a", "b")));
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(entityManager).setProperty("jakarta.persistence.query.timeout", 5000L);
+    }
+
+    @Test @DisplayName("la consulta falla → la excepción queda como error del request")
+    void submit_failure() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        RuntimeException boom = new RuntimeException("boom");
+        AsyncReads asyncReads = asyncReads(executor);
+
+        DeferredResult<ResponseEntity<Object>> result = asyncReads.submit(() -> { throw boom; });
+
+        assertThat(awaitResult(result)).isSameAs(boom);
+        assertThat(asyncReads.getStats()).containsEntry("failed", 1L);
+    }
+
+    @Test @DisplayName("pool lleno → 503 con Retry-After sin esperar")
+    void submit_rejected(){
+        AsyncTaskExecutor full = mock(AsyncTaskExecutor.class);
+        when(full.submit(any(Runnable.class))).thenThrow(new TaskRejectedException("lleno"));
+        AsyncReads asyncReads = asyncReads(full);
+
+        DeferredResult<ResponseEntity<List<String>>> result = asyncReads.submit(List::of);
+
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("7");
+        assertThat(asyncReads.getStats()).containsEntry("rejected", 1L);
+    }
+
+    /* ======================================================================
+            2. Cancelación por timeout
+       ====================================================================== */
+
+    @Test @DisplayName("timeout con la consulta corriendo → Session.cancelQuery desde otro hilo")
+    void cancel_running_cancelsQuery() throws Exception {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        AsyncReads.RunningQuery running = new AsyncReads.RunningQuery();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        doAnswer(i -> { cancelled.countDown(); return null; }).when(session).cancelQuery();
+
+        Thread worker = new Thread(() -> running.run(entityManager, 5000, () -> {
+            started.countDown();
+            try {
+                return cancelled.await(5, TimeUnit.SECONDS); // como el driver: la consulta vuelve al cancelarse
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }));
+        worker.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        running.cancel();
+
+        worker.join(5000);
+        verify(session).cancelQuery();
+    }
+
+    @Test @DisplayName("timeout antes de empezar → la consulta no llega a ejecutarse")
+    void cancel_beforeStart_skipsQuery(){
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        AsyncReads.RunningQuery running = new AsyncReads.RunningQuery();
+        running.cancel();
+
+        assertThatThrownBy(() -> running.run(entityManager, 5000, () -> fail("no debía ejecutarse")))
+                .isInstanceOf(CancellationException.class);
+        verify(session, never()).cancelQuery();
+    }
+
+    /* ======================================================================
+            3. Futuros propios (secciones del dashboard)
+       ====================================================================== */
+
+    @Test @DisplayName("supplyAsync vence esperando en la cola → la consulta ya no corre")
+    void supplyAsync_timeoutWhileQueued() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS); // ocupa el único hilo
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AsyncReads asyncReads = asyncReads(executor);
+
+        CompletableFuture<String> future = asyncReads.supplyAsync(executor, 50, () -> fail("no debía ejecutarse"));
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test @DisplayName("supplyAsync con pool lleno → futuro fallido sin esperar")
+    void supplyAsync_rejected(){
+        AsyncTaskExecutor full = mock(AsyncTaskExecutor.class);
+        doThrow(new TaskRejectedException("lleno")).when(full).execute(any(Runnable.class));
+
+        CompletableFuture<List<String>> future = asyncReads(full).supplyAsync(full, 5000, List::of);
+
+        assertThat(future).isCompletedExceptionally();
+    }
+
+    /* ======================================================================
+                                      Helpers
+       ====================================================================== */
+
+    private static Object awaitResult(DeferredResult<?> result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return result.getResult();
+    }
+}
@@ -0,0 +1,78 @@
+package com.toolrent.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.toolrent.dto.LoanActiveDTO;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BinaryFormatsConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                    HttpMessageConvertersAutoConfiguration.class))
+            .withUserConfiguration(BinaryFormatsConfig.class);
+
+    private final LoanActiveDTO loan = new LoanActiveDTO(1L, "Ana", "Taladro",
+            LocalDateTime.of(2025, 3, 1, 10, 0), LocalDateTime.of(2025, 3, 4, 10, 0), null, 0.0, 0.0);
+
+    @Test @DisplayName("JSON queda antes que Smile y CBOR (Accept comodín → JSON)")
+    void jsonFirst(){
+        runner.run(context -> {
+            List<HttpMessageConverter<?>> converters = context.getBean(HttpMessageConverters.class).getConverters();
+
+            int json = indexOf(converters, MappingJackson2HttpMessageConverter.class);
+            assertThat(json).isNotNegative();
+            assertThat(json).isLessThan(indexOf(converters, MappingJackson2SmileHttpMessageConverter.class));
+            assertThat(json).isLessThan(indexOf(converters, MappingJackson2CborHttpMessageConverter.class));
+            assertThat(converters).contains(context.getBean(MappingJackson2SmileHttpMessageConverter.class));
+        });
+    }
+
+    @Test @DisplayName("Smile usa la configuración de Spring Boot → fechas ISO como en JSON")
+    void smile_sameContentAsJson(){
+        runner.run(context -> {
+            byte[] smile = context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper()
+                    .writeValueAsBytes(loan);
+
+            JsonNode decoded = new SmileMapper().readTree(smile);
+            assertThat(decoded.get("loanDate").asText()).isEqualTo("2025-03-01T10:00:00");
+            assertThat(decoded.get("status").asText()).isEqualTo("ACTIVE");
+        });
+    }
+
+    @Test @DisplayName("CBOR usa la configuración de Spring Boot → fechas ISO como en JSON")
+    void cbor_sameContentAsJson(){
+        runner.run(context -> {
+            byte[] cbor = context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper()
+                    .writeValueAsBytes(loan);
+
+            JsonNode decoded = new CBORMapper().readTree(cbor);
+            assertThat(decoded.get("dueDate").asText()).isEqualTo("2025-03-04T10:00:00");
+            assertThat(decoded.get("customerName").asText()).isEqualTo("Ana");
+        });
+    }
+
+    private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
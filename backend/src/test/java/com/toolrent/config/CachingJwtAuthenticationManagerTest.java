@@ -0,0 +1,190 @@
+package com.toolrent.config;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtAuthenticationManagerTest {
+
+    private static final Instant T0 = Instant.parse("2025-03-01T10:00:00Z");
+
+    @Mock private AuthenticationProvider provider;
+
+    private final MutableClock clock = new MutableClock(T0);
+
+    private CachingJwtAuthenticationManager manager(int maxEntries) {
+        return new CachingJwtAuthenticationManager(provider, maxEntries, Duration.ofMinutes(5), clock);
+    }
+
+    /* ======================================================================
+            1. Aciertos y vencimiento
+       ====================================================================== */
+
+    @Test @DisplayName("mismo token → se verifica una vez; cada petición recibe su propio token con sus details")
+    void hit_verifiesOnce(){
+        when(provider.authenticate(any())).thenReturn(verified("a", T0.plusSeconds(60)));
+        CachingJwtAuthenticationManager manager = manager(10);
+
+        Authentication first = manager.authenticate(bearer("a", "req-1"));
+        Authentication second = manager.authenticate(bearer("a", "req-2"));
+
+        verify(provider, times(1)).authenticate(any());
+        assertThat(second).isNotSameAs(first).isInstanceOf(JwtAuthenticationToken.class);
+        assertThat(second.getDetails()).isEqualTo("req-2");
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    @Test @DisplayName("pasado el exp del token → se vuelve a verificar")
+    void expiredEntry_reverified(){
+        when(provider.authenticate(any())).thenReturn(verified("a", T0.plusSeconds(60)));
+        CachingJwtAuthenticationManager manager = manager(10);
+
+        manager.authenticate(bearer("a", null));
+        clock.advance(Duration.ofSeconds(61));
+        manager.authenticate(bearer("a", null));
+
+        verify(provider, times(2)).authenticate(any());
+    }
+
+    @Test @DisplayName("exp lejano → la entrada dura como máximo max-ttl")
+    void cappedByMaxTtl(){
+        when(provider.authenticate(any())).thenReturn(verified("a", T0.plus(Duration.ofHours(8))));
+        CachingJwtAuthenticationManager manager = manager(10);
+
+        manager.authenticate(bearer("a", null));
+        clock.advance(Duration.ofMinutes(6));
+        manager.authenticate(bearer("a", null));
+
+        verify(provider, times(2)).authenticate(any());
+    }
+
+    @Test @DisplayName("token sin exp → no se cachea")
+    void noExp_notCached(){
+        when(provider.authenticate(any())).thenReturn(verified("a", null));
+        CachingJwtAuthenticationManager manager = manager(10);
+
+        manager.authenticate(bearer("a", null));
+        manager.authenticate(bearer("a", null));
+
+        verify(provider, times(2)).authenticate(any());
+        assertThat(manager.size()).isZero();
+    }
+
+    @Test @DisplayName("token inválido → se propaga el error y no se cachea")
+    void invalid_notCached(){
+        when(provider.authenticate(any())).thenThrow(new InvalidBearerTokenException("firma inválida"));
+        CachingJwtAuthenticationManager manager = manager(10);
+
+        assertThatThrownBy(() -> manager.authenticate(bearer("a", null)))
+                .isInstanceOf(InvalidBearerTokenException.class);
+        assertThat(manager.size()).isZero();
+    }
+
+    /* ======================================================================
+            2. Tamaño acotado
+       ====================================================================== */
+
+    @Test @DisplayName("caché llena de vigentes → el token nuevo no se guarda")
+    void full_skipsNewTokens(){
+        when(provider.authenticate(any())).thenAnswer(i ->
+                verified(((BearerTokenAuthenticationToken) i.getArgument(0)).getToken(), T0.plusSeconds(60)));
+        CachingJwtAuthenticationManager manager = manager(2);
+
+        manager.authenticate(bearer("a", null));
+        manager.authenticate(bearer("b", null));
+        manager.authenticate(bearer("c", null));
+
+        assertThat(manager.size()).isEqualTo(2);
+        assertThat(manager.getStats()).containsEntry("skipped", 1L);
+    }
+
+    @Test @DisplayName("caché llena con vencidos → se purgan y entra el nuevo")
+    void full_purgesExpired(){
+        when(provider.authenticate(any())).thenAnswer(i ->
+                verified(((BearerTokenAuthenticationToken) i.getArgument(0)).getToken(), clock.instant().plusSeconds(60)));
+        CachingJwtAuthenticationManager manager = manager(2);
+
+        manager.authenticate(bearer("a", null));
+        manager.authenticate(bearer("b", null));
+        clock.advance(Duration.ofMinutes(2));
+        manager.authenticate(bearer("c", null));
+
+        assertThat(manager.size()).isEqualTo(1);
+    }
+
+    @Test @DisplayName("la clave es el SHA-256 del token, no el token")
+    void keyIsHash(){
+        assertThat(CachingJwtAuthenticationManager.hash("abc"))
+                .isEqualTo("ungWv48Bz-pBQUDeXa4iI7ADYaOWF3qctBD_YfIAFa0")
+                .doesNotContain("abc");
+    }
+
+    /* ======================================================================
+                                      Helpers
+       ====================================================================== */
+
+    private static BearerTokenAuthenticationToken bearer(String token, Object details) {
+        BearerTokenAuthenticationToken bearer = new BearerTokenAuthenticationToken(token);
+        bearer.setDetails(details);
+        return bearer;
+    }
+
+    private static JwtAuthenticationToken verified(String token, Instant exp) {
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("emp1")
+                .issuedAt(T0);
+        if (exp != null) {
+            builder.expiresAt(exp);
+        }
+        return new JwtAuthenticationToken(builder.build(), List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE")));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.toolrent.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.toolrent.dto.LoanActiveDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JsonArrayStreamTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test @DisplayName("sin elementos → \"[]\"")
+    void empty(){
+        List<String> chunks = JsonArrayStream.of(Flux.empty(), mapper, 10).collectList().block();
+
+        assertThat(String.join("", chunks)).isEqualTo("[]");
+    }
+
+    @Test @DisplayName("elementos en lotes → un trozo por lote y el conjunto es el mismo arreglo JSON")
+    void batches() throws Exception {
+        List<Map<String, Object>> elements = IntStream.range(0, 7)
+                .mapToObj(i -> Map.<String, Object>of("id", i, "name", "h" + i))
+                .toList();
+
+        List<String> chunks = JsonArrayStream.of(Flux.fromIterable(elements), mapper, 3).collectList().block();
+
+        assertThat(chunks).hasSize(5); // "[", 3 lotes, "]"
+        List<Map<String, Object>> parsed = mapper.readValue(String.join("", chunks), new TypeReference<>() {});
+        assertThat(parsed).isEqualTo(elements);
+    }
+
+    @Test @DisplayName("DTO con fechas → mismo JSON que serializar la lista completa")
+    void sameAsList() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 10, 30);
+        List<LoanActiveDTO> loans = List.of(
+                new LoanActiveDTO(1L, "Ana", "Taladro", now, now.plusDays(3), null, 0.0, 0.0),
+                new LoanActiveDTO(2L, "Luis", "Sierra", now, now.plusDays(5), null, 0.0, 0.0));
+
+        String streamed = String.join("", JsonArrayStream.of(Flux.fromIterable(loans), mapper, 1).collectList().block());
+
+        assertThat(streamed).isEqualTo(mapper.writeValueAsString(loans));
+    }
+
+    @Test @DisplayName("backpressure → de la fuente solo se pide lo que el consumidor pidió")
+    void backpressure(){
+        AtomicLong requested = new AtomicLong();
+        Flux<Integer> source = Flux.range(0, 1000).doOnRequest(requested::addAndGet);
+
+        JsonArrayStream.of(source, mapper, 10).take(3, true).collectList().block(); // "[" y dos lotes
+
+        assertThat(requested.get()).isLessThan(1000);
+    }
+}
@@ -0,0 +1,50 @@
+package com.toolrent.config;
+
+import org.junit.jupiter.api.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class KeycloakRealmRoleConverterTest {
+
+    private final KeycloakRealmRoleConverter converter = new KeycloakRealmRoleConverter();
+
+    @Test @DisplayName("realm_access.roles → ROLE_*")
+    void roles(){
+        Collection<GrantedAuthority> authorities = converter.convert(jwt(List.of("ADMIN", "EMPLOYEE")));
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "ROLE_EMPLOYEE");
+    }
+
+    @Test @DisplayName("misma combinación en otro token → la misma lista (sin volver a crear authorities)")
+    void sameCombination_interned(){
+        Collection<GrantedAuthority> first = converter.convert(jwt(new ArrayList<>(List.of("EMPLOYEE"))));
+        Collection<GrantedAuthority> second = converter.convert(jwt(new ArrayList<>(List.of("EMPLOYEE"))));
+        Collection<GrantedAuthority> other = converter.convert(jwt(List.of("ADMIN")));
+
+        assertThat(second).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+        assertThatThrownBy(() -> first.add(null)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test @DisplayName("sin realm_access → sin authorities")
+    void noClaim(){
+        Jwt jwt = Jwt.withTokenValue("t").header("alg", "RS256").claim("sub", "emp1").build();
+
+        assertThat(converter.convert(jwt)).isEmpty();
+    }
+
+    private static Jwt jwt(List<String> roles) {
+        return Jwt.withTokenValue("t")
+                .header("alg", "RS256")
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.toolrent.config;
+
+import com.toolrent.coordination.InvalidationBus;
+import com.toolrent.services.ReportJobService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricsConfigTest {
+
+    private final MetricsConfig config = new MetricsConfig();
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp(){
+        registry = new SimpleMeterRegistry();
+    }
+
+    /* ====== Trabajos de reporte ====== */
+
+    @Test @DisplayName("reportJobMetrics → cola y contadores por outcome")
+    void reportJobMetrics(){
+        ReportJobService jobs = mock(ReportJobService.class);
+        when(jobs.getQueueDepth()).thenReturn(3);
+        when(jobs.getStats()).thenReturn(Map.of("storedJobs", 5, "submitted", 10L, "rejected", 2L,
+                "completed", 7L, "failed", 1L, "cancelled", 0L));
+
+        config.reportJobMetrics(jobs).bindTo(registry);
+
+        assertThat(registry.get("toolrent.reports.jobs.queued").gauge().value()).isEqualTo(3.0);
+        assertThat(registry.get("toolrent.reports.jobs.stored").gauge().value()).isEqualTo(5.0);
+        assertThat(registry.get("toolrent.reports.jobs").tag("outcome", "submitted").functionCounter().count())
+                .isEqualTo(10.0);
+        assertThat(registry.get("toolrent.reports.jobs").tag("outcome", "rejected").functionCounter().count())
+                .isEqualTo(2.0);
+    }
+
+    /* ====== Réplica ====== */
+
+    @Test @DisplayName("replicaRoutingMetrics sin réplica → no registra métricas")
+    void replicaRoutingMetrics_disabled(){
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+
+        config.replicaRoutingMetrics(beans.getBeanProvider(ReplicaRoutingDataSource.class)).bindTo(registry);
+
+        assertThat(registry.find("toolrent.datasource.routed").meters()).isEmpty();
+    }
+
+    @Test @DisplayName("replicaRoutingMetrics con réplica → contador por destino")
+    void replicaRoutingMetrics_enabled(){
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1", "sa", "");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(ds, ds, Duration.ZERO);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("replicaRoutingDataSource", routing);
+
+        config.replicaRoutingMetrics(beans.getBeanProvider(ReplicaRoutingDataSource.class)).bindTo(registry);
+
+        assertThat(registry.find("toolrent.datasource.routed").meters()).hasSize(2);
+        assertThat(registry.get("toolrent.datasource.routed").tag("target", "replica").functionCounter().count())
+                .isZero();
+    }
+
+    /* ====== Locks por franja ====== */
+
+    @Test @DisplayName("stripedLockMetrics → contadores globales y un timer de contención por franja")
+    void stripedLockMetrics(){
+        StripedLockManager locks = new StripedLockManager(8, 100, registry);
+
+        config.stripedLockMetrics(locks).bindTo(registry);
+
+        assertThat(registry.find("toolrent.locks.contended").timers()).hasSize(8);
+        assertThat(registry.get("toolrent.locks.contended").tag("stripe", "0").timer().count()).isZero();
+        assertThat(registry.get("toolrent.locks.acquisitions").functionCounter().count()).isZero();
+        assertThat(registry.get("toolrent.locks.timeouts").functionCounter().count()).isZero();
+    }
+
+    /* ====== Caché JWT ====== */
+
+    @Test @DisplayName("jwtCacheMetrics → hits, misses y tamaño")
+    void jwtCacheMetrics(){
+        CachingJwtAuthenticationManager manager = new CachingJwtAuthenticationManager(
+                mock(AuthenticationProvider.class), 10, Duration.ofMinutes(5), Clock.systemUTC());
+
+        config.jwtCacheMetrics(manager).bindTo(registry);
+
+        assertThat(registry.get("toolrent.security.jwt.cache").tag("result", "hit").functionCounter().count()).isZero();
+        assertThat(registry.get("toolrent.security.jwt.cache.size").gauge().value()).isZero();
+    }
+
+    /* ====== Lecturas async ====== */
+
+    @Test @DisplayName("asyncReadMetrics → un contador por outcome")
+    void asyncReadMetrics(){
+        AsyncReads asyncReads = mock(AsyncReads.class);
+        when(asyncReads.getStats()).thenReturn(Map.of("completed", 9L, "failed", 0L, "timedOut", 2L, "rejected", 1L));
+
+        config.asyncReadMetrics(asyncReads).bindTo(registry);
+
+        assertThat(registry.find("toolrent.reads.async").functionCounters()).hasSize(4);
+        assertThat(registry.get("toolrent.reads.async").tag("outcome", "timedOut").functionCounter().count())
+                .isEqualTo(2.0);
+    }
+
+    /* ====== Control de admisión ====== */
+
+    @Test @DisplayName("admissionMetrics → rechazos por clase y motivo, y peticiones en curso")
+    void admissionMetrics(){
+        AdmissionControl admission = new AdmissionControl(10, 30, 4, 10, 60, 4, 2);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("admissionControl", admission);
+
+        config.admissionMetrics(beans.getBeanProvider(AdmissionControl.class)).bindTo(registry);
+
+        assertThat(registry.find("toolrent.admission.rejected").functionCounters()).hasSize(4);
+        assertThat(registry.get("toolrent.admission.rejected").tag("endpoint", "reports").tag("reason", "bulkhead")
+                .functionCounter().count()).isZero();
+        assertThat(registry.get("toolrent.admission.active").tag("endpoint", "kardex").gauge().value()).isZero();
+    }
+
+    @Test @DisplayName("admissionMetrics con el control apagado → no registra métricas")
+    void admissionMetrics_disabled(){
+        config.admissionMetrics(new DefaultListableBeanFactory().getBeanProvider(AdmissionControl.class))
+                .bindTo(registry);
+
+        assertThat(registry.find("toolrent.admission.rejected").meters()).isEmpty();
+    }
+
+    /* ====== Bus de invalidación ====== */
+
+    @Test @DisplayName("invalidationBusMetrics → eventos publicados y recibidos")
+    void invalidationBusMetrics(){
+        InvalidationBus bus = InvalidationBus.localOnly();
+        bus.publish("tariff", 1L);
+
+        config.invalidationBusMetrics(bus).bindTo(registry);
+
+        assertThat(registry.get("toolrent.coordination.events").tag("direction", "published").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("toolrent.coordination.events").tag("direction", "received").functionCounter().count())
+                .isZero();
+    }
+}
@@ -0,0 +1,107 @@
+package com.toolrent.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OptimisticRetryAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private Target target;
+    private Target proxy;
+
+    /* Falla con conflicto las primeras 'failures' llamadas */
+    static class Target {
+        int failures;
+        int calls;
+
+        @RetryOnConflict
+        public String update() {
+            calls++;
+            if (calls <= failures) {
+                throw new OptimisticLockingFailureException("versión desactualizada");
+            }
+            return "ok";
+        }
+
+        @RetryOnConflict
+        public String businessError() {
+            calls++;
+            throw new RuntimeException("La unidad ya fue retirada anteriormente");
+        }
+    }
+
+    @BeforeEach
+    void setUp(){
+        registry = new SimpleMeterRegistry();
+        target = new Target();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OptimisticRetryAspect(registry, 3, 1, 4));
+        proxy = factory.getProxy();
+    }
+
+    private double calls(String outcome) {
+        return registry.get("toolrent.optimistic.calls").tag("outcome", outcome).counter().count();
+    }
+
+    private double conflicts() {
+        return registry.get("toolrent.optimistic.conflicts").tag("operation", "Target.update").counter().count();
+    }
+
+    @Test @DisplayName("sin conflicto → una llamada, outcome success")
+    void noConflict(){
+        assertThat(proxy.update()).isEqualTo("ok");
+
+        assertThat(target.calls).isEqualTo(1);
+        assertThat(calls("success")).isEqualTo(1.0);
+        assertThat(registry.find("toolrent.optimistic.conflicts").counter()).isNull();
+    }
+
+    @Test @DisplayName("conflicto pasajero → reintenta y termina bien")
+    void conflictThenSuccess(){
+        target.failures = 2;
+
+        assertThat(proxy.update()).isEqualTo("ok");
+
+        assertThat(target.calls).isEqualTo(3);
+        assertThat(conflicts()).isEqualTo(2.0);
+        assertThat(calls("retried")).isEqualTo(1.0);
+    }
+
+    @Test @DisplayName("conflicto persistente → agota los intentos y propaga la excepción")
+    void exhausted(){
+        target.failures = 10;
+
+        assertThatThrownBy(() -> proxy.update()).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(target.calls).isEqualTo(3);
+        assertThat(conflicts()).isEqualTo(3.0);
+        assertThat(calls("exhausted")).isEqualTo(1.0);
+    }
+
+    @Test @DisplayName("error de negocio → no se reintenta")
+    void businessErrorNotRetried(){
+        assertThatThrownBy(() -> proxy.businessError()).hasMessageContaining("ya fue retirada");
+
+        assertThat(target.calls).isEqualTo(1);
+        assertThat(calls("error")).isEqualTo(1.0);
+    }
+
+    @Test @DisplayName("dentro de una transacción ya abierta → no reintenta, el conflicto sube al llamador")
+    void insideTransaction_noRetry(){
+        target.failures = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(() -> proxy.update()).isInstanceOf(OptimisticLockingFailureException.class);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertThat(target.calls).isEqualTo(1);
+    }
+}
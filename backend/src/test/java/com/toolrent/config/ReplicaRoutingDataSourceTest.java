@@ -0,0 +1,79 @@
+package com.toolrent.config;
+
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Dos H2 embebidas: cada una contiene una fila con su propio nombre */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    private static DataSource h2(String name) {
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate init = new JdbcTemplate(ds);
+        init.execute("CREATE TABLE IF NOT EXISTS db_marker (name VARCHAR(20))");
+        init.execute("DELETE FROM db_marker");
+        init.update("INSERT INTO db_marker VALUES (?)", name);
+        return ds;
+    }
+
+    private void setUp(Duration readYourWrites) {
+        routing = new ReplicaRoutingDataSource(h2("primary"), h2("replica"), readYourWrites);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(txManager);
+        readTx = new TransactionTemplate(txManager);
+        readTx.setReadOnly(true);
+    }
+
+    private String currentDb(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("SELECT name FROM db_marker", String.class));
+    }
+
+    @Test @DisplayName("readOnly → réplica, escritura → primario")
+    void routesByReadOnlyFlag(){
+        setUp(Duration.ZERO);
+
+        assertThat(currentDb(readTx)).isEqualTo("replica");
+        assertThat(currentDb(writeTx)).isEqualTo("primary");
+        // el proxy lazy abre una conexión al primario al iniciarse para leer autocommit/aislamiento
+        assertThat(routing.getStats()).containsEntry("replicaConnections", 1L);
+        assertThat((Long) routing.getStats().get("primaryConnections")).isGreaterThanOrEqualTo(1L);
+    }
+
+    @Test @DisplayName("lectura dentro de la ventana read-your-writes → primario")
+    void readYourWritesWindow(){
+        setUp(Duration.ofMinutes(1));
+
+        assertThat(currentDb(readTx)).isEqualTo("replica");
+        currentDb(writeTx); // commit de escritura del mismo usuario
+        assertThat(currentDb(readTx)).isEqualTo("primary");
+        assertThat(routing.getStats()).containsEntry("readYourWritesReads", 1L);
+    }
+
+    @Test @DisplayName("escritura con rollback no activa la ventana")
+    void rollbackDoesNotStick(){
+        setUp(Duration.ofMinutes(1));
+
+        writeTx.executeWithoutResult(status -> {
+            jdbc.queryForObject("SELECT name FROM db_marker", String.class);
+            status.setRollbackOnly();
+        });
+
+        assertThat(currentDb(readTx)).isEqualTo("replica");
+    }
+}
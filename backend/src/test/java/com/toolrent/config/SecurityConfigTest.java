@@ -0,0 +1,149 @@
+package com.toolrent.config;
+
+import com.toolrent.controllers.TariffController;
+import com.toolrent.entities.TariffEntity;
+import com.toolrent.services.TariffService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = TariffController.class)
+@Import({SecurityConfig.class, JwtConfig.class})
+class SecurityConfigTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private TariffService tariffService;
+    @MockitoBean private JwtDecoder jwtDecoder;
+    @MockitoBean private ClientRegistrationRepository clientRegistrationRepository;
+
+    @BeforeEach
+    void setUp(){
+        when(tariffService.getAllTariffs()).thenReturn(List.of(new TariffEntity()));
+        when(jwtDecoder.decode(anyString())).thenThrow(new BadJwtException("token inválido"));
+        doReturn(jwt("ADMIN")).when(jwtDecoder).decode("admin-token");
+        doReturn(jwt("EMPLOYEE")).when(jwtDecoder).decode("employee-token");
+        when(clientRegistrationRepository.findByRegistrationId("keycloak")).thenReturn(keycloak());
+    }
+
+    /* ======================================================================
+            1. Cadena de la API – sin sesión HTTP en ningún caso
+       ====================================================================== */
+
+    @ParameterizedTest(name = "{0} → {1}")
+    @CsvSource({
+            "admin-token,    200",
+            "employee-token, 403",
+            "expired-token,  401",
+            "'',             401"})
+    @DisplayName("API con o sin Bearer → nunca crea sesión ni cookie")
+    void api_neverCreatesSession(String token, int status) throws Exception {
+        var request = get("/tariffs");
+        if (!token.isEmpty()) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+
+        MvcResult result = mockMvc.perform(request).andReturn();
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(status);
+        assertThat(result.getRequest().getSession(false)).isNull();
+        assertThat(result.getResponse().getHeaders(HttpHeaders.SET_COOKIE)).isEmpty();
+    }
+
+    @Test @DisplayName("API sin token → 401 con WWW-Authenticate, no redirección al login")
+    void api_unauthenticated_noRedirect() throws Exception {
+        MvcResult result = mockMvc.perform(get("/tariffs")).andReturn();
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(401);
+        assertThat(result.getResponse().getHeader(HttpHeaders.WWW_AUTHENTICATE)).startsWith("Bearer");
+        assertThat(result.getResponse().getHeader(HttpHeaders.LOCATION)).isNull();
+    }
+
+    @ParameterizedTest(name = "{0} → {1}")
+    @CsvSource({
+            "employee-token, 403",
+            "'',             401"})
+    @DisplayName("/actuator/prometheus → requiere rol ADMIN")
+    void prometheus_requiresAdmin(String token, int status) throws Exception {
+        var request = get("/actuator/prometheus");
+        if (!token.isEmpty()) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+
+        assertThat(mockMvc.perform(request).andReturn().getResponse().getStatus()).isEqualTo(status);
+    }
+
+    @Test @DisplayName("200 llamadas con el mismo token → cero sesiones y una sola verificación del JWT")
+    void api_repeatedToken_noSessions_verifiedOnce() throws Exception {
+        doReturn(jwt("ADMIN")).when(jwtDecoder).decode("repeat-token");
+
+        for (int i = 0; i < 200; i++) {
+            MvcResult result = mockMvc.perform(get("/tariffs")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer repeat-token")).andReturn();
+            assertThat(result.getResponse().getStatus()).isEqualTo(200);
+            assertThat(result.getRequest().getSession(false)).isNull();
+        }
+        verify(jwtDecoder, times(1)).decode("repeat-token");
+    }
+
+    /* ======================================================================
+            2. Cadena del login por navegador – única que usa sesión
+       ====================================================================== */
+
+    @Test @DisplayName("/oauth2/authorization/keycloak → redirige a Keycloak y guarda el state en la sesión")
+    void browserLogin_usesSession() throws Exception {
+        MvcResult result = mockMvc.perform(get("/oauth2/authorization/keycloak")).andReturn();
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(302);
+        assertThat(result.getResponse().getHeader(HttpHeaders.LOCATION)).startsWith("http://keycloak.test/auth");
+        assertThat(result.getRequest().getSession(false)).isNotNull();
+    }
+
+    /* ======================================================================
+                                      Helpers
+       ====================================================================== */
+
+    private static Jwt jwt(String role) {
+        return Jwt.withTokenValue(role.toLowerCase() + "-token")
+                .header("alg", "RS256")
+                .claim("preferred_username", role.toLowerCase())
+                .claim("realm_access", Map.of("roles", List.of(role)))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+
+    private static ClientRegistration keycloak() {
+        return ClientRegistration.withRegistrationId("keycloak")
+                .clientId("toolrent-backend")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .scope("openid", "profile")
+                .authorizationUri("http://keycloak.test/auth")
+                .tokenUri("http://keycloak.test/token")
+                .jwkSetUri("http://keycloak.test/certs")
+                .build();
+    }
+}
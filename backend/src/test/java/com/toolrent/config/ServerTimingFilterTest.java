@@ -0,0 +1,147 @@
+package com.toolrent.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(false);
+
+    /* Simula un controlador que ejecuta sentencias mediante Hibernate */
+    private static MockFilterChain chainRunning(int statements) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                SqlStatsSessionListener listener = new SqlStatsSessionListener();
+                for (int i = 0; i < statements; i++) {
+                    listener.jdbcExecuteStatementStart();
+                    listener.jdbcExecuteStatementEnd();
+                }
+                res.getWriter().write("[]");
+            }
+        });
+    }
+
+    /* Simula la serialización con open-in-view: sentencias lazy después de empezar a escribir el cuerpo */
+    private static MockFilterChain chainWithLazySql(int before, int after) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                SqlStatsSessionListener listener = new SqlStatsSessionListener();
+                for (int i = 0; i < before; i++) {
+                    listener.jdbcExecuteStatementStart();
+                    listener.jdbcExecuteStatementEnd();
+                }
+                res.getWriter().write("[");
+                for (int i = 0; i < after; i++) {
+                    listener.jdbcExecuteStatementStart();
+                    listener.jdbcExecuteStatementEnd();
+                }
+                res.getWriter().write("]");
+            }
+        });
+    }
+
+    /* ====== Server-Timing ====== */
+
+    @Test @DisplayName("petición con 3 sentencias → Server-Timing con 3 sql y cuerpo intacto")
+    void serverTiming_countsStatements() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tools");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chainRunning(3));
+
+        assertThat(response.getHeader("Server-Timing")).matches("db;dur=\\d+\\.\\d;desc=\"3 sql\", app;dur=\\d+\\.\\d");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+        assertThat(RequestSqlStats.current()).isNull();
+    }
+
+    @Test @DisplayName("Server-Timing del controlador → se conserva y se agrega el del filtro")
+    void serverTiming_keepsControllerHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reports/dashboard");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                res.setHeader("Server-Timing", "activeLoans;dur=4.0");
+            }
+        }));
+
+        assertThat(response.getHeaders("Server-Timing")).hasSize(2).first().isEqualTo("activeLoans;dur=4.0");
+    }
+
+    @Test @DisplayName("sin buffer → header antes del cuerpo, con las sentencias hasta ese momento")
+    void unbuffered_headerBeforeBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tools/units");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chainWithLazySql(1, 2));
+
+        assertThat(response.getHeaders("Server-Timing")).singleElement().asString().contains("desc=\"1 sql\"");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+
+    @Test @DisplayName("buffer-body=true → header con las sentencias lazy y cuerpo intacto")
+    void buffered_countsLazyStatements() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tools/units");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(true).doFilter(request, response, chainWithLazySql(1, 2));
+
+        assertThat(response.getHeaders("Server-Timing")).singleElement().asString().contains("desc=\"3 sql\"");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+
+    @Test @DisplayName("/actuator → sin Server-Timing")
+    void actuator_notFiltered() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chainRunning(1));
+
+        assertThat(response.getHeader("Server-Timing")).isNull();
+    }
+
+    /* ====== Propagación ====== */
+
+    @Test @DisplayName("wrap → sentencias en otro hilo suman a la petición")
+    void wrap_propagatesToOtherThread(){
+        RequestSqlStats stats = new RequestSqlStats();
+        RequestSqlStats previous = RequestSqlStats.bind(stats);
+        Runnable task;
+        try {
+            task = RequestSqlStats.wrap(() -> {
+                SqlStatsSessionListener listener = new SqlStatsSessionListener();
+                listener.jdbcExecuteBatchStart();
+                listener.jdbcExecuteBatchEnd();
+            });
+        } finally {
+            RequestSqlStats.restore(previous);
+        }
+
+        CompletableFuture.runAsync(task).join();
+
+        assertThat(stats.getStatements()).isEqualTo(1);
+    }
+
+    @Test @DisplayName("sin petición en curso → el listener no falla ni registra")
+    void listener_withoutRequest(){
+        SqlStatsSessionListener listener = new SqlStatsSessionListener();
+
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        assertThat(RequestSqlStats.current()).isNull();
+    }
+}
@@ -0,0 +1,145 @@
+package com.toolrent.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StripedLockManagerTest {
+
+    private final StripedLockManager locks = new StripedLockManager(16, 2000);
+
+    /* Simula una transacción: abre la sincronización, corre el bloque y dispara afterCompletion */
+    private void inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+
+    private void run(int threads, Callable<Void> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) futures.add(pool.submit(task));
+            for (Future<Void> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /* ====== Franjas ====== */
+
+    @Test @DisplayName("cantidad de franjas → se redondea a potencia de dos")
+    void stripes_powerOfTwo(){
+        assertThat(new StripedLockManager(64, 100).stripeCount()).isEqualTo(64);
+        assertThat(new StripedLockManager(50, 100).stripeCount()).isEqualTo(64);
+        assertThat(new StripedLockManager(3, 100).stripeCount()).isEqualTo(4);
+        assertThat(new StripedLockManager(0, 100).stripeCount()).isEqualTo(2);
+    }
+
+    @Test @DisplayName("ids consecutivos → se reparten entre todas las franjas")
+    void stripeOf_spreadsSequentialIds(){
+        Set<Integer> used = LongStream.rangeClosed(1, 200)
+                .mapToObj(id -> locks.stripeOf(StripedLockManager.customer(id)))
+                .collect(Collectors.toSet());
+
+        assertThat(used).hasSize(locks.stripeCount()).allSatisfy(s -> assertThat(s).isBetween(0, 15));
+    }
+
+    /* ====== Exclusión ====== */
+
+    @Test @DisplayName("sin transacción activa → IllegalStateException")
+    void noTransaction(){
+        assertThatThrownBy(() -> locks.lockForTransaction(StripedLockManager.customer(1L)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test @DisplayName("misma clave → secciones críticas serializadas hasta el fin de la transacción")
+    void sameKey_mutualExclusion() throws Exception {
+        int[] counter = {0}; // sin sincronización propia: solo el lock lo protege
+        run(8, () -> {
+            for (int i = 0; i < 500; i++) {
+                inTransaction(() -> {
+                    locks.lockForTransaction(StripedLockManager.customer(7L));
+                    counter[0] = counter[0] + 1;
+                });
+            }
+            return null;
+        });
+
+        assertThat(counter[0]).isEqualTo(8 * 500);
+        assertThat(locks.getStats()).containsEntry("acquisitions", 8L * 500);
+    }
+
+    @Test @DisplayName("claves en orden opuesto → sin deadlock (se toman por número de franja)")
+    void oppositeOrder_noDeadlock() throws Exception {
+        StripedLockManager.Key a = StripedLockManager.customer(1L);
+        StripedLockManager.Key b = StripedLockManager.toolGroup(2L);
+        assertThat(locks.stripeOf(a)).isNotEqualTo(locks.stripeOf(b));
+
+        AtomicInteger turns = new AtomicInteger();
+        run(2, () -> {
+            boolean forward = turns.getAndIncrement() == 0;
+            for (int i = 0; i < 2000; i++) {
+                inTransaction(() -> {
+                    if (forward) locks.lockForTransaction(a, b);
+                    else locks.lockForTransaction(b, a);
+                });
+            }
+            return null;
+        });
+
+        assertThat(locks.getStats()).containsEntry("timeouts", 0L);
+    }
+
+    @Test @DisplayName("lock ocupado más allá del timeout → excepción y contención registrada en su franja")
+    void timeout_recordsContention() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StripedLockManager quick = new StripedLockManager(16, 50, registry);
+        StripedLockManager.Key key = StripedLockManager.toolGroup(3L);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> inTransaction(() -> {
+            quick.lockForTransaction(key);
+            held.countDown();
+            try {
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        held.await(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> inTransaction(() -> quick.lockForTransaction(key)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("intente nuevamente");
+        done.countDown();
+        holder.join(5000);
+
+        int stripe = quick.stripeOf(key);
+        assertThat(quick.contendedCount(stripe)).isEqualTo(1);
+        assertThat(quick.waitSeconds(stripe)).isGreaterThan(0.0);
+        Timer timer = registry.get("toolrent.locks.contended").tag("stripe", Integer.toString(stripe)).timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.takeSnapshot().histogramCounts()).hasSize(5);
+        assertThat(quick.getStats()).containsEntry("timeouts", 1L);
+    }
+}
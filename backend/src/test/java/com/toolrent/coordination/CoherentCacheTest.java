@@ -0,0 +1,55 @@
+package com.toolrent.coordination;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoherentCacheTest {
+
+    private final InvalidationBus bus = InvalidationBus.localOnly();
+    private final CoherentCache<Long, String> cache = new CoherentCache<>("tariff", bus);
+
+    @Test @DisplayName("segunda lectura → hit sin llamar al loader")
+    void hit(){
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> "t" + loads.incrementAndGet());
+        String value = cache.get(1L, id -> "t" + loads.incrementAndGet());
+
+        assertThat(value).isEqualTo("t1");
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test @DisplayName("evento de su entidad → se vacía; de otra entidad → no")
+    void invalidation(){
+        cache.get(1L, id -> "viejo");
+
+        bus.publish("customer", 1L);
+        assertThat(cache.get(1L, id -> "nuevo")).isEqualTo("viejo");
+
+        bus.publish("tariff", 1L);
+        assertThat(cache.get(1L, id -> "nuevo")).isEqualTo("nuevo");
+    }
+
+    @Test @DisplayName("invalidación durante la carga → el valor cargado no se guarda")
+    void invalidatedWhileLoading(){
+        String loaded = cache.get(1L, id -> {
+            bus.publish("tariff", id); // el escritor confirma mientras el lector todavía carga
+            return "viejo";
+        });
+
+        assertThat(loaded).isEqualTo("viejo");
+        assertThat(cache.get(1L, id -> "nuevo")).isEqualTo("nuevo");
+    }
+
+    @Test @DisplayName("loader devuelve null → no se cachea")
+    void nullNotCached(){
+        cache.get(1L, id -> null);
+
+        assertThat(cache.get(1L, id -> "t")).isEqualTo("t");
+        assertThat(cache.missCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,98 @@
+package com.toolrent.coordination;
+
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+class InvalidationBusTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp(TestInfo info){
+        DataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + info.getTestMethod().orElseThrow().getName() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+        CoordinationConfig.createTables(jdbc);
+    }
+
+    private InvalidationBus bus(String node, Duration settleLag) {
+        return new InvalidationBus(jdbc, node, settleLag, Duration.ofMinutes(10));
+    }
+
+    private static List<InvalidationBus.Invalidation> subscribe(InvalidationBus bus) {
+        List<InvalidationBus.Invalidation> received = new CopyOnWriteArrayList<>();
+        bus.subscribe("tariff", received::add);
+        return received;
+    }
+
+    @Test @DisplayName("publish con commit → la otra instancia lo recibe en poll(), la propia solo una vez")
+    void publish_reachesOtherNode(){
+        InvalidationBus a = bus("a", Duration.ZERO);
+        InvalidationBus b = bus("b", Duration.ZERO);
+        List<InvalidationBus.Invalidation> onA = subscribe(a);
+        List<InvalidationBus.Invalidation> onB = subscribe(b);
+
+        tx.executeWithoutResult(status -> a.publish("tariff", 7L));
+        assertThat(onA).hasSize(1); // local, después del commit
+        assertThat(onB).isEmpty();
+
+        a.poll();
+        b.poll();
+
+        assertThat(onA).hasSize(1); // su propio evento no vuelve por la tabla
+        assertThat(onB).containsExactly(new InvalidationBus.Invalidation("tariff", "7", "a"));
+    }
+
+    @Test @DisplayName("rollback → ni aviso local ni fila en coordination_events")
+    void publish_rollback(){
+        InvalidationBus a = bus("a", Duration.ZERO);
+        List<InvalidationBus.Invalidation> onA = subscribe(a);
+
+        tx.executeWithoutResult(status -> {
+            a.publish("tariff", 7L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(onA).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM coordination_events", Long.class)).isZero();
+    }
+
+    @Test @DisplayName("eventos dentro de settle-lag se releen pero no se entregan dos veces")
+    void poll_withinSettleLag_noDuplicates(){
+        InvalidationBus a = bus("a", Duration.ZERO);
+        InvalidationBus b = bus("b", Duration.ofMinutes(1));
+        List<InvalidationBus.Invalidation> onB = subscribe(b);
+
+        a.publish("tariff", 1L);
+        b.poll();
+        a.publish("tariff", 2L);
+        b.poll();
+        b.poll();
+
+        assertThat(onB).extracting(InvalidationBus.Invalidation::id).containsExactly("1", "2");
+        assertThat(b.getStats()).containsEntry("received", 2L);
+    }
+
+    @Test @DisplayName("solo local (coordinación deshabilitada) → aviso inmediato sin tocar la BD")
+    void localOnly(){
+        InvalidationBus local = InvalidationBus.localOnly();
+        List<InvalidationBus.Invalidation> received = subscribe(local);
+
+        local.publish("tariff", null);
+        local.poll();
+
+        assertThat(received).containsExactly(new InvalidationBus.Invalidation("tariff", null, "local"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.toolrent.coordination;
+
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TableAdvisoryLocksTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+    private TableAdvisoryLocks locks;
+
+    @BeforeEach
+    void setUp(TestInfo info){
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + info.getTestMethod().orElseThrow().getName() +
+                ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+        CoordinationConfig.createTables(jdbc);
+        locks = new TableAdvisoryLocks(jdbc);
+    }
+
+    @Test @DisplayName("sin transacción → IllegalStateException")
+    void requiresTransaction(){
+        assertThatThrownBy(() -> locks.lockForTransaction("customer:1"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test @DisplayName("mismo nombre → la segunda transacción espera el commit de la primera")
+    void sameName_waitsForCommit() throws Exception {
+        tx.executeWithoutResult(status -> locks.lockForTransaction("customer:1")); // la fila ya existe
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(() -> tx.executeWithoutResult(status -> {
+                locks.lockForTransaction("customer:1");
+                firstLocked.countDown();
+                sleep(300);
+                order.add("first-commit");
+            }));
+            assertThat(firstLocked.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = pool.submit(() -> tx.executeWithoutResult(status -> {
+                locks.lockForTransaction("customer:1");
+                order.add("second-locked");
+            }));
+
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(order).containsExactly("first-commit", "second-locked");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM coordination_locks", Long.class)).isEqualTo(1);
+    }
+
+    @Test @DisplayName("nombres distintos → no se bloquean entre sí")
+    void differentNames_independent() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = pool.submit(() -> tx.executeWithoutResult(status -> {
+                locks.lockForTransaction("customer:1");
+                firstLocked.countDown();
+                await(secondDone); // sigue con el lock mientras la otra transacción corre
+            }));
+            assertThat(firstLocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            tx.executeWithoutResult(status -> locks.lockForTransaction("customer:2"));
+            secondDone.countDown();
+            first.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.toolrent.datagen;
+
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* H2 embebida con el mismo esquema de tablas que genera Hibernate */
+class DatasetGeneratorTest {
+
+    private static final DatasetSpec SMALL = DatasetSpec.defaults()
+            .withSize(200, 20, 5, 2_000)
+            .withAnchor(LocalDate.of(2025, 6, 1))
+            .withParallelism(4, 100, 300);
+
+    private static int databases;
+
+    private JdbcTemplate jdbc;
+    private DatasetGenerator generator;
+
+    private static DataSource h2(String name) {
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate init = new JdbcTemplate(ds);
+        init.execute("CREATE TABLE customers (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), " +
+                "rut VARCHAR(255) UNIQUE, phone VARCHAR(255), email VARCHAR(255), status VARCHAR(255))");
+        init.execute("CREATE TABLE tariffs (id BIGINT AUTO_INCREMENT PRIMARY KEY, daily_rental_rate DOUBLE, " +
+                "daily_fine_rate DOUBLE)");
+        init.execute("CREATE TABLE tool_groups (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), " +
+                "category VARCHAR(255), replacement_value DOUBLE, tariff_id BIGINT REFERENCES tariffs(id))");
+        init.execute("CREATE TABLE tool_units (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "tool_group_id BIGINT REFERENCES tool_groups(id), status VARCHAR(255), version BIGINT DEFAULT 0 NOT NULL)");
+        init.execute("CREATE TABLE loans (id BIGINT AUTO_INCREMENT PRIMARY KEY, customer_id BIGINT REFERENCES customers(id), " +
+                "tool_unit_id BIGINT REFERENCES tool_units(id), loan_date TIMESTAMP, due_date TIMESTAMP, " +
+                "return_date TIMESTAMP, total_cost DOUBLE, fine_amount DOUBLE, damage_charge DOUBLE, version BIGINT DEFAULT 0 NOT NULL)");
+        init.execute("CREATE TABLE kardex_movements (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "tool_unit_id BIGINT REFERENCES tool_units(id), customer_id BIGINT REFERENCES customers(id), " +
+                "movement_type VARCHAR(255), movement_date TIMESTAMP, details VARCHAR(255))");
+        return ds;
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource ds = h2("datagen" + (++databases));
+        jdbc = new JdbcTemplate(ds);
+        generator = new DatasetGenerator(ds);
+    }
+
+    private Map<String, Object> checksum(JdbcTemplate db) {
+        return db.queryForMap("SELECT " +
+                "(SELECT SUM(customer_id * 31 + tool_unit_id) FROM loans) AS loan_refs, " +
+                "(SELECT SUM(total_cost + fine_amount + damage_charge) FROM loans) AS amounts, " +
+                "(SELECT COUNT(*) FROM loans WHERE return_date IS NULL) AS active, " +
+                "(SELECT COUNT(*) FROM tool_units WHERE status = 'LOANED') AS loaned, " +
+                "(SELECT SUM(id) FROM kardex_movements WHERE movement_type = 'REPAIR') AS repairs, " +
+                "(SELECT COUNT(*) FROM customers WHERE status = 'RESTRICTED') AS restricted");
+    }
+
+    /* ====== Volumen ====== */
+
+    @Test @DisplayName("generate → filas insertadas coinciden con el resultado")
+    void generate_counts(){
+        DatasetGenerator.Result result = generator.generate(SMALL);
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM customers", Long.class)).isEqualTo(200L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tool_groups", Long.class)).isEqualTo(20L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tool_units", Long.class)).isEqualTo(100L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM loans", Long.class)).isEqualTo(2_000L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM kardex_movements", Long.class))
+                .isEqualTo(result.kardexMovements());
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM loans WHERE return_date IS NULL", Long.class))
+                .isEqualTo(result.activeLoans());
+    }
+
+    @Test @DisplayName("préstamos activos → solo sobre unidades LOANED, una por unidad")
+    void activeLoans_onLoanedUnits(){
+        DatasetGenerator.Result result = generator.generate(SMALL);
+
+        Long onLoanedUnits = jdbc.queryForObject("SELECT COUNT(DISTINCT l.tool_unit_id) FROM loans l " +
+                "JOIN tool_units u ON u.id = l.tool_unit_id WHERE l.return_date IS NULL AND u.status = 'LOANED'", Long.class);
+        assertThat(onLoanedUnits).isEqualTo(result.activeLoans()).isPositive();
+    }
+
+    /* ====== Determinismo ====== */
+
+    @Test @DisplayName("misma semilla con 1 y 4 hilos → mismo dataset")
+    void sameSeed_sameDataset(){
+        generator.generate(SMALL.withParallelism(1, 100, 300));
+        DataSource other = h2("datagen" + (++databases));
+        new DatasetGenerator(other).generate(SMALL.withParallelism(4, 7, 300));
+
+        assertThat(checksum(new JdbcTemplate(other))).isEqualTo(checksum(jdbc));
+    }
+
+    @Test @DisplayName("otra semilla → dataset distinto")
+    void otherSeed_otherDataset(){
+        generator.generate(SMALL);
+        DataSource other = h2("datagen" + (++databases));
+        new DatasetGenerator(other).generate(SMALL.withSeed(SMALL.seed() + 1));
+
+        assertThat(checksum(new JdbcTemplate(other))).isNotEqualTo(checksum(jdbc));
+    }
+
+    /* ====== Ids ====== */
+
+    @Test @DisplayName("segunda generación e insert con identidad → sin colisiones de id")
+    void appendAndIdentity(){
+        generator.generate(SMALL);
+        generator.generate(SMALL);
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM customers", Long.class)).isEqualTo(400L);
+        jdbc.update("INSERT INTO customers (name, rut, phone, email, status) VALUES ('Nuevo', '1-9', '', '', 'ACTIVE')");
+        assertThat(jdbc.queryForObject("SELECT id FROM customers WHERE rut = '1-9'", Long.class)).isEqualTo(401L);
+    }
+
+    /* ====== Zipf ====== */
+
+    @Test @DisplayName("zipfRank → los primeros rangos concentran la demanda")
+    void zipfRank_skew(){
+        int ranks = 100;
+        double[] cdf = new double[ranks];
+        double total = 0;
+        for (int k = 0; k < ranks; k++) {
+            total += 1.0 / Math.pow(k + 1, 1.1);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < ranks; k++) {
+            cdf[k] /= total;
+        }
+
+        int[] hits = new int[ranks];
+        var random = DatasetGenerator.random(42, 0, 0);
+        for (int i = 0; i < 100_000; i++) {
+            hits[DatasetGenerator.zipfRank(cdf, random.nextDouble())]++;
+        }
+
+        assertThat(hits[0]).isGreaterThan(hits[ranks - 1] * 50);
+        assertThat(DatasetGenerator.zipfRank(cdf, 1.0)).isEqualTo(ranks - 1);
+        assertThat(DatasetGenerator.zipfRank(cdf, 0.0)).isZero();
+    }
+}
@@ -0,0 +1,108 @@
+package com.toolrent.integration;
+
+import com.toolrent.ToolrentApplication;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+ * Perfil 'fast': arranca la aplicación completa (H2 en modo MySQL, esquema por Flyway + validate) y mide el
+ * tiempo hasta la primera respuesta de un endpoint con JPA. El presupuesto se ajusta con
+ * -Dtoolrent.startup.budget-ms; las cifras quedan en la salida del test para seguirlas entre versiones.
+ */
+class FastStartupTest {
+
+    private static final long BUDGET_MS = Long.getLong("toolrent.startup.budget-ms", 30_000);
+
+    @Test @DisplayName("perfil fast → esquema migrado y validado al arrancar, controladores creados en la primera petición")
+    void fastProfile_timeToFirstRequest() throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ToolrentApplication.class)
+                .initializers(ctx -> {
+                    // Sin Keycloak: decoder y registro OAuth2 locales, como en el loadtest
+                    ctx.getBeanFactory().registerSingleton("jwtDecoder", (JwtDecoder) FastStartupTest::adminJwt);
+                    ctx.getBeanFactory().registerSingleton("clientRegistrationRepository",
+                            new InMemoryClientRegistrationRepository(keycloak()));
+                })
+                .run("--spring.profiles.active=fast",
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:faststartup;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--springdoc.api-docs.enabled=false",
+                        "--springdoc.swagger-ui.enabled=false")) {
+
+            long ready = System.nanoTime();
+            ConfigurableListableBeanFactory beans = context.getBeanFactory();
+            assertThat(beans.containsSingleton("flywayInitializer")).isTrue();
+            assertThat(beans.containsSingleton("entityManagerFactory")).isTrue();
+            assertThat(beans.containsSingleton("toolGroupController")).isFalse();
+            assertThat(context.getBean(Flyway.class).info().current().getVersion().getVersion()).isEqualTo("2");
+            assertThat(context.getBean(JdbcTemplate.class)
+                    .queryForObject("select count(*) from coordination_events", Long.class)).isZero();
+
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tools/available"))
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer startup-token")
+                            .GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long firstResponse = System.nanoTime();
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(beans.containsSingleton("toolGroupController")).isTrue();
+
+            long startupMs = (ready - start) / 1_000_000;
+            long firstRequestMs = (firstResponse - start) / 1_000_000;
+            System.out.println(String.format(Locale.ROOT,
+                    "Arranque perfil fast: contexto listo %d ms, primera respuesta %d ms (primera petición %d ms)",
+                    startupMs, firstRequestMs, firstRequestMs - startupMs));
+            assertThat(firstRequestMs).isLessThan(BUDGET_MS);
+        }
+    }
+
+    private static Jwt adminJwt(String token) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .claim("preferred_username", "startup")
+                .claim("realm_access", Map.of("roles", List.of("ADMIN")))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+
+    private static ClientRegistration keycloak() {
+        return ClientRegistration.withRegistrationId("keycloak")
+                .clientId("toolrent-backend")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .scope("openid", "profile")
+                .authorizationUri("http://keycloak.test/auth")
+                .tokenUri("http://keycloak.test/token")
+                .jwkSetUri("http://keycloak.test/certs")
+                .build();
+    }
+}
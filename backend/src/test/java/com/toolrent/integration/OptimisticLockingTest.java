@@ -0,0 +1,266 @@
+package com.toolrent.integration;
+
+import com.toolrent.config.OptimisticRetryAspect;
+import com.toolrent.config.StripedLockManager;
+import com.toolrent.coordination.CoordinationConfig;
+import com.toolrent.coordination.InvalidationBus;
+import com.toolrent.entities.*;
+import com.toolrent.repositories.*;
+import com.toolrent.services.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+ * Muchos hilos sobre la misma unidad o el mismo préstamo: con @Version + reintento ninguna escritura
+ * pisa a otra. Cada cambio de estado aplicado deja exactamente un movimiento de kárdex y sube la versión en 1.
+ * Las reglas por cliente (máximo 5 activos, no repetir herramienta) se sostienen con los locks por franja.
+ */
+@DataJpaTest(properties = {"toolrent.optimistic-retry.max-attempts=30", "toolrent.optimistic-retry.max-backoff-ms=20"})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({StripedLockManager.class, CoordinationConfig.class,
+        LoanService.class, ToolGroupService.class, ToolUnitService.class, KardexMovementService.class,
+        CustomerService.class, OptimisticRetryAspect.class, OptimisticLockingTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticLockingTest {
+
+    private static final int THREADS = 8;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private LoanService loanService;
+    @Autowired private ToolGroupService toolGroupService;
+    @Autowired private ToolUnitService toolUnitService;
+    @Autowired private CustomerService customerService;
+    @Autowired private MeterRegistry registry;
+
+    @Autowired private KardexMovementRepository kardexMovementRepository;
+    @Autowired private LoanRepository loanRepository;
+    @Autowired private ToolUnitRepository toolUnitRepository;
+    @Autowired private ToolGroupRepository toolGroupRepository;
+    @Autowired private TariffRepository tariffRepository;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private InvalidationBus invalidationBus;
+
+    private int sequence;
+
+    @BeforeEach
+    void setUp(){
+        customerService.getSystemCustomer(); // evita que los hilos lo creen en paralelo
+    }
+
+    @AfterEach
+    void cleanUp(){
+        kardexMovementRepository.deleteAllInBatch();
+        loanRepository.deleteAllInBatch();
+        toolUnitRepository.deleteAllInBatch();
+        toolGroupRepository.deleteAllInBatch();
+        tariffRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        invalidationBus.publish(CustomerService.ENTITY, null); // el cliente "Sistema" queda cacheado entre tests
+    }
+
+    private CustomerEntity customer() {
+        sequence++;
+        return customerService.registerCustomer("Cliente " + sequence, sequence + "-K", "+56900000000",
+                "cliente" + sequence + "@toolrent.com");
+    }
+
+    /* Lanza las tareas a la vez y espera a todas; un error inesperado en cualquier hilo hace fallar el test */
+    private <T> List<T> concurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private double counter(String name, String operation) {
+        return registry.find(name).tag("operation", operation).counters().stream()
+                .mapToDouble(Counter::count).sum();
+    }
+
+    /* ====== Cambios de estado sobre una misma unidad ====== */
+
+    @Test @DisplayName("changeStatus concurrente → sin actualizaciones perdidas, kárdex alternado y versión exacta")
+    void changeStatus_concurrent(){
+        toolGroupService.registerToolGroup("Taladro", "Eléctricas", 50000.0, 3000.0, 1);
+        Long unitId = toolUnitRepository.findAll().get(0).getId();
+        int callsPerThread = 20;
+        AtomicInteger applied = new AtomicInteger();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            tasks.add(() -> {
+                for (int i = 0; i < callsPerThread; i++) {
+                    ToolStatus target = (offset + i) % 2 == 0 ? ToolStatus.IN_REPAIR : ToolStatus.AVAILABLE;
+                    try {
+                        toolUnitService.changeStatus(unitId, target);
+                        applied.incrementAndGet();
+                    } catch (RuntimeException ex) {
+                        // Otro hilo ya la dejó en ese estado: regla de negocio, no un conflicto
+                        assertThat(ex).hasMessageStartingWith("La unidad ya está en estado");
+                    }
+                }
+                return null;
+            });
+        }
+        assertThatCode(() -> concurrently(tasks)).doesNotThrowAnyException();
+
+        ToolUnitEntity unit = toolUnitRepository.findById(unitId).orElseThrow();
+        assertThat(unit.getVersion()).isEqualTo((long) applied.get());
+
+        List<MovementType> movements = kardexMovementRepository.findAll(Sort.by("id")).stream()
+                .map(KardexMovementEntity::getMovementType)
+                .filter(type -> type != MovementType.REGISTRY)
+                .toList();
+        assertThat(movements).hasSize(applied.get());
+        for (int i = 0; i < movements.size(); i++) {
+            // AVAILABLE → IN_REPAIR (REPAIR) → AVAILABLE (RE_ENTRY) → ... sin dos cambios iguales seguidos
+            assertThat(movements.get(i)).isEqualTo(i % 2 == 0 ? MovementType.REPAIR : MovementType.RE_ENTRY);
+        }
+        assertThat(unit.getStatus()).isEqualTo(applied.get() % 2 == 0 ? ToolStatus.AVAILABLE : ToolStatus.IN_REPAIR);
+
+        assertThat(counter("toolrent.optimistic.calls", "ToolUnitService.changeStatus"))
+                .isEqualTo(THREADS * callsPerThread);
+        assertThat(registry.find("toolrent.optimistic.calls").tag("outcome", "exhausted").counter()).isNull();
+    }
+
+    /* ====== Préstamos ====== */
+
+    @Test @DisplayName("registerLoan concurrente sobre un grupo → cada préstamo se lleva una unidad distinta")
+    void registerLoan_concurrent_distinctUnits() throws Exception {
+        ToolGroupEntity group = toolGroupService.registerToolGroup("Sierra", "Eléctricas", 80000.0, 4000.0, THREADS);
+        List<Long> customers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) customers.add(customer().getId());
+
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (Long customerId : customers) {
+            tasks.add(() -> loanService.registerLoan(group.getId(), customerId, LocalDateTime.now().plusDays(3)).getId());
+        }
+        List<Long> loanIds = concurrently(tasks);
+
+        assertThat(loanIds).doesNotHaveDuplicates().hasSize(THREADS);
+        assertThat(loanRepository.findAll()).extracting(loan -> loan.getToolUnit().getId())
+                .doesNotHaveDuplicates().hasSize(THREADS);
+        assertThat(toolUnitRepository.findAll()).extracting(ToolUnitEntity::getStatus)
+                .containsOnly(ToolStatus.LOANED);
+    }
+
+    @Test @DisplayName("returnLoan concurrente del mismo préstamo → una sola devolución y un solo movimiento")
+    void returnLoan_concurrent_singleReturn() throws Exception {
+        ToolGroupEntity group = toolGroupService.registerToolGroup("Lijadora", "Eléctricas", 30000.0, 2000.0, 1);
+        LoanEntity loan = loanService.registerLoan(group.getId(), customer().getId(), LocalDateTime.now().plusDays(3));
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> {
+                try {
+                    loanService.returnLoan(loan.getId(), 0.0, false);
+                    return true;
+                } catch (RuntimeException ex) {
+                    assertThat(ex).hasMessage("El préstamo ya fue devuelto");
+                    return false;
+                }
+            });
+        }
+        List<Boolean> results = concurrently(tasks);
+
+        assertThat(results).containsOnlyOnce(true);
+        assertThat(loanRepository.findById(loan.getId()).orElseThrow().getVersion()).isEqualTo(1L);
+        assertThat(kardexMovementRepository.findAll()).extracting(KardexMovementEntity::getMovementType)
+                .containsOnlyOnce(MovementType.RETURN);
+        assertThat(toolUnitRepository.findAll()).singleElement()
+                .extracting(ToolUnitEntity::getStatus).isEqualTo(ToolStatus.AVAILABLE);
+    }
+
+    /* ====== Reglas por cliente (locks por franja) ====== */
+
+    @Test @DisplayName("registerLoan concurrente del mismo cliente en 8 grupos → exactamente 5 préstamos activos")
+    void registerLoan_concurrent_maxFiveActive() throws Exception {
+        Long customerId = customer().getId();
+        List<Long> groups = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            groups.add(toolGroupService.registerToolGroup("Herramienta " + i, "Manuales", 10000.0, 1000.0, 2).getId());
+        }
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (Long groupId : groups) {
+            tasks.add(() -> {
+                try {
+                    loanService.registerLoan(groupId, customerId, LocalDateTime.now().plusDays(2));
+                    return true;
+                } catch (RuntimeException ex) {
+                    assertThat(ex).hasMessageContaining("5 préstamos activos");
+                    return false;
+                }
+            });
+        }
+        List<Boolean> results = concurrently(tasks);
+
+        assertThat(results).filteredOn(ok -> ok).hasSize(5);
+        assertThat(loanRepository.countByCustomerIdAndReturnDateIsNull(customerId)).isEqualTo(5);
+    }
+
+    @Test @DisplayName("registerLoan concurrente del mismo cliente y grupo → una sola unidad prestada")
+    void registerLoan_concurrent_sameToolOnce() throws Exception {
+        Long customerId = customer().getId();
+        Long groupId = toolGroupService.registerToolGroup("Esmeril", "Eléctricas", 40000.0, 2500.0, THREADS).getId();
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> {
+                try {
+                    loanService.registerLoan(groupId, customerId, LocalDateTime.now().plusDays(2));
+                    return true;
+                } catch (RuntimeException ex) {
+                    assertThat(ex).hasMessageContaining("ya tiene una unidad de esta herramienta");
+                    return false;
+                }
+            });
+        }
+
+        assertThat(concurrently(tasks)).containsOnlyOnce(true);
+        assertThat(toolUnitService.getRealStock(groupId)).isEqualTo(THREADS - 1);
+    }
+}
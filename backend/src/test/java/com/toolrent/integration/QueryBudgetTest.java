@@ -0,0 +1,316 @@
+package com.toolrent.integration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toolrent.config.StripedLockManager;
+import com.toolrent.coordination.CoordinationConfig;
+import com.toolrent.coordination.InvalidationBus;
+import com.toolrent.dto.ToolGroupSummaryDTO;
+import com.toolrent.entities.CustomerEntity;
+import com.toolrent.entities.KardexMovementEntity;
+import com.toolrent.entities.LoanEntity;
+import com.toolrent.entities.TariffEntity;
+import com.toolrent.entities.ToolGroupEntity;
+import com.toolrent.entities.ToolStatus;
+import com.toolrent.entities.ToolUnitEntity;
+import com.toolrent.repositories.*;
+import com.toolrent.services.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+/*
+ * Presupuesto de sentencias SQL por operación, sobre H2 y con el mapeo JPA real.
+ * Cada llamada corre como en un request: EntityManager abierto durante toda la llamada (open-in-view)
+ * y respuesta serializada a JSON, así cuentan también las cargas lazy de la serialización.
+ * Si un cambio de entidades o consultas sube el número, este test falla antes de llegar a producción.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({StripedLockManager.class, CoordinationConfig.class,
+        LoanService.class, ToolGroupService.class, ToolUnitService.class, KardexMovementService.class,
+        CustomerService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryBudgetTest {
+
+    // 5 validaciones + grupo + unidad + cliente + insert préstamo + insert kardex + update unidad (un solo flush)
+    private static final long REGISTER_LOAN_BUDGET = 11;
+    // préstamo con unidad, grupo y tarifa (grafo LoanEntity.return) + insert kardex + update préstamo + update unidad
+    private static final long RETURN_LOAN_BUDGET = 4;
+
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private LoanService loanService;
+    @Autowired private ToolGroupService toolGroupService;
+    @Autowired private ToolUnitService toolUnitService;
+    @Autowired private KardexMovementService kardexMovementService;
+    @Autowired private CustomerService customerService;
+
+    // Espía: returnLoan_rollback hace fallar el insert del kardex, lo último de la devolución
+    @MockitoSpyBean private KardexMovementRepository kardexMovementRepository;
+    @Autowired private LoanRepository loanRepository;
+    @Autowired private ToolUnitRepository toolUnitRepository;
+    @Autowired private ToolGroupRepository toolGroupRepository;
+    @Autowired private TariffRepository tariffRepository;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private InvalidationBus invalidationBus;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private int sequence;
+
+    @AfterEach
+    void cleanUp(){
+        kardexMovementRepository.deleteAllInBatch();
+        loanRepository.deleteAllInBatch();
+        toolUnitRepository.deleteAllInBatch();
+        toolGroupRepository.deleteAllInBatch();
+        tariffRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        invalidationBus.publish(CustomerService.ENTITY, null); // el cliente "Sistema" queda cacheado entre tests
+    }
+
+    /* Sentencias ejecutadas por la llamada, incluida la serialización del resultado */
+    private long statements(Supplier<?> call) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        EntityManager em = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+        try {
+            statistics.clear();
+            Object result = call.get();
+            mapper.writeValueAsString(result);
+            return statistics.getPrepareStatementCount();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            em.close();
+        }
+    }
+
+    /* Transacciones JDBC terminadas durante la llamada: cada una es un commit (y un fsync del log en MySQL) */
+    private long transactions(Supplier<?> call) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statements(call);
+        return statistics.getTransactionCount();
+    }
+
+    /* Entidades materializadas por la llamada: aproximación al costo en memoria por request */
+    private long entityLoads(Supplier<?> call) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statements(call);
+        return statistics.getEntityLoadCount();
+    }
+
+    private long tariffLoads() {
+        return emf.unwrap(SessionFactory.class).getStatistics()
+                .getEntityStatistics(TariffEntity.class.getName()).getLoadCount();
+    }
+
+    private ToolGroupEntity group(int stock) {
+        sequence++;
+        return toolGroupService.registerToolGroup("Taladro " + sequence, "Eléctricas", 50000.0, 3000.0, stock);
+    }
+
+    private CustomerEntity customer() {
+        sequence++;
+        return customerService.registerCustomer("Cliente " + sequence, sequence + "-K", "+56900000000",
+                "cliente" + sequence + "@toolrent.com");
+    }
+
+    /* ====== Préstamos ====== */
+
+    @Test @DisplayName("registerLoan → dentro del presupuesto de sentencias")
+    void registerLoan_budget(){
+        ToolGroupEntity group = group(3);
+        CustomerEntity customer = customer();
+
+        long count = statements(() ->
+                loanService.registerLoan(group.getId(), customer.getId(), LocalDateTime.now().plusDays(3)));
+
+        assertThat(count).isLessThanOrEqualTo(REGISTER_LOAN_BUDGET);
+    }
+
+    @Test @DisplayName("returnLoan → dentro del presupuesto de sentencias")
+    void returnLoan_budget(){
+        ToolGroupEntity group = group(3);
+        CustomerEntity customer = customer();
+        LoanEntity loan = loanService.registerLoan(group.getId(), customer.getId(), LocalDateTime.now().plusDays(3));
+
+        long count = statements(() -> {
+            loanService.returnLoan(loan.getId(), 0.0, false);
+            return null;
+        });
+
+        assertThat(count).isLessThanOrEqualTo(RETURN_LOAN_BUDGET);
+    }
+
+    @Test @DisplayName("registerLoan → un solo commit para unidad, préstamo y kardex")
+    void registerLoan_singleTransaction(){
+        ToolGroupEntity group = group(3);
+        CustomerEntity customer = customer();
+
+        long count = transactions(() ->
+                loanService.registerLoan(group.getId(), customer.getId(), LocalDateTime.now().plusDays(3)));
+
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test @DisplayName("returnLoan → un solo commit para préstamo, unidad y kardex")
+    void returnLoan_singleTransaction(){
+        ToolGroupEntity group = group(3);
+        LoanEntity loan = loanService.registerLoan(group.getId(), customer().getId(), LocalDateTime.now().plusDays(3));
+
+        long count = transactions(() -> {
+            loanService.returnLoan(loan.getId(), 0.0, true);
+            return null;
+        });
+
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test @DisplayName("returnLoan que falla a mitad de camino → no deja cambios a medias")
+    void returnLoan_rollback(){
+        ToolGroupEntity group = group(1);
+        LoanEntity loan = loanService.registerLoan(group.getId(), customer().getId(), LocalDateTime.now().plusDays(3));
+
+        /* el insert del kardex falla después de marcar la devolución en préstamo y unidad */
+        doThrow(new IllegalStateException("kardex no disponible"))
+                .when(kardexMovementRepository).save(any(KardexMovementEntity.class));
+        assertThatThrownBy(() -> statements(() -> {
+            loanService.returnLoan(loan.getId(), 0.0, false);
+            return null;
+        })).isInstanceOf(IllegalStateException.class).hasMessage("kardex no disponible");
+
+        LoanEntity reloaded = loanRepository.findById(loan.getId()).orElseThrow();
+        assertThat(reloaded.getReturnDate()).isNull();
+        assertThat(toolUnitRepository.findAll()).singleElement()
+                .extracting(ToolUnitEntity::getStatus).isEqualTo(ToolStatus.LOANED);
+        assertThat(kardexMovementRepository.count()).isEqualTo(2); // ingreso + préstamo
+    }
+
+    /* ====== Listados: constantes respecto del volumen ====== */
+
+    @Test @DisplayName("GET /tools → una sola sentencia, sin importar la cantidad de grupos")
+    void getToolGroupSummaries_singleStatement(){
+        group(3);
+        group(3);
+        long withTwo = statements(toolGroupService::getToolGroupSummaries);
+
+        for (int i = 0; i < 4; i++) group(5);
+        long withSix = statements(toolGroupService::getToolGroupSummaries);
+
+        assertThat(withTwo).isEqualTo(1);
+        assertThat(withSix).isEqualTo(1);
+    }
+
+    @Test @DisplayName("GET /tools/available → una sola sentencia y sin entidades cargadas")
+    void getAvailableToolGroupSummaries_noEntities(){
+        for (int i = 0; i < 6; i++) group(2);
+
+        long loads = entityLoads(toolGroupService::getAvailableToolGroupSummaries);
+
+        assertThat(loads).isZero();
+        assertThat(emf.unwrap(SessionFactory.class).getStatistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test @DisplayName("GET /tools → conteos por estado calculados en la consulta")
+    void getToolGroupSummaries_counts(){
+        ToolGroupEntity loaned = group(3);
+        ToolGroupEntity empty = group(0);
+        loanService.registerLoan(loaned.getId(), customer().getId(), LocalDateTime.now().plusDays(2));
+
+        List<ToolGroupSummaryDTO> summaries = toolGroupService.getToolGroupSummaries();
+
+        ToolGroupSummaryDTO first = summaries.stream().filter(g -> g.id().equals(loaned.getId())).findFirst().orElseThrow();
+        assertThat(first.totalStock()).isEqualTo(3);
+        assertThat(first.availableCount()).isEqualTo(2);
+        assertThat(first.loanedCount()).isEqualTo(1);
+        assertThat(first.tariff().dailyRentalRate()).isEqualTo(3000.0);
+        assertThat(summaries).filteredOn(g -> g.id().equals(empty.getId()))
+                .singleElement().extracting(ToolGroupSummaryDTO::totalStock).isEqualTo(0L);
+        assertThat(toolGroupService.getAvailableToolGroupSummaries())
+                .extracting(ToolGroupSummaryDTO::id).containsExactly(loaned.getId());
+    }
+
+    @Test @DisplayName("GET /tools/units → una sola sentencia para todas las unidades")
+    void getAllUnitRows_singleStatement(){
+        for (int i = 0; i < 3; i++) group(4);
+
+        long count = statements(toolUnitService::findAllUnitRows);
+
+        assertThat(count).isEqualTo(1);
+        assertThat(toolUnitService.findAllUnitRows()).hasSize(12)
+                .allSatisfy(u -> assertThat(u.toolGroup().name()).startsWith("Taladro"));
+    }
+
+    @Test @DisplayName("GET /kardex → mismas sentencias con más grupos, clientes y movimientos")
+    void getAllMovements_constant(){
+        ToolGroupEntity first = group(2);
+        loanService.registerLoan(first.getId(), customer().getId(), LocalDateTime.now().plusDays(2));
+        long small = statements(kardexMovementService::getAllMovements);
+
+        for (int i = 0; i < 4; i++) {
+            ToolGroupEntity group = group(2);
+            loanService.registerLoan(group.getId(), customer().getId(), LocalDateTime.now().plusDays(2));
+        }
+        long large = statements(kardexMovementService::getAllMovements);
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    /* ====== Fetch plan lazy: entidades cargadas por caso de uso ====== */
+
+    @Test @DisplayName("findById de préstamo → solo el préstamo (cliente y unidad quedan como proxies)")
+    void loanFindById_lazy(){
+        ToolGroupEntity group = group(1);
+        LoanEntity loan = loanService.registerLoan(group.getId(), customer().getId(), LocalDateTime.now().plusDays(3));
+
+        long loads = entityLoads(() -> {
+            loanRepository.findById(loan.getId()).orElseThrow();
+            return null;
+        });
+
+        assertThat(loads).isEqualTo(1);
+    }
+
+    @Test @DisplayName("returnLoan → carga préstamo, unidad, grupo y tarifa; el cliente no")
+    void returnLoan_entityLoads(){
+        ToolGroupEntity group = group(1);
+        LoanEntity loan = loanService.registerLoan(group.getId(), customer().getId(), LocalDateTime.now().plusDays(3));
+
+        long loads = entityLoads(() -> {
+            loanService.returnLoan(loan.getId(), 0.0, false);
+            return null;
+        });
+
+        assertThat(loads).isLessThanOrEqualTo(4);
+    }
+
+    @Test @DisplayName("GET /kardex → no carga tarifas")
+    void getAllMovements_noTariffs(){
+        for (int i = 0; i < 3; i++) {
+            ToolGroupEntity group = group(2);
+            loanService.registerLoan(group.getId(), customer().getId(), LocalDateTime.now().plusDays(2));
+        }
+
+        statements(kardexMovementService::getAllMovements);
+
+        assertThat(tariffLoads()).isZero();
+    }
+}
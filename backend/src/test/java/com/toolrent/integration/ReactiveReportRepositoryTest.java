@@ -0,0 +1,163 @@
+package com.toolrent.integration;
+
+import com.toolrent.config.StripedLockManager;
+import com.toolrent.coordination.CoordinationConfig;
+import com.toolrent.coordination.InvalidationBus;
+import com.toolrent.dto.KardexMovementRowDTO;
+import com.toolrent.dto.LoanActiveDTO;
+import com.toolrent.entities.CustomerEntity;
+import com.toolrent.entities.KardexMovementEntity;
+import com.toolrent.entities.ToolGroupEntity;
+import com.toolrent.repositories.*;
+import com.toolrent.services.*;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+ * La ruta R2DBC lee la misma base H2 en memoria que JPA (mismo nombre de BD) y debe retornar lo mismo
+ * que ReportService y KardexMovementService: los datos se escriben por JPA y se leen por los dos caminos.
+ */
+@DataJpaTest
+@Import({StripedLockManager.class, CoordinationConfig.class,
+        LoanService.class, ToolGroupService.class, KardexMovementService.class, CustomerService.class,
+        ReportService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReactiveReportRepositoryTest {
+
+    @Autowired private DataSource dataSource;
+    @Autowired private LoanService loanService;
+    @Autowired private ToolGroupService toolGroupService;
+    @Autowired private KardexMovementService kardexMovementService;
+    @Autowired private CustomerService customerService;
+    @Autowired private ReportService reportService;
+
+    @Autowired private KardexMovementRepository kardexMovementRepository;
+    @Autowired private LoanRepository loanRepository;
+    @Autowired private ToolUnitRepository toolUnitRepository;
+    @Autowired private ToolGroupRepository toolGroupRepository;
+    @Autowired private TariffRepository tariffRepository;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private InvalidationBus invalidationBus;
+
+    private ReactiveReportRepository reactive;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // jdbc:h2:mem:<nombre>;... → r2dbc:h2:mem:///<nombre>: el driver R2DBC abre la misma base en memoria
+        String url;
+        try (Connection connection = dataSource.getConnection()) {
+            url = connection.getMetaData().getURL();
+        }
+        String name = url.substring("jdbc:h2:mem:".length()).split(";")[0];
+        reactive = new ReactiveReportRepository(
+                ConnectionFactories.get("r2dbc:h2:mem:///" + name + "?options=DB_CLOSE_DELAY=-1"));
+    }
+
+    @AfterEach
+    void cleanUp(){
+        reactive.close();
+        kardexMovementRepository.deleteAllInBatch();
+        loanRepository.deleteAllInBatch();
+        toolUnitRepository.deleteAllInBatch();
+        toolGroupRepository.deleteAllInBatch();
+        tariffRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        invalidationBus.publish(CustomerService.ENTITY, null); // el cliente "Sistema" queda cacheado entre tests
+    }
+
+    private void seed() {
+        ToolGroupEntity taladro = toolGroupService.registerToolGroup("Taladro", "Eléctricas", 50000.0, 3000.0, 3);
+        ToolGroupEntity sierra = toolGroupService.registerToolGroup("Sierra", "Corte", 80000.0, 4000.0, 2);
+        CustomerEntity ana = customerService.registerCustomer("Ana", "1-9", "+56911111111", "ana@toolrent.com");
+        CustomerEntity luis = customerService.registerCustomer("Luis", "2-7", "+56922222222", "luis@toolrent.com");
+
+        loanService.registerLoan(taladro.getId(), ana.getId(), LocalDateTime.now().plusDays(3));
+        loanService.registerLoan(taladro.getId(), luis.getId(), LocalDateTime.now().plusDays(5));
+        Long returned = loanService.registerLoan(sierra.getId(), ana.getId(), LocalDateTime.now().plusDays(2)).getId();
+        loanService.returnLoan(returned, 0.0, false);
+    }
+
+    /* ====== Reportes ====== */
+
+    @Test @DisplayName("préstamos activos por R2DBC → mismas filas y orden que ReportService")
+    void activeLoans_sameAsJpa(){
+        seed();
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+
+        List<LoanActiveDTO> rows = reactive.findActiveLoansInRange(from, to).collectList().block();
+
+        assertThat(rows).hasSize(2).isEqualTo(reportService.getActiveLoans(from, to));
+    }
+
+    @Test @DisplayName("ranking de herramientas por R2DBC → mismas claves y totales que ReportService")
+    void topTools_sameAsJpa(){
+        seed();
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+
+        List<Map<String, Object>> rows = reactive.countLoansByToolGroupInRange(from, to).collectList().block();
+
+        assertThat(rows).isEqualTo(reportService.getTopTools(from, to));
+        assertThat(rows.get(0)).containsEntry("toolGroupName", "Taladro").containsEntry("total", 2L);
+    }
+
+    @Test @DisplayName("sin datos en el rango → Flux vacío")
+    void activeLoans_empty(){
+        seed();
+        LocalDateTime from = LocalDateTime.now().minusYears(2);
+
+        assertThat(reactive.findActiveLoansInRange(from, from.plusDays(1)).collectList().block()).isEmpty();
+    }
+
+    /* ====== Kardex ====== */
+
+    @Test @DisplayName("kardex completo por R2DBC → mismos movimientos que KardexMovementService, en filas planas")
+    void kardex_sameAsJpa(){
+        seed();
+
+        List<KardexMovementRowDTO> rows = reactive.findKardexMovements().collectList().block();
+
+        assertThat(rows).containsExactlyInAnyOrderElementsOf(
+                kardexMovementService.getAllMovements().stream().map(ReactiveReportRepositoryTest::row).toList());
+    }
+
+    @Test @DisplayName("kardex por rango → solo los movimientos dentro de movementDate")
+    void kardex_range(){
+        seed();
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+
+        assertThat(reactive.findKardexMovementsInRange(from, to).collectList().block())
+                .hasSize(kardexMovementService.findByDateRange(from, to).size());
+        assertThat(reactive.findKardexMovementsInRange(from.minusYears(1), to.minusYears(1)).collectList().block())
+                .isEmpty();
+    }
+
+    private static KardexMovementRowDTO row(KardexMovementEntity movement) {
+        return new KardexMovementRowDTO(
+                movement.getId(),
+                movement.getMovementType().name(),
+                movement.getMovementDate(),
+                movement.getDetails(),
+                movement.getToolUnit().getId(),
+                movement.getToolUnit().getToolGroup().getId(),
+                movement.getToolUnit().getToolGroup().getName(),
+                movement.getCustomer().getId(),
+                movement.getCustomer().getName(),
+                movement.getCustomer().getRut());
+    }
+}
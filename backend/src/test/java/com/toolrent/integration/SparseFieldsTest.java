@@ -0,0 +1,138 @@
+package com.toolrent.integration;
+
+import com.toolrent.config.StripedLockManager;
+import com.toolrent.coordination.CoordinationConfig;
+import com.toolrent.coordination.InvalidationBus;
+import com.toolrent.entities.CustomerStatus;
+import com.toolrent.entities.ToolGroupEntity;
+import com.toolrent.repositories.*;
+import com.toolrent.services.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Listados ?fields=: la consulta trae solo las columnas pedidas y cada fila solo esos campos */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({StripedLockManager.class, CoordinationConfig.class,
+        LoanService.class, ToolGroupService.class, KardexMovementService.class, CustomerService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SparseFieldsTest {
+
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private LoanService loanService;
+    @Autowired private ToolGroupService toolGroupService;
+    @Autowired private KardexMovementService kardexMovementService;
+    @Autowired private CustomerService customerService;
+
+    @Autowired private KardexMovementRepository kardexMovementRepository;
+    @Autowired private LoanRepository loanRepository;
+    @Autowired private ToolUnitRepository toolUnitRepository;
+    @Autowired private ToolGroupRepository toolGroupRepository;
+    @Autowired private TariffRepository tariffRepository;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private InvalidationBus invalidationBus;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp(){
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp(){
+        kardexMovementRepository.deleteAllInBatch();
+        loanRepository.deleteAllInBatch();
+        toolUnitRepository.deleteAllInBatch();
+        toolGroupRepository.deleteAllInBatch();
+        tariffRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        invalidationBus.publish(CustomerService.ENTITY, null); // el cliente "Sistema" queda cacheado entre tests
+    }
+
+    /* ====== Clientes ====== */
+
+    @Test @DisplayName("clientes activos con fields=id,name → filas con solo esos campos")
+    void customers_onlyRequestedFields(){
+        customerService.registerCustomer("Ana", "1-9", "+56911111111", "ana@toolrent.com");
+
+        List<Map<String, Object>> rows = customerService.getCustomersByStatus(CustomerStatus.ACTIVE, List.of("id", "name"));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "name").containsEntry("name", "Ana");
+    }
+
+    @Test @DisplayName("campo desconocido → InvalidFieldsException con los disponibles")
+    void unknownField(){
+        assertThatThrownBy(() -> customerService.getAllCustomers(List.of("id", "password")))
+                .isInstanceOf(SparseView.InvalidFieldsException.class)
+                .hasMessageContaining("password")
+                .hasMessageContaining("email");
+    }
+
+    @Test @DisplayName("fields vacío → InvalidFieldsException")
+    void emptyFields(){
+        assertThatThrownBy(() -> customerService.getAllCustomers(List.of(" ")))
+                .isInstanceOf(SparseView.InvalidFieldsException.class);
+    }
+
+    /* ====== Herramientas ====== */
+
+    @Test @DisplayName("grupos con fields=id,name,tariff → tarifa anidada y una sola sentencia")
+    void toolGroups_nestedPrefix(){
+        toolGroupService.registerToolGroup("Taladro", "Eléctricas", 50000.0, 3000.0, 2);
+
+        statistics.clear();
+        List<Map<String, Object>> rows = toolGroupService.getToolGroupFields(List.of("id", "name", "tariff"), false);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "name", "tariff");
+        assertThat(rows.get(0).get("tariff")).asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsOnlyKeys("id", "dailyRentalRate", "dailyFineRate")
+                .containsEntry("dailyRentalRate", 3000.0);
+    }
+
+    @Test @DisplayName("/tools/available con fields → excluye grupos sin disponibles y cuenta solo si se pide")
+    void toolGroups_available(){
+        ToolGroupEntity loaned = toolGroupService.registerToolGroup("Sierra", "Corte", 40000.0, 2000.0, 1);
+        ToolGroupEntity free = toolGroupService.registerToolGroup("Lijadora", "Eléctricas", 30000.0, 1500.0, 2);
+        loanService.registerLoan(loaned.getId(),
+                customerService.registerCustomer("Beto", "2-7", "+56922222222", "beto@toolrent.com").getId(),
+                LocalDateTime.now().plusDays(2));
+
+        List<Map<String, Object>> rows = toolGroupService.getToolGroupFields(List.of("id", "availableCount"), true);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row).containsEntry("id", free.getId());
+            assertThat(row).containsEntry("availableCount", 2L);
+        });
+    }
+
+    /* ====== Kardex ====== */
+
+    @Test @DisplayName("kardex con fields=movementType,toolUnit.toolGroup.name → misma ruta que el JSON completo")
+    void kardex_nestedPath(){
+        toolGroupService.registerToolGroup("Martillo", "Manuales", 10000.0, 500.0, 1);
+
+        List<Map<String, Object>> rows = kardexMovementService.getAllMovements(
+                List.of("movementType", "toolUnit.toolGroup.name"));
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row).containsOnlyKeys("movementType", "toolUnit");
+            assertThat(row.get("toolUnit")).isEqualTo(Map.of("toolGroup", Map.of("name", "Martillo")));
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.toolrent.services;
 
+import com.toolrent.coordination.InvalidationBus;
 import com.toolrent.entities.CustomerEntity;
 import com.toolrent.entities.CustomerStatus;
 import com.toolrent.repositories.CustomerRepository;
@@ -10,9 +11,11 @@ import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.toolrent.entities.CustomerStatus.*;
@@ -23,6 +26,7 @@ import static org.mockito.Mockito.*;
 class CustomerServiceTest {
 
     @Mock private CustomerRepository customerRepository;
+    @Spy private InvalidationBus invalidationBus = InvalidationBus.localOnly();
     @InjectMocks private CustomerService customerService;
 
     /* ======================================================================
@@ -146,6 +150,43 @@ class CustomerServiceTest {
         verify(customerRepository).save(any());
     }
 
+    @Test @DisplayName("getSystemCustomer – segunda llamada sale de la caché")
+    void getSystem_cached(){
+        CustomerEntity existing = buildCustomer(10L,"Sistema","0-0","000","system@toolrent.com", ACTIVE);
+        when(customerRepository.findByEmail("system@toolrent.com")).thenReturn(Optional.of(existing));
+
+        customerService.getSystemCustomer();
+        CustomerEntity got = customerService.getSystemCustomer();
+
+        assertThat(got).isSameAs(existing);
+        verify(customerRepository, times(1)).findByEmail("system@toolrent.com");
+    }
+
+    @Test @DisplayName("getSystemCustomer – recién creado no se cachea (podría hacer rollback)")
+    void getSystem_createdNotCached(){
+        when(customerRepository.findByEmail("system@toolrent.com")).thenReturn(Optional.empty());
+        when(customerRepository.save(any(CustomerEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        customerService.getSystemCustomer();
+        customerService.getSystemCustomer();
+
+        verify(customerRepository, times(2)).findByEmail("system@toolrent.com");
+    }
+
+    @Test @DisplayName("changeStatus – publica la invalidación → la caché se vuelve a cargar")
+    void changeStatus_invalidatesCache(){
+        CustomerEntity existing = buildCustomer(10L,"Sistema","0-0","000","system@toolrent.com", ACTIVE);
+        when(customerRepository.findByEmail("system@toolrent.com")).thenReturn(Optional.of(existing));
+        when(customerRepository.findById(10L)).thenReturn(Optional.of(existing));
+
+        customerService.getSystemCustomer();
+        customerService.changeStatus(10L, RESTRICTED);
+        customerService.getSystemCustomer();
+
+        verify(invalidationBus).publish(CustomerService.ENTITY, 10L);
+        verify(customerRepository, times(2)).findByEmail("system@toolrent.com");
+    }
+
     /* ======================================================================
             4. Queries – listas vacías / con datos
        ====================================================================== */
@@ -193,6 +234,17 @@ class CustomerServiceTest {
         assertThat(res).isEmpty();
     }
 
+    @Test @DisplayName("getCustomersByStatus con fields – solo las columnas pedidas")
+    void byStatus_fields(){
+        List<Map<String, Object>> rows = List.of(Map.of("id", 1L, "name", "A"));
+        when(customerRepository.findFieldsByStatus(ACTIVE, List.of("id", "name"))).thenReturn(rows);
+
+        List<Map<String, Object>> res = customerService.getCustomersByStatus(ACTIVE, List.of("id", "name"));
+
+        assertThat(res).isSameAs(rows);
+        verify(customerRepository, never()).findByStatus(any());
+    }
+
     /* ======================================================================
                                     Helper
        ====================================================================== */
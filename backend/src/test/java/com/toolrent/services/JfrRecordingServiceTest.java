@@ -0,0 +1,214 @@
+package com.toolrent.services;
+
+import com.toolrent.dto.JfrRecordingDTO;
+import com.toolrent.dto.JfrSummaryDTO;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JfrRecordingServiceTest {
+
+    @TempDir Path directory;
+
+    private JfrRecordingService jfrRecordingService;
+
+    @BeforeEach
+    void setUp(){
+        jfrRecordingService = new JfrRecordingService(directory.toString(), 30, 2);
+    }
+
+    private JfrRecordingDTO awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JfrRecordingDTO recording = jfrRecordingService.find(id).orElseThrow();
+            if (!recording.status().equals("RUNNING")) {
+                return recording;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("La grabación no terminó a tiempo");
+    }
+
+    // Trabajo con asignaciones dentro de com.toolrent para que aparezca en el resumen
+    private static long busyWork(long millis) {
+        long end = System.nanoTime() + millis * 1_000_000;
+        long checksum = 0;
+        while (System.nanoTime() < end) {
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                values.add("v" + i);
+            }
+            checksum += values.hashCode();
+        }
+        return checksum;
+    }
+
+    // Filtro que hace el trabajo él mismo: sin saltarlo, todas las muestras serían suyas
+    private static final class BusyFilter implements Filter {
+        private final long millis;
+
+        private BusyFilter(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) {
+            long end = System.nanoTime() + millis * 1_000_000;
+            while (System.nanoTime() < end) {
+                List<String> values = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    values.add("v" + i);
+                }
+                values.hashCode();
+            }
+        }
+    }
+
+    private static void filteredWork(long millis) throws Exception {
+        new BusyFilter(millis).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    /* ====== start ====== */
+
+    @Test @DisplayName("start → graba, termina sola y deja el .jfr en el directorio")
+    void start_recordsToFile() throws Exception {
+        JfrRecordingDTO started = jfrRecordingService.start("profile", Duration.ofSeconds(1));
+        assertThat(started.status()).isEqualTo("RUNNING");
+
+        busyWork(1200);
+        JfrRecordingDTO done = awaitFinished(started.id());
+
+        assertThat(done.status()).isEqualTo("DONE");
+        assertThat(done.sizeBytes()).isPositive();
+        Path file = jfrRecordingService.file(started.id()).orElseThrow();
+        assertThat(Files.exists(file)).isTrue();
+        assertThat(file.getParent()).isEqualTo(directory);
+    }
+
+    @Test @DisplayName("start con otra grabación en curso → IllegalStateException")
+    void start_onlyOneAtATime(){
+        JfrRecordingDTO first = jfrRecordingService.start("default", Duration.ofSeconds(5));
+        try {
+            assertThatThrownBy(() -> jfrRecordingService.start("default", Duration.ofSeconds(1)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("en curso");
+            assertThat(jfrRecordingService.file(first.id())).isEmpty(); // aún grabando
+        } finally {
+            // deja terminar la grabación para no afectar otros tests
+            assertThatCode(() -> awaitFinished(first.id())).doesNotThrowAnyException();
+        }
+    }
+
+    @Test @DisplayName("start con duración fuera de rango o perfil inexistente → IllegalArgumentException")
+    void start_invalidArguments(){
+        assertThatThrownBy(() -> jfrRecordingService.start("default", Duration.ofSeconds(31)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jfrRecordingService.start("default", Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jfrRecordingService.start("no-existe", Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no-existe");
+        assertThat(jfrRecordingService.list()).isEmpty();
+    }
+
+    /* ====== summary / retención ====== */
+
+    @Test @DisplayName("summary → cuenta muestras y solo lista marcos com.toolrent")
+    void summary_appFramesOnly() throws Exception {
+        JfrRecordingDTO started = jfrRecordingService.start("profile", Duration.ofSeconds(1));
+        busyWork(1200);
+        awaitFinished(started.id());
+
+        JfrSummaryDTO summary = jfrRecordingService.summary(started.id(), 5).orElseThrow();
+
+        assertThat(summary.executionSamples()).isPositive();
+        assertThat(summary.hotMethods()).hasSizeLessThanOrEqualTo(5)
+                .allSatisfy(e -> assertThat(e.frame()).startsWith("com.toolrent."));
+        assertThat(summary.allocationSites())
+                .allSatisfy(e -> assertThat(e.frame()).startsWith("com.toolrent.").contains(" -> "));
+    }
+
+    @Test @DisplayName("summary con un filtro servlet en la pila → la muestra va al método que lo llamó")
+    void summary_skipsFilterFrames() throws Exception {
+        JfrRecordingDTO started = jfrRecordingService.start("profile", Duration.ofSeconds(1));
+        filteredWork(1200);
+        awaitFinished(started.id());
+
+        JfrSummaryDTO summary = jfrRecordingService.summary(started.id(), 10).orElseThrow();
+
+        assertThat(summary.hotMethods()).noneSatisfy(e -> assertThat(e.frame()).contains("BusyFilter"))
+                .anySatisfy(e -> assertThat(e.frame()).contains(".filteredWork:"));
+        assertThat(summary.allocationSites()).noneSatisfy(e -> assertThat(e.frame()).contains("BusyFilter"));
+    }
+
+    @Test @DisplayName("summary de grabación inexistente → vacío")
+    void summary_unknown(){
+        assertThat(jfrRecordingService.summary("x", 5)).isEmpty();
+    }
+
+    @Test @DisplayName("grabación purgada mientras se lee su resumen → vacío, nunca una excepción")
+    void summary_purgedWhileReading() throws Exception {
+        JfrRecordingService single = new JfrRecordingService(directory.toString(), 30, 1);
+        String first = single.start("default", Duration.ofSeconds(1)).id();
+        while (single.find(first).orElseThrow().status().equals("RUNNING")) {
+            Thread.sleep(100);
+        }
+
+        // Lee el resumen en bucle hasta que la grabación desaparece
+        CountDownLatch reading = new CountDownLatch(1);
+        CompletableFuture<Integer> reader = CompletableFuture.supplyAsync(() -> {
+            int reads = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (single.summary(first, 5).isPresent() && System.nanoTime() < deadline) {
+                reads++;
+                reading.countDown();
+            }
+            return reads;
+        });
+        assertThat(reading.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Cada inicio purga lo que excede el máximo; si el primero se estaba leyendo, cae en el siguiente
+        for (int i = 0; i < 3 && single.find(first).isPresent(); i++) {
+            String next = single.start("default", Duration.ofSeconds(1)).id();
+            while (single.find(next).orElseThrow().status().equals("RUNNING")) {
+                Thread.sleep(100);
+            }
+        }
+
+        assertThat(reader.get(25, TimeUnit.SECONDS)).isPositive();
+        assertThat(single.find(first)).isEmpty();
+        assertThat(single.summary(first, 5)).isEmpty();
+    }
+
+    @Test @DisplayName("más grabaciones que el máximo → se borran las más antiguas y su archivo")
+    void retention() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String id = jfrRecordingService.start("default", Duration.ofSeconds(1)).id();
+            awaitFinished(id);
+            ids.add(id);
+        }
+
+        assertThat(jfrRecordingService.list()).extracting(JfrRecordingDTO::id)
+                .containsExactly(ids.get(2), ids.get(1));
+        try (var files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.toolrent.services;
 
 import com.toolrent.config.SecurityConfig;
+import com.toolrent.config.StripedLockManager;
+import com.toolrent.coordination.AdvisoryLocks;
 import com.toolrent.dto.LoanActiveDTO;
 import com.toolrent.entities.*;
 import com.toolrent.repositories.*;
@@ -27,6 +29,8 @@ class LoanServiceTest {
     @Mock private ToolUnitRepository toolUnitRepository;
     @Mock private KardexMovementRepository kardexMovementRepository;
     @Mock private CustomerRepository customerRepository;
+    @Mock private StripedLockManager stripedLockManager;
+    @Mock private AdvisoryLocks advisoryLocks;
 
     @InjectMocks private LoanService loanService;
 
@@ -106,7 +110,10 @@ class LoanServiceTest {
 
             assertThat(res.getId()).isEqualTo(100L);
             assertThat(unit.getStatus()).isEqualTo(ToolStatus.LOANED);
-            verify(toolUnitRepository).save(unit);
+            verify(toolUnitRepository, never()).save(any()); // unidad administrada: sin save redundante
+            verify(stripedLockManager).lockForTransaction(StripedLockManager.customer(customerId),
+                    StripedLockManager.toolGroup(groupId));
+            verify(advisoryLocks).lockForTransaction("customer:" + customerId);
             verify(kardexMovementRepository).save(any(KardexMovementEntity.class));
         }
     }
@@ -218,15 +225,15 @@ class LoanServiceTest {
             /* se entregó hoy y se devuelve hoy → sin multa */
             LoanEntity loan = buildLoan(50L, customer, unit, now.plusHours(1), null);
 
-            when(loanRepository.findById(50L)).thenReturn(Optional.of(loan));
-            when(loanRepository.save(any())).thenReturn(loan);
-            when(toolUnitRepository.save(any())).thenReturn(unit);
+            when(loanRepository.findWithToolUnitById(50L)).thenReturn(Optional.of(loan));
 
             loanService.returnLoan(50L, 0.0, false);
 
             assertThat(loan.getFineAmount()).isZero();
             assertThat(unit.getStatus()).isEqualTo(ToolStatus.AVAILABLE);
             verify(kardexMovementRepository).save(argThat(m -> m.getMovementType() == MovementType.RETURN));
+            verify(loanRepository, never()).save(any());
+            verify(toolUnitRepository, never()).save(any());
         }
     }
 
@@ -239,9 +246,7 @@ class LoanServiceTest {
         /* venció hace 2 días */
         LoanEntity loan = buildLoan(50L, customer, unit, now.minusDays(2), null);
 
-        when(loanRepository.findById(50L)).thenReturn(Optional.of(loan));
-        when(loanRepository.save(any())).thenReturn(loan);
-        when(toolUnitRepository.save(any())).thenReturn(unit);
+        when(loanRepository.findWithToolUnitById(50L)).thenReturn(Optional.of(loan));
 
         loanService.returnLoan(50L, 0.0, false);
 
@@ -258,9 +263,7 @@ class LoanServiceTest {
         CustomerEntity customer = buildCustomer(1L);
         LoanEntity loan = buildLoan(50L, customer, unit, now.minusDays(1), null);
 
-        when(loanRepository.findById(50L)).thenReturn(Optional.of(loan));
-        when(loanRepository.save(any())).thenReturn(loan);
-        when(toolUnitRepository.save(any())).thenReturn(unit);
+        when(loanRepository.findWithToolUnitById(50L)).thenReturn(Optional.of(loan));
 
         loanService.returnLoan(50L, amount, false);
 
@@ -279,9 +282,7 @@ class LoanServiceTest {
             CustomerEntity customer = buildCustomer(1L);
             LoanEntity loan = buildLoan(50L, customer, unit, now.minusDays(1), null);
 
-            when(loanRepository.findById(50L)).thenReturn(Optional.of(loan));
-            when(loanRepository.save(any())).thenReturn(loan);
-            when(toolUnitRepository.save(any())).thenReturn(unit);
+            when(loanRepository.findWithToolUnitById(50L)).thenReturn(Optional.of(loan));
 
             loanService.returnLoan(50L, 0.0, true);
 
@@ -291,9 +292,25 @@ class LoanServiceTest {
         }
     }
 
+    @Test @DisplayName("returnLoan – préstamo ya devuelto → excepción, sin cambios")
+    void returnLoan_alreadyReturned(){
+        ToolGroupEntity group = buildToolGroup(1L, 15000.0);
+        ToolUnitEntity unit = buildUnit(10L, group, ToolStatus.AVAILABLE);
+        LocalDateTime returned = LocalDateTime.now().minusHours(1);
+        LoanEntity loan = buildLoan(50L, buildCustomer(1L), unit, LocalDateTime.now().plusDays(1), returned);
+        when(loanRepository.findWithToolUnitById(50L)).thenReturn(Optional.of(loan));
+
+        assertThatThrownBy(() -> loanService.returnLoan(50L, 0.0, false))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("ya fue devuelto");
+        assertThat(loan.getReturnDate()).isEqualTo(returned);
+        assertThat(unit.getStatus()).isEqualTo(ToolStatus.AVAILABLE);
+        verifyNoInteractions(kardexMovementRepository);
+    }
+
     @Test @DisplayName("returnLoan – préstamo no existe")
     void returnLoan_notFound(){
-        when(loanRepository.findById(99L)).thenReturn(Optional.empty());
+        when(loanRepository.findWithToolUnitById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> loanService.returnLoan(99L, 0.0, false))
                 .isInstanceOf(RuntimeException.class)
@@ -308,8 +325,7 @@ class LoanServiceTest {
     void applyDamage_light(){
         LoanEntity loan = buildLoan(60L, null, null, LocalDateTime.now().minusDays(1), LocalDateTime.now());
         loan.setDamageCharge(0.0);
-        when(loanRepository.findById(60L)).thenReturn(Optional.of(loan));
-        when(loanRepository.save(any())).thenReturn(loan);
+        when(loanRepository.findWithToolUnitById(60L)).thenReturn(Optional.of(loan));
 
         loanService.applyDamage(60L, 300.0, false);
 
@@ -322,21 +338,19 @@ class LoanServiceTest {
         ToolUnitEntity unit = buildUnit(20L, group, ToolStatus.AVAILABLE);
         LoanEntity loan = buildLoan(70L, null, unit, LocalDateTime.now().minusDays(1), LocalDateTime.now());
 
-        when(loanRepository.findById(70L)).thenReturn(Optional.of(loan));
-        when(loanRepository.save(any())).thenReturn(loan);
-        when(toolUnitRepository.save(any())).thenReturn(unit);
+        when(loanRepository.findWithToolUnitById(70L)).thenReturn(Optional.of(loan));
 
         loanService.applyDamage(70L, 0.0, true);
 
         assertThat(loan.getDamageCharge()).isEqualTo(12000.0);
         assertThat(unit.getStatus()).isEqualTo(ToolStatus.RETIRED);
-        verify(toolUnitRepository).save(unit);
+        verify(toolUnitRepository, never()).save(any());
     }
 
     @Test @DisplayName("applyDamage – préstamo no devuelto")
     void applyDamage_notReturned(){
         LoanEntity loan = buildLoan(80L, null, null, LocalDateTime.now().minusDays(1), null);
-        when(loanRepository.findById(80L)).thenReturn(Optional.of(loan));
+        when(loanRepository.findWithToolUnitById(80L)).thenReturn(Optional.of(loan));
 
         assertThatThrownBy(() -> loanService.applyDamage(80L, 100.0, false))
                 .isInstanceOf(RuntimeException.class)
@@ -345,7 +359,7 @@ class LoanServiceTest {
 
     @Test @DisplayName("applyDamage – préstamo no existe")
     void applyDamage_notFound(){
-        when(loanRepository.findById(99L)).thenReturn(Optional.empty());
+        when(loanRepository.findWithToolUnitById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> loanService.applyDamage(99L, 100.0, false))
                 .isInstanceOf(RuntimeException.class)
@@ -362,7 +376,6 @@ class LoanServiceTest {
         loan.setFineAmount(200.0);
         loan.setDamageCharge(300.0);
         when(loanRepository.findById(90L)).thenReturn(Optional.of(loan));
-        when(loanRepository.save(any())).thenReturn(loan);
 
         loanService.payDebts(90L);
 
@@ -0,0 +1,133 @@
+package com.toolrent.services;
+
+import com.toolrent.config.AsyncReads;
+import com.toolrent.dto.CustomerDebtDTO;
+import com.toolrent.dto.LoanActiveDTO;
+import com.toolrent.dto.ReportDashboardDTO;
+import com.toolrent.entities.CustomerEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportDashboardServiceTest {
+
+    @Mock private ReportService reportService;
+    @Mock private EntityManager entityManager;
+    @Mock private Session session;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final LocalDateTime to   = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+    @BeforeEach
+    void setUp(){
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+    }
+
+    private ReportDashboardService service(long timeoutMs) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-report-");
+        AsyncReads asyncReads = new AsyncReads(executor, entityManager, transactionManager, 10000, 5);
+        return new ReportDashboardService(reportService, executor, asyncReads, timeoutMs);
+    }
+
+    @Test @DisplayName("getDashboard – todas las secciones OK")
+    void getDashboard_allSections(){
+        when(reportService.getActiveLoans(from, to)).thenReturn(List.of(mock(LoanActiveDTO.class)));
+        when(reportService.getTopTools(from, to)).thenReturn(List.of(Map.of("total", 3L)));
+        when(reportService.getOverdueCustomers()).thenReturn(List.of(new CustomerEntity()));
+        when(reportService.getCustomersWithDebt(any(LocalDateTime.class))).thenReturn(List.of(mock(CustomerDebtDTO.class)));
+
+        ReportDashboardDTO res = service(2000).getDashboard(from, to);
+
+        assertThat(res.activeLoans()).hasSize(1);
+        assertThat(res.topTools()).hasSize(1);
+        assertThat(res.overdueCustomers()).hasSize(1);
+        assertThat(res.customersWithDebt()).hasSize(1);
+        assertThat(res.errors()).isEmpty();
+        assertThat(res.timings()).containsOnlyKeys(
+                ReportDashboardService.ACTIVE_LOANS, ReportDashboardService.TOP_TOOLS,
+                ReportDashboardService.OVERDUE_CUSTOMERS, ReportDashboardService.CUSTOMERS_WITH_DEBT);
+    }
+
+    @Test @DisplayName("getDashboard – una sección falla → respuesta parcial")
+    void getDashboard_partialFailure(){
+        when(reportService.getActiveLoans(from, to)).thenReturn(List.of());
+        when(reportService.getTopTools(from, to)).thenThrow(new RuntimeException("boom"));
+        when(reportService.getOverdueCustomers()).thenReturn(List.of());
+        when(reportService.getCustomersWithDebt(any(LocalDateTime.class))).thenReturn(List.of());
+
+        ReportDashboardDTO res = service(2000).getDashboard(from, to);
+
+        assertThat(res.topTools()).isNull();
+        assertThat(res.activeLoans()).isEmpty();
+        assertThat(res.errors()).containsEntry(ReportDashboardService.TOP_TOOLS, "boom");
+        assertThat(res.timings()).hasSize(4);
+    }
+
+    @Test @DisplayName("getDashboard – sección lenta → timeout sin bloquear al resto")
+    void getDashboard_sectionTimeout(){
+        when(reportService.getActiveLoans(from, to)).thenReturn(List.of());
+        when(reportService.getTopTools(from, to)).thenReturn(List.of());
+        when(reportService.getOverdueCustomers()).thenAnswer(i -> {
+            Thread.sleep(1000);
+            return List.of();
+        });
+        when(reportService.getCustomersWithDebt(any(LocalDateTime.class))).thenReturn(List.of());
+
+        ReportDashboardDTO res = service(100).getDashboard(from, to);
+
+        assertThat(res.overdueCustomers()).isNull();
+        assertThat(res.errors()).containsKey(ReportDashboardService.OVERDUE_CUSTOMERS);
+        assertThat(res.activeLoans()).isEmpty();
+        assertThat(res.timings().get(ReportDashboardService.OVERDUE_CUSTOMERS)).isLessThan(1000.0);
+        verify(session, timeout(1000)).cancelQuery(); // la consulta lenta se cancela en la BD
+    }
+
+    @Test @DisplayName("getDashboard – cada sección con timeout JDBC de la sección")
+    void getDashboard_sectionQueryTimeout(){
+        when(reportService.getActiveLoans(from, to)).thenReturn(List.of());
+        when(reportService.getTopTools(from, to)).thenReturn(List.of());
+        when(reportService.getOverdueCustomers()).thenReturn(List.of());
+        when(reportService.getCustomersWithDebt(any(LocalDateTime.class))).thenReturn(List.of());
+
+        service(1500).getDashboard(from, to);
+
+        verify(entityManager, times(4)).setProperty("jakarta.persistence.query.timeout", 1500L);
+    }
+
+    @Test @DisplayName("getDashboardAsync – retorna sin esperar a las secciones")
+    void getDashboardAsync_doesNotBlock(){
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.getActiveLoans(from, to)).thenAnswer(i -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(reportService.getTopTools(from, to)).thenReturn(List.of());
+        when(reportService.getOverdueCustomers()).thenReturn(List.of());
+        when(reportService.getCustomersWithDebt(any(LocalDateTime.class))).thenReturn(List.of());
+
+        CompletableFuture<ReportDashboardDTO> future = service(2000).getDashboardAsync(from, to);
+
+        assertThat(future).isNotDone();
+        release.countDown();
+        assertThat(future.join().activeLoans()).isEmpty();
+    }
+}
@@ -0,0 +1,176 @@
+package com.toolrent.services;
+
+import com.toolrent.config.AsyncReads;
+import com.toolrent.dto.LoanActiveDTO;
+import com.toolrent.dto.ReportJobDTO;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock private ReportService reportService;
+    @Mock private EntityManager entityManager;
+    @Mock private Session session;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolTaskExecutor executor;
+    private ReportJobService reportJobService;
+
+    private final LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private final LocalDateTime to   = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp(){
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        AsyncReads asyncReads = new AsyncReads(executor, entityManager, transactionManager, 10000, 5);
+        reportJobService = new ReportJobService(reportService, executor, asyncReads, 30, 60000);
+    }
+
+    @AfterEach
+    void tearDown(){
+        executor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void loginAs(String username, String role) {
+        Jwt jwt = Jwt.withTokenValue(username + "-token")
+                .header("alg", "RS256")
+                .claim("preferred_username", username)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+
+    private ReportJobDTO awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ReportJobDTO job = reportJobService.find(id).orElseThrow();
+            if (!job.status().equals("QUEUED") && !job.status().equals("RUNNING")) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("El trabajo no terminó a tiempo");
+    }
+
+    @Test @DisplayName("submit – ACTIVE_LOANS termina con resultado")
+    void submit_activeLoansDone() throws InterruptedException {
+        List<LoanActiveDTO> data = List.of(mock(LoanActiveDTO.class));
+        when(reportService.getActiveLoans(from, to)).thenReturn(data);
+
+        ReportJobDTO queued = reportJobService.submit(ReportJobService.JobType.ACTIVE_LOANS, from, to);
+        ReportJobDTO done = awaitFinished(queued.id());
+
+        assertThat(done.status()).isEqualTo("DONE");
+        assertThat(done.result()).isEqualTo(data);
+        assertThat(reportJobService.getStats()).containsEntry("completed", 1L);
+    }
+
+    @Test @DisplayName("submit – error en la consulta → FAILED")
+    void submit_failed() throws InterruptedException {
+        when(reportService.getTopTools(from, to)).thenThrow(new RuntimeException("timeout DB"));
+
+        ReportJobDTO queued = reportJobService.submit(ReportJobService.JobType.TOP_TOOLS, from, to);
+        ReportJobDTO res = awaitFinished(queued.id());
+
+        assertThat(res.status()).isEqualTo("FAILED");
+        assertThat(res.error()).isEqualTo("timeout DB");
+    }
+
+    @Test @DisplayName("submit – pool y cola llenos → rechazo y cancelación de trabajo en cola")
+    void submit_rejectedAndCancel() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.getTopTools(from, to)).thenAnswer(i -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.<Map<String, Object>>of();
+        });
+
+        ReportJobDTO running = reportJobService.submit(ReportJobService.JobType.TOP_TOOLS, from, to);
+        ReportJobDTO queued = reportJobService.submit(ReportJobService.JobType.TOP_TOOLS, from, to);
+
+        assertThatThrownBy(() -> reportJobService.submit(ReportJobService.JobType.TOP_TOOLS, from, to))
+                .isInstanceOf(TaskRejectedException.class);
+        assertThat(reportJobService.getStats()).containsEntry("rejected", 1L);
+
+        ReportJobDTO cancelled = reportJobService.cancel(queued.id()).orElseThrow();
+        assertThat(cancelled.status()).isEqualTo("CANCELLED");
+
+        release.countDown();
+        assertThat(awaitFinished(running.id()).status()).isEqualTo("DONE");
+        verify(reportService, times(1)).getTopTools(from, to);
+    }
+
+    @Test @DisplayName("cancel – trabajo en ejecución → consulta cancelada en la BD, sin interrumpir el hilo")
+    void cancel_runningJob_cancelsQuery() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch queryCancelled = new CountDownLatch(1);
+        doAnswer(i -> { queryCancelled.countDown(); return null; }).when(session).cancelQuery();
+        when(reportService.getTopTools(from, to)).thenAnswer(i -> {
+            started.countDown();
+            // como el driver: la consulta vuelve con error al cancelarse, no por interrupción
+            if (!queryCancelled.await(5, TimeUnit.SECONDS) || Thread.currentThread().isInterrupted()) {
+                throw new AssertionError("la consulta no se canceló en la BD");
+            }
+            throw new RuntimeException("Query execution was interrupted");
+        });
+
+        ReportJobDTO job = reportJobService.submit(ReportJobService.JobType.TOP_TOOLS, from, to);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(reportJobService.cancel(job.id()).orElseThrow().status()).isEqualTo("CANCELLED");
+
+        verify(session).cancelQuery();
+        assertThat(awaitFinished(job.id()).status()).isEqualTo("CANCELLED");
+        assertThat(reportJobService.getStats()).containsEntry("cancelled", 1L).containsEntry("failed", 0L);
+    }
+
+    @Test @DisplayName("find / cancel – trabajo de otro usuario → no existe para él, sí para un ADMIN")
+    void find_otherUser(){
+        when(reportService.getActiveLoans(from, to)).thenReturn(List.of());
+        loginAs("ana", "EMPLOYEE");
+        ReportJobDTO job = reportJobService.submit(ReportJobService.JobType.ACTIVE_LOANS, from, to);
+
+        loginAs("luis", "EMPLOYEE");
+        assertThat(reportJobService.find(job.id())).isEmpty();
+        assertThat(reportJobService.cancel(job.id())).isEmpty();
+
+        loginAs("jefa", "ADMIN");
+        assertThat(reportJobService.find(job.id())).isPresent();
+
+        loginAs("ana", "EMPLOYEE");
+        assertThat(reportJobService.find(job.id())).isPresent();
+    }
+
+    @Test @DisplayName("find / cancel – id inexistente")
+    void find_unknownId(){
+        assertThat(reportJobService.find("no-existe")).isEmpty();
+        assertThat(reportJobService.cancel("no-existe")).isEmpty();
+    }
+}
@@ -1,5 +1,6 @@
 package com.toolrent.services;
 
+import com.toolrent.coordination.InvalidationBus;
 import com.toolrent.entities.TariffEntity;
 import com.toolrent.repositories.TariffRepository;
 import org.junit.jupiter.api.*;
@@ -17,6 +18,7 @@ import static org.mockito.Mockito.*;
 class TariffServiceTest {
 
     @Mock private TariffRepository tariffRepository;
+    @Spy private InvalidationBus invalidationBus = InvalidationBus.localOnly();
 
     @InjectMocks private TariffService tariffService;
 
@@ -39,6 +41,7 @@ class TariffServiceTest {
         assertThat(res.getDailyRentalRate()).isEqualTo(1500.0);
         assertThat(res.getDailyFineRate()).isEqualTo(750.0);
         verify(tariffRepository).save(current);
+        verify(invalidationBus).publish(TariffService.ENTITY, 1L);
     }
 
     @Test @DisplayName("updateTariff – no existe → crea nueva con ID 1")
@@ -84,6 +87,32 @@ class TariffServiceTest {
         assertThat(res).isEmpty();
     }
 
+    @Test @DisplayName("getAllTariffs – segunda llamada sale de la caché")
+    void getAllTariffs_cached(){
+        when(tariffRepository.findAll()).thenReturn(List.of(new TariffEntity()));
+
+        tariffService.getAllTariffs();
+        List<TariffEntity> res = tariffService.getAllTariffs();
+
+        assertThat(res).hasSize(1);
+        verify(tariffRepository, times(1)).findAll();
+    }
+
+    @Test @DisplayName("getAllTariffs – updateTariff invalida → se vuelve a leer")
+    void getAllTariffs_invalidatedByUpdate(){
+        TariffEntity current = new TariffEntity();
+        current.setId(1L);
+        when(tariffRepository.findAll()).thenReturn(List.of(current));
+        when(tariffRepository.findById(1L)).thenReturn(Optional.of(current));
+        when(tariffRepository.save(any(TariffEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        tariffService.getAllTariffs();
+        tariffService.updateTariff(1500.0, 750.0);
+        tariffService.getAllTariffs();
+
+        verify(tariffRepository, times(2)).findAll();
+    }
+
     /* ======================================================================
               3. getTariffById – (existe / no existe)
        ====================================================================== */
@@ -1,5 +1,7 @@
 package com.toolrent.services;
 
+import com.toolrent.coordination.InvalidationBus;
+import com.toolrent.dto.ToolGroupSummaryDTO;
 import com.toolrent.entities.*;
 import com.toolrent.repositories.ToolGroupRepository;
 import com.toolrent.repositories.ToolUnitRepository;
@@ -25,6 +27,7 @@ class ToolGroupServiceTest {
     @Mock private ToolGroupRepository toolGroupRepository;
     @Mock private KardexMovementService kardexMovementService;
     @Mock private ToolUnitRepository toolUnitRepository;
+    @Mock private InvalidationBus invalidationBus;
 
     @InjectMocks private ToolGroupService toolGroupService;
 
@@ -44,6 +47,7 @@ class ToolGroupServiceTest {
         assertThat(res.getUnits()).hasSize(3);
         assertThat(res.getUnits()).allMatch(u -> u.getStatus() == ToolStatus.AVAILABLE);
         verify(kardexMovementService).saveRegistryKardex(res, 3);
+        verify(invalidationBus).publish(TariffService.ENTITY, null);
     }
 
 
@@ -181,6 +185,40 @@ class ToolGroupServiceTest {
         assertThat(res).isEmpty();
     }
 
+    /* ======================================================================
+          3b. getToolGroupSummaries / getAvailableToolGroupSummaries
+       ====================================================================== */
+
+    @Test @DisplayName("getToolGroupSummaries – devuelve la proyección del repositorio")
+    void getToolGroupSummaries_ok(){
+        List<ToolGroupSummaryDTO> list = List.of(summary(1L, 2L));
+        when(toolGroupRepository.findAllSummaries()).thenReturn(list);
+
+        List<ToolGroupSummaryDTO> res = toolGroupService.getToolGroupSummaries();
+
+        assertThat(res).isSameAs(list);
+        verify(toolGroupRepository, never()).findAll();
+    }
+
+    @Test @DisplayName("getAvailableToolGroupSummaries – filtra solo con disponibles")
+    void getAvailableToolGroupSummaries_filter(){
+        when(toolGroupRepository.findAllSummaries()).thenReturn(List.of(summary(1L, 1L), summary(2L, 0L)));
+
+        List<ToolGroupSummaryDTO> res = toolGroupService.getAvailableToolGroupSummaries();
+
+        assertThat(res).extracting(ToolGroupSummaryDTO::id).containsExactly(1L);
+    }
+
+    @Test @DisplayName("ToolGroupSummaryDTO – grupo sin unidades (SUM null) → conteos en 0")
+    void toolGroupSummary_nullCounts(){
+        ToolGroupSummaryDTO dto = new ToolGroupSummaryDTO(1L, "Taladro", "Cat", 1000.0,
+                5L, 3000.0, 2500.0, 0L, null, null, null, null);
+
+        assertThat(dto.availableCount()).isZero();
+        assertThat(dto.retiredCount()).isZero();
+        assertThat(dto.tariff().dailyRentalRate()).isEqualTo(3000.0);
+    }
+
     /* ======================================================================
           4. findById
        ====================================================================== */
@@ -218,12 +256,18 @@ class ToolGroupServiceTest {
         ToolGroupEntity res = toolGroupService.save(group);
 
         assertThat(res).isEqualTo(group);
+        verify(invalidationBus).publish(TariffService.ENTITY, null); // la tarifa pudo cambiar
     }
 
     /* ======================================================================
                                       Helpers
        ====================================================================== */
 
+    private ToolGroupSummaryDTO summary(Long id, Long available){
+        return new ToolGroupSummaryDTO(id, "G" + id, "Cat", 1000.0, id, 3000.0, 2500.0,
+                2L, available, 2L - available, 0L, 0L);
+    }
+
     private ToolGroupEntity buildGroupWithUnits(Long id, ToolStatus... statuses){
         ToolGroupEntity g = new ToolGroupEntity();
         g.setId(id);
@@ -1,6 +1,7 @@
 package com.toolrent.services;
 
 import com.toolrent.config.SecurityConfig;
+import com.toolrent.dto.ToolUnitRowDTO;
 import com.toolrent.entities.*;
 import com.toolrent.repositories.LoanRepository;
 import com.toolrent.repositories.ToolUnitRepository;
@@ -286,6 +287,18 @@ class ToolUnitServiceTest {
         assertThat(res).isEmpty();
     }
 
+    @Test @DisplayName("findAllUnitRows – proyección sin entidades")
+    void findAllUnitRows_ok(){
+        List<ToolUnitRowDTO> list = List.of(new ToolUnitRowDTO(1L, ToolStatus.AVAILABLE, 2L, "Taladro", "Eléctricas"));
+        when(toolUnitRepository.findAllRows()).thenReturn(list);
+
+        List<ToolUnitRowDTO> res = toolUnitService.findAllUnitRows();
+
+        assertThat(res).hasSize(1);
+        assertThat(res.get(0).toolGroup().name()).isEqualTo("Taladro");
+        verify(toolUnitRepository, never()).findAllWithToolGroup();
+    }
+
     /* ======================================================================
                   6. save
        ====================================================================== */
@@ -0,0 +1,36 @@
+package com.toolrent.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/*
+ * java -jar target/benchmarks.jar [opciones JMH]
+ * Siempre agrega el profiler GC (gc.alloc.rate.norm = bytes por operación) y guarda el resultado en JSON
+ * en results/jmh-<etiqueta>.json (etiqueta = -Djmh.label, p.ej. el sha del commit) para comparar entre commits.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String label = System.getProperty("jmh.label", "latest");
+        File resultFile = new File("results", "jmh-" + label + ".json");
+        resultFile.getParentFile().mkdirs();
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.getPath())
+                .build();
+
+        new Runner(options).run();
+        System.out.println("Resultados JSON: " + resultFile.getAbsolutePath());
+    }
+}
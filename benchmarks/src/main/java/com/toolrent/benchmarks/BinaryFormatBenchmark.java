@@ -0,0 +1,69 @@
+package com.toolrent.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.toolrent.dto.ToolUnitRowDTO;
+import com.toolrent.entities.KardexMovementEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Codificación de listados grandes según el Accept: JSON, Smile (application/x-jackson-smile) o
+ * CBOR (application/cbor), con el mismo mapper que arma BinaryFormatsConfig. Payloads de GET /kardex
+ * (entidades) y GET /tools/units (ToolUnitRowDTO); los bytes de cada formato se imprimen en el setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"100000"})
+    public int rows;
+
+    private ObjectMapper mapper;
+    private List<KardexMovementEntity> kardex;
+    private List<ToolUnitRowDTO> units;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        mapper = new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        kardex = Fixtures.kardex(rows);
+        units = Fixtures.toolGroups(rows / 25, 25).stream()
+                .flatMap(g -> g.getUnits().stream())
+                .map(Fixtures::unitRow)
+                .toList();
+
+        System.out.printf("%npayload %s: GET /kardex=%,d bytes  GET /tools/units=%,d bytes (%,d filas)%n", format,
+                mapper.writeValueAsBytes(kardex).length, mapper.writeValueAsBytes(units).length, rows);
+    }
+
+    @Benchmark
+    public byte[] kardex() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(kardex);
+    }
+
+    @Benchmark
+    public byte[] units() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(units);
+    }
+}
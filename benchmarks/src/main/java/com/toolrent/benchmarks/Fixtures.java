@@ -0,0 +1,96 @@
+package com.toolrent.benchmarks;
+
+import com.toolrent.dto.ToolGroupSummaryDTO;
+import com.toolrent.dto.ToolUnitRowDTO;
+import com.toolrent.entities.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Datos de prueba en memoria con la misma forma que los que entrega JPA */
+final class Fixtures {
+
+    static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    private Fixtures() {
+    }
+
+    static CustomerEntity customer(long id) {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setId(id);
+        customer.setName("Cliente " + id);
+        customer.setRut(id + "-" + (id % 10));
+        customer.setPhone("+5691234" + id);
+        customer.setEmail("cliente" + id + "@toolrent.com");
+        customer.setStatus(CustomerStatus.ACTIVE);
+        return customer;
+    }
+
+    static TariffEntity tariff(long id) {
+        TariffEntity tariff = new TariffEntity();
+        tariff.setId(id);
+        tariff.setDailyRentalRate(5000.0);
+        tariff.setDailyFineRate(2500.0);
+        return tariff;
+    }
+
+    static List<ToolGroupEntity> toolGroups(int groups, int unitsPerGroup) {
+        List<ToolGroupEntity> result = new ArrayList<>(groups);
+        long unitId = 1;
+        for (long g = 1; g <= groups; g++) {
+            ToolGroupEntity group = new ToolGroupEntity();
+            group.setId(g);
+            group.setName("Herramienta " + g);
+            group.setCategory("Categoria " + (g % 7));
+            group.setReplacementValue(50000.0 + g);
+            group.setTariff(tariff(g));
+            for (int u = 0; u < unitsPerGroup; u++) {
+                ToolUnitEntity unit = new ToolUnitEntity();
+                unit.setId(unitId++);
+                unit.setToolGroup(group);
+                unit.setStatus(ToolStatus.values()[u % ToolStatus.values().length]);
+                group.getUnits().add(unit);
+            }
+            result.add(group);
+        }
+        return result;
+    }
+
+    static List<KardexMovementEntity> kardex(int size) {
+        List<ToolGroupEntity> groups = toolGroups(Math.max(1, size / 20), 20);
+        List<KardexMovementEntity> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ToolGroupEntity group = groups.get(i % groups.size());
+            KardexMovementEntity movement = new KardexMovementEntity();
+            movement.setId((long) i);
+            movement.setToolUnit(group.getUnits().get(i % group.getUnits().size()));
+            movement.setCustomer(customer(i % 500));
+            movement.setMovementType(MovementType.values()[i % MovementType.values().length]);
+            movement.setMovementDate(BASE.plusMinutes(i));
+            movement.setDetails("Préstamo a cliente ID: " + (i % 500) + " - Usuario: emp1");
+            result.add(movement);
+        }
+        return result;
+    }
+
+    /* Lo que devuelve ToolGroupRepository.findAllSummaries para el grupo */
+    static ToolGroupSummaryDTO summary(ToolGroupEntity group) {
+        TariffEntity tariff = group.getTariff();
+        return new ToolGroupSummaryDTO(group.getId(), group.getName(), group.getCategory(),
+                group.getReplacementValue(),
+                new ToolGroupSummaryDTO.Tariff(tariff.getId(), tariff.getDailyRentalRate(), tariff.getDailyFineRate()),
+                group.getUnits().size(), count(group, ToolStatus.AVAILABLE), count(group, ToolStatus.LOANED),
+                count(group, ToolStatus.IN_REPAIR), count(group, ToolStatus.RETIRED));
+    }
+
+    /* Lo que devuelve ToolUnitRepository.findAllRows para la unidad */
+    static ToolUnitRowDTO unitRow(ToolUnitEntity unit) {
+        ToolGroupEntity group = unit.getToolGroup();
+        return new ToolUnitRowDTO(unit.getId(), unit.getStatus(), group.getId(), group.getName(), group.getCategory());
+    }
+
+    private static long count(ToolGroupEntity group, ToolStatus status) {
+        return group.getUnits().stream().map(ToolUnitEntity::getStatus).filter(s -> s == status).count();
+    }
+}
@@ -0,0 +1,77 @@
+package com.toolrent.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.toolrent.dto.ToolGroupSummaryDTO;
+import com.toolrent.entities.KardexMovementEntity;
+import com.toolrent.entities.ToolGroupEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Serialización de grafos de entidades (GET /kardex, y GET /tools antes de ToolGroupSummaryDTO)
+ * contra filas planas con solo las columnas que muestra la tabla.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    public record KardexRow(Long id, String movementType, LocalDateTime movementDate, String details,
+                            Long toolUnitId, String toolGroupName, String customerName) {}
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<ToolGroupEntity> toolGroups;
+    private List<ToolGroupSummaryDTO> toolGroupRows;
+    private List<KardexMovementEntity> kardex;
+    private List<KardexRow> kardexRows;
+
+    @Setup
+    public void setUp() {
+        // Misma configuración base que el ObjectMapper de Spring Boot (JavaTimeModule, fechas ISO)
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        toolGroups = Fixtures.toolGroups(size / 10, 10);
+        toolGroupRows = toolGroups.stream().map(Fixtures::summary).toList();
+
+        kardex = Fixtures.kardex(size);
+        kardexRows = kardex.stream().map(k -> new KardexRow(
+                k.getId(), k.getMovementType().name(), k.getMovementDate(), k.getDetails(),
+                k.getToolUnit().getId(), k.getToolUnit().getToolGroup().getName(),
+                k.getCustomer().getName())).toList();
+    }
+
+    @Benchmark
+    public byte[] toolGroupEntities() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(toolGroups);
+    }
+
+    @Benchmark
+    public byte[] toolGroupRows() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(toolGroupRows);
+    }
+
+    @Benchmark
+    public byte[] kardexEntities() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(kardex);
+    }
+
+    @Benchmark
+    public byte[] kardexRows() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(kardexRows);
+    }
+}
@@ -0,0 +1,107 @@
+package com.toolrent.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.toolrent.config.CachingJwtAuthenticationManager;
+import com.toolrent.config.KeycloakRealmRoleConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Lo que hace la cadena de la API con el Authorization: Bearer de cada petición:
+ * - realmRoles / authentication: conversión de realm_access.roles a authorities (combinación ya internada).
+ * - verifyUncached: firma RS256 + claims + conversión en cada petición (el comportamiento anterior).
+ * - verifyCached: CachingJwtAuthenticationManager con el token ya visto (lo normal: el cliente repite su token).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthorityBenchmark {
+
+    private Jwt jwt;
+    private KeycloakRealmRoleConverter rolesConverter;
+    private JwtAuthenticationConverter authenticationConverter;
+
+    private String token;
+    private JwtAuthenticationProvider provider;
+    private CachingJwtAuthenticationManager cachingManager;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        Instant issuedAt = Instant.now();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("3f1c2a4e-0000-0000-0000-000000000001")
+                .claim("preferred_username", "emp1")
+                .claim("realm_access", Map.of("roles",
+                        List.of("EMPLOYEE", "offline_access", "uma_authorization", "default-roles-toolrent-realm")))
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(300))
+                .build();
+
+        rolesConverter = new KeycloakRealmRoleConverter();
+        authenticationConverter = new JwtAuthenticationConverter();
+        authenticationConverter.setJwtGrantedAuthoritiesConverter(rolesConverter);
+
+        // Token firmado de verdad, con los mismos claims que emite Keycloak
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("bench").generate();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject(jwt.getSubject())
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plus(Duration.ofHours(1)))
+                .claims(c -> c.putAll(Map.of(
+                        "preferred_username", "emp1",
+                        "realm_access", jwt.getClaimAsMap("realm_access"))))
+                .build();
+        token = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).keyId("bench").build(), claims))
+                .getTokenValue();
+
+        provider = new JwtAuthenticationProvider(NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build());
+        provider.setJwtAuthenticationConverter(authenticationConverter);
+        cachingManager = new CachingJwtAuthenticationManager(provider, 10_000, Duration.ofMinutes(5),
+                Clock.systemUTC());
+        cachingManager.authenticate(new BearerTokenAuthenticationToken(token)); // primera petición del cliente
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> realmRoles() {
+        return rolesConverter.convert(jwt);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken authentication() {
+        return authenticationConverter.convert(jwt);
+    }
+
+    @Benchmark
+    public Authentication verifyUncached() {
+        return provider.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+
+    @Benchmark
+    public Authentication verifyCached() {
+        return cachingManager.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+}
@@ -0,0 +1,31 @@
+package com.toolrent.benchmarks;
+
+import com.toolrent.dto.LoanActiveDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/* Construcción del DTO que arman las consultas JPQL "new LoanActiveDTO(...)" */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanActiveDtoBenchmark {
+
+    private final LocalDateTime loanDate = Fixtures.BASE;
+    private final LocalDateTime dueDate = Fixtures.BASE.plusDays(7);
+    private final LocalDateTime returnDate = Fixtures.BASE.plusDays(9);
+
+    @Benchmark
+    public LoanActiveDTO activeLoan() {
+        return new LoanActiveDTO(1L, "Cliente 1", "Taladro", loanDate, dueDate, null, 0.0, 0.0);
+    }
+
+    @Benchmark
+    public LoanActiveDTO returnedLoan() {
+        return new LoanActiveDTO(1L, "Cliente 1", "Taladro", loanDate, dueDate, returnDate, 5000.0, 0.0);
+    }
+}
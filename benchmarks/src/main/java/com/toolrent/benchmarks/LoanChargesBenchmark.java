@@ -0,0 +1,36 @@
+package com.toolrent.benchmarks;
+
+import com.toolrent.services.LoanCharges;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/* Costo de arriendo (LoanService.calculateTotalCost) y multa por atraso (returnLoan) */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanChargesBenchmark {
+
+    private final LocalDateTime now = Fixtures.BASE;
+    private final LocalDateTime due = Fixtures.BASE.plusDays(7).plusHours(3);
+    private final LocalDateTime lateReturn = due.plusDays(4).plusHours(2);
+
+    @Benchmark
+    public double rentalCost() {
+        return LoanCharges.rentalCost(5000.0, now, due);
+    }
+
+    @Benchmark
+    public double lateFine() {
+        return LoanCharges.lateFine(due, lateReturn, 2500.0);
+    }
+
+    @Benchmark
+    public double lateFineOnTime() {
+        return LoanCharges.lateFine(due, now, 2500.0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.toolrent.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.toolrent.dto.ToolGroupSummaryDTO;
+import com.toolrent.dto.ToolUnitRowDTO;
+import com.toolrent.entities.ToolGroupEntity;
+import com.toolrent.entities.ToolUnitEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * GET /tools y GET /tools/units con un inventario grande: respuesta como grafo de entidades (antes)
+ * contra ToolGroupSummaryDTO / ToolUnitRowDTO (ahora). El tamaño de cada respuesta se imprime
+ * en el setup ("payload ... bytes") y queda en la salida del fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ToolCatalogPayloadBenchmark {
+
+    private static final int UNITS_PER_GROUP = 25;
+
+    @Param({"50000"})
+    public int units;
+
+    private ObjectMapper mapper;
+    private List<ToolGroupEntity> toolGroups;
+    private List<ToolGroupSummaryDTO> toolGroupSummaries;
+    private List<ToolUnitEntity> toolUnits;
+    private List<ToolUnitRowDTO> toolUnitRows;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        toolGroups = Fixtures.toolGroups(units / UNITS_PER_GROUP, UNITS_PER_GROUP);
+        toolGroupSummaries = toolGroups.stream().map(Fixtures::summary).toList();
+        toolUnits = toolGroups.stream().flatMap(g -> g.getUnits().stream()).toList();
+        toolUnitRows = toolUnits.stream().map(Fixtures::unitRow).toList();
+
+        System.out.printf("%npayload GET /tools       entidades=%,d bytes  dto=%,d bytes%n",
+                mapper.writeValueAsBytes(toolGroups).length, mapper.writeValueAsBytes(toolGroupSummaries).length);
+        System.out.printf("payload GET /tools/units entidades=%,d bytes  dto=%,d bytes%n",
+                mapper.writeValueAsBytes(toolUnits).length, mapper.writeValueAsBytes(toolUnitRows).length);
+    }
+
+    @Benchmark
+    public byte[] toolsEntities() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(toolGroups);
+    }
+
+    @Benchmark
+    public byte[] toolsSummaries() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(toolGroupSummaries);
+    }
+
+    @Benchmark
+    public byte[] unitsEntities() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(toolUnits);
+    }
+
+    @Benchmark
+    public byte[] unitsRows() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(toolUnitRows);
+    }
+}
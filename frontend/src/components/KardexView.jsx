@@ -79,7 +79,7 @@ const KardexView = () => {
 
   const loadTools = async () => {
     try {
-      const res = await toolGroupService.getAll();
+      const res = await toolGroupService.getAll("id,name,category");
       const data = res.data || res; // Compatible con ambos formatos
       setTools(data);
     } catch (error) {
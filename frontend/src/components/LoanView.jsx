@@ -100,7 +100,7 @@ const LoanView = () => {
 
   const loadCustomers = async () => {
     try {
-      const res = await customerService.getActive();
+      const res = await customerService.getActive("id,name,rut");
       const data = res.data || res || [];
       setCustomers(Array.isArray(data) ? data.filter(c => c.name !== "Sistema") : []);
     } catch (error) {
@@ -111,7 +111,7 @@ const LoanView = () => {
 
   const loadTools = async () => {
     try {
-      const res = await toolGroupService.getAvailable();
+      const res = await toolGroupService.getAvailable("id,name,category");
       const data = res.data || res || [];
       setTools(Array.isArray(data) ? data : []);
     } catch (error) {
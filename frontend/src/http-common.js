@@ -1,5 +1,6 @@
 import axios from "axios";
 import keycloak from "./services/keycloak";
+import { decodeCbor, looksLikeCborContainer } from "./services/cbor";
 
 const toolrentBackendServer = import.meta.env.VITE_TOOLRENT_BACKEND_SERVER;
 const toolrentBackendPort = import.meta.env.VITE_TOOLRENT_BACKEND_PORT;
@@ -24,4 +25,47 @@ api.interceptors.request.use(async (config) => {
   return Promise.reject(error);
 });
 
+// Opcional: VITE_TOOLRENT_BINARY=cbor pide los GET en CBOR (listados grandes: menos bytes y parseo más barato).
+// Los componentes siguen recibiendo objetos en response.data.
+const binaryResponses = import.meta.env.VITE_TOOLRENT_BINARY === "cbor";
+
+const decodeBody = (response) => {
+  const { data, headers, status } = response;
+  if (!(data instanceof ArrayBuffer)) return data;
+  const type = String(headers["content-type"] || "");
+  // Un ResponseEntity<String> de error puede venir etiquetado como cbor pero con texto plano
+  if (type.includes("application/cbor") && (status < 400 || looksLikeCborContainer(data))) {
+    return decodeCbor(data);
+  }
+  const text = new TextDecoder().decode(data);
+  if (type.includes("json")) {
+    try {
+      return JSON.parse(text);
+    } catch {
+      return text;
+    }
+  }
+  return text;
+};
+
+if (binaryResponses) {
+  api.interceptors.request.use((config) => {
+    if ((config.method || "get").toLowerCase() === "get" && !config.responseType) {
+      config.headers.Accept = "application/cbor, application/json;q=0.9";
+      config.responseType = "arraybuffer";
+    }
+    return config;
+  });
+
+  api.interceptors.response.use((response) => {
+    response.data = decodeBody(response);
+    return response;
+  }, (error) => {
+    if (error.response) {
+      error.response.data = decodeBody(error.response);
+    }
+    return Promise.reject(error);
+  });
+}
+
 export default api;
\ No newline at end of file
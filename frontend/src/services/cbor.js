@@ -0,0 +1,118 @@
+// Decodificador CBOR (RFC 8949) para las respuestas del backend (Accept: application/cbor).
+// Cubre lo que escribe Jackson: enteros, float16/32/64, texto, bytes, arrays y mapas
+// (también de largo indefinido), true/false/null. Las etiquetas (tags) se ignoran y se devuelve el valor.
+
+const BREAK = Symbol("break");
+
+const half = (h) => {
+  const sign = h & 0x8000 ? -1 : 1;
+  const exp = (h & 0x7c00) >> 10;
+  const frac = h & 0x03ff;
+  if (exp === 0) return sign * 2 ** -14 * (frac / 1024);
+  if (exp === 31) return frac ? NaN : sign * Infinity;
+  return sign * 2 ** (exp - 15) * (1 + frac / 1024);
+};
+
+export function decodeCbor(buffer) {
+  const bytes = buffer instanceof Uint8Array ? buffer : new Uint8Array(buffer);
+  const view = new DataView(bytes.buffer, bytes.byteOffset, bytes.byteLength);
+  const utf8 = new TextDecoder();
+  let offset = 0;
+
+  const length = (info) => {
+    let value;
+    if (info < 24) return info;
+    switch (info) {
+      case 24: value = view.getUint8(offset); offset += 1; return value;
+      case 25: value = view.getUint16(offset); offset += 2; return value;
+      case 26: value = view.getUint32(offset); offset += 4; return value;
+      case 27:
+        value = view.getBigUint64(offset);
+        offset += 8;
+        return value <= BigInt(Number.MAX_SAFE_INTEGER) ? Number(value) : value;
+      case 31: return -1; // largo indefinido, termina con BREAK
+      default: throw new Error(`CBOR inválido: info ${info} en ${offset - 1}`);
+    }
+  };
+
+  const slice = (size) => {
+    const part = bytes.subarray(offset, offset + size);
+    offset += size;
+    return part;
+  };
+
+  // Texto o bytes de largo indefinido: trozos definidos hasta BREAK
+  const chunks = () => {
+    const parts = [];
+    for (let part = item(); part !== BREAK; part = item()) parts.push(part);
+    return parts;
+  };
+
+  const simple = (info) => {
+    let value;
+    switch (info) {
+      case 20: return false;
+      case 21: return true;
+      case 22: return null;
+      case 23: return undefined;
+      case 25: value = half(view.getUint16(offset)); offset += 2; return value;
+      case 26: value = view.getFloat32(offset); offset += 4; return value;
+      case 27: value = view.getFloat64(offset); offset += 8; return value;
+      case 31: return BREAK;
+      default: throw new Error(`CBOR: valor simple ${info} no soportado`);
+    }
+  };
+
+  function item() {
+    const initial = view.getUint8(offset++);
+    const major = initial >> 5;
+    const info = initial & 0x1f;
+    if (major === 7) return simple(info);
+
+    const size = length(info);
+    switch (major) {
+      case 0:
+        return size;
+      case 1:
+        return typeof size === "bigint" ? -1n - size : -1 - size;
+      case 2:
+        if (size >= 0) return slice(size);
+        return chunks().reduce((all, part) => {
+          const joined = new Uint8Array(all.length + part.length);
+          joined.set(all);
+          joined.set(part, all.length);
+          return joined;
+        }, new Uint8Array(0));
+      case 3:
+        return size >= 0 ? utf8.decode(slice(size)) : chunks().join("");
+      case 4: {
+        const array = [];
+        if (size >= 0) {
+          for (let i = 0; i < size; i++) array.push(item());
+        } else {
+          for (let value = item(); value !== BREAK; value = item()) array.push(value);
+        }
+        return array;
+      }
+      case 5: {
+        const object = {};
+        if (size >= 0) {
+          for (let i = 0; i < size; i++) object[item()] = item();
+        } else {
+          for (let key = item(); key !== BREAK; key = item()) object[key] = item();
+        }
+        return object;
+      }
+      default: // 6: etiqueta
+        return item();
+    }
+  }
+
+  return item();
+}
+
+// Un arreglo o mapa CBOR (lo que envía Jackson); los mensajes de error del backend llegan como texto plano
+export const looksLikeCborContainer = (buffer) => {
+  const first = new Uint8Array(buffer)[0];
+  return first !== undefined && (first >> 5 === 4 || first >> 5 === 5);
+};
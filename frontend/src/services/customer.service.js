@@ -16,7 +16,8 @@ const changeStatus = (id, newStatus) => {
   });
 };
 
-const getActive = () => api.get("/customers/active"); 
+// fields (opcional): "id,name,rut" → el backend responde solo esas columnas
+const getActive = (fields) => api.get("/customers/active", { params: { fields } });
 
 const payDebt = (customerId, amount) =>
   api.put(`/customers/${customerId}/pay-debt`, null, { params: { amount } });
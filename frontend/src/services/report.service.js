@@ -10,5 +10,17 @@ const customersWithDebt = () => api.get("/reports/customers-with-debt");
 
 const overdueCustomers = () => api.get("/reports/overdue-customers");
 
+// Los cuatro reportes en una sola llamada (secciones con error vienen en null + errors)
+const dashboard = (from, to) => api.get("/reports/dashboard", {
+  params: { from, to }
+});
+
+// Trabajos asíncronos para rangos amplios (type: ACTIVE_LOANS | TOP_TOOLS)
+const submitJob = (type, from, to) => api.post("/reports/jobs", null, {
+  params: { type, from, to }
+});
+const getJob = (id) => api.get(`/reports/jobs/${id}`);
+const cancelJob = (id) => api.delete(`/reports/jobs/${id}`);
+
 
-export default { activeLoans, overdueCustomers, customersWithDebt, topTools };
\ No newline at end of file
+export default { activeLoans, overdueCustomers, customersWithDebt, topTools, dashboard, submitJob, getJob, cancelJob };
@@ -1,13 +1,14 @@
 import api from "../http-common";
 
-const getAll = () => api.get("/tools");
+// fields (opcional): "id,name,category" → el backend responde solo esas columnas
+const getAll = (fields) => api.get("/tools", { params: { fields } });
 
 const register = (name, category, replacementValue, pricePerDay, stock) =>
   api.post("/tools", null, {
     params: { name, category, replacementValue, pricePerDay, stock },
   });
 
-const getAvailable = () => api.get("/tools/available");
+const getAvailable = (fields) => api.get("/tools/available", { params: { fields } });
 
 const updateTariff = (toolGroupId, dailyRentalRate, dailyFineRate) =>
   api.put(`/tools/${toolGroupId}/tariff`, null, {
@@ -0,0 +1,33 @@
+package com.toolrent.loadtest;
+
+import com.toolrent.services.CustomerService;
+import com.toolrent.services.ToolGroupService;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* Carga inicial mínima a través de los servicios reales del backend */
+public class DataSeeder {
+
+    public record Seed(List<Long> customerIds, List<Long> toolGroupIds) {}
+
+    public static Seed seed(ApplicationContext context, LoadConfig config) {
+        CustomerService customerService = context.getBean(CustomerService.class);
+        ToolGroupService toolGroupService = context.getBean(ToolGroupService.class);
+
+        List<Long> customerIds = new ArrayList<>(config.customers());
+        for (int i = 1; i <= config.customers(); i++) {
+            customerIds.add(customerService.registerCustomer(
+                    "Cliente " + i, "LT-" + i, "+569" + (10000000 + i), "cliente" + i + "@loadtest.local").getId());
+        }
+
+        List<Long> toolGroupIds = new ArrayList<>(config.toolGroups());
+        for (int g = 1; g <= config.toolGroups(); g++) {
+            toolGroupIds.add(toolGroupService.registerToolGroup(
+                    "Herramienta " + g, "Categoria " + (g % 12), 40000.0 + g * 100, 3000.0 + g * 10,
+                    config.unitsPerGroup()).getId());
+        }
+        return new Seed(customerIds, toolGroupIds);
+    }
+}
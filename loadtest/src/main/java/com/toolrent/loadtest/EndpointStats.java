@@ -0,0 +1,95 @@
+package com.toolrent.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Latencias (µs, corregidas por omisión coordinada: se mide desde la llegada programada) y resultados */
+public class EndpointStats {
+
+    private static final long MAX_LATENCY_US = TimeUnit.MINUTES.toMicros(2);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_US, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder(); // 4xx: regla de negocio o sin datos
+    private final LongAdder errors = new LongAdder();   // 5xx o excepción de red
+    private final LongAdder dropped = new LongAdder();  // no enviado: límite de peticiones en vuelo
+    private Histogram result;
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void record(long intendedStartNanos, int status) {
+        long latencyUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+        recorder.recordValue(Math.min(latencyUs, MAX_LATENCY_US));
+        if (status >= 200 && status < 300) {
+            ok.increment();
+        } else if (status >= 400 && status < 500) {
+            rejected.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    public void recordError(long intendedStartNanos) {
+        record(intendedStartNanos, -1);
+    }
+
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    // Descarta lo medido durante el calentamiento
+    public void reset() {
+        recorder.getIntervalHistogram();
+        ok.reset();
+        rejected.reset();
+        errors.reset();
+        dropped.reset();
+    }
+
+    public long okCount() {
+        return ok.sum();
+    }
+
+    public Histogram finish() {
+        result = recorder.getIntervalHistogram();
+        return result;
+    }
+
+    public String summaryLine(double seconds) {
+        Histogram h = result;
+        return String.format("%-22s %8d %8.1f %7d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f",
+                name, h.getTotalCount(), h.getTotalCount() / seconds,
+                rejected.sum(), errors.sum(), dropped.sum(),
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+    }
+
+    public static String summaryHeader() {
+        return String.format("%-22s %8s %8s %7s %7s %7s %9s %9s %9s %9s %9s",
+                "endpoint", "count", "req/s", "4xx", "err", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    /* Distribución de percentiles en formato .hgrm (valores en ms) */
+    public void writeHgrm(Path dir) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(dir.resolve(name.replaceAll("[^a-zA-Z0-9-]", "_") + ".hgrm").toFile())) {
+            result.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
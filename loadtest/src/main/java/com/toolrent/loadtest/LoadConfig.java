@@ -0,0 +1,73 @@
+package com.toolrent.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Parámetros --clave=valor. Las tasas son llegadas por segundo (modelo abierto):
+ * --rate.checkout=20 --rate.return=15 --rate.tools=30 --rate.kardex=5 --rate.reports=5
+ * Los argumentos --spring.* se pasan tal cual al backend embebido.
+ */
+public record LoadConfig(Duration duration,
+                         Duration warmup,
+                         Map<Operation, Double> rates,
+                         int customers,
+                         int toolGroups,
+                         int unitsPerGroup,
+                         int maxInFlight,
+                         int sessionClients,
+                         String outputDir,
+                         List<String> backendArgs) {
+
+    public enum Operation {
+        CHECKOUT("checkout", 20),       // POST /loans
+        RETURN("return", 15),           // PUT /loans/{id}/return
+        TOOLS("tools", 30),             // GET /tools/available
+        KARDEX("kardex", 5),            // GET /kardex
+        REPORTS("reports", 5),          // GET /reports/* (rotativo)
+        KARDEX_STREAM("kardex-stream", 0); // GET /kardex/stream (R2DBC, ver LoadTestMain)
+
+        final String key;
+        final double defaultRate;
+
+        Operation(String key, double defaultRate) {
+            this.key = key;
+            this.defaultRate = defaultRate;
+        }
+    }
+
+    public static LoadConfig parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> backendArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--spring.") || arg.startsWith("--server.") || arg.startsWith("--toolrent.")) {
+                backendArgs.add(arg);
+            } else if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else {
+                throw new IllegalArgumentException("Argumento no reconocido: " + arg);
+            }
+        }
+
+        Map<Operation, Double> rates = new LinkedHashMap<>();
+        for (Operation op : Operation.values()) {
+            rates.put(op, Double.parseDouble(options.getOrDefault("rate." + op.key, String.valueOf(op.defaultRate))));
+        }
+
+        return new LoadConfig(
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                rates,
+                Integer.parseInt(options.getOrDefault("customers", "2000")),
+                Integer.parseInt(options.getOrDefault("tool-groups", "200")),
+                Integer.parseInt(options.getOrDefault("units-per-group", "50")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "2000")),
+                Integer.parseInt(options.getOrDefault("session-clients", "0")),
+                options.getOrDefault("output", "results"),
+                backendArgs);
+    }
+}
@@ -0,0 +1,133 @@
+package com.toolrent.loadtest;
+
+import com.toolrent.ToolrentApplication;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/*
+ * java -jar loadtest/target/loadtest.jar --duration=120 --rate.checkout=50 --rate.reports=10
+ * Levanta el backend real contra H2 en modo MySQL, con un emisor JWT local en lugar de Keycloak,
+ * siembra datos, aplica la mezcla de carga y escribe un resumen + un .hgrm por endpoint.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        StubJwtIssuer issuer = new StubJwtIssuer();
+
+        List<String> backendArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.toolrent=INFO",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--springdoc.api-docs.enabled=false",
+                "--springdoc.swagger-ui.enabled=false"));
+        // Se mide la capacidad del backend, no los límites por usuario (10 tokens a 5 reportes/s darían 429)
+        if (config.backendArgs().stream().noneMatch(arg -> arg.startsWith("--toolrent.admission.enabled="))) {
+            backendArgs.add("--toolrent.admission.enabled=false");
+        }
+        // El stream del kardex lee la misma base H2 por R2DBC; las escrituras siguen por JDBC/JPA
+        if (config.rates().get(LoadConfig.Operation.KARDEX_STREAM) > 0) {
+            backendArgs.add("--toolrent.reactive.enabled=true");
+            backendArgs.add("--toolrent.reactive.url=r2dbc:h2:mem:///loadtest"
+                    + "?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        }
+        backendArgs.addAll(config.backendArgs()); // permite p.ej. --spring.threads.virtual.enabled=true
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ToolrentApplication.class)
+                .initializers(ctx -> {
+                    // Beans propios → el autoconfig de OAuth2 no intenta contactar al issuer de Keycloak
+                    ctx.getBeanFactory().registerSingleton("jwtDecoder", issuer.decoder());
+                    ctx.getBeanFactory().registerSingleton("clientRegistrationRepository", issuer.clientRegistrations());
+                })
+                .run(backendArgs.toArray(String[]::new))) {
+
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            System.out.println("Backend embebido en el puerto " + port + ", sembrando datos...");
+            DataSeeder.Seed seed = DataSeeder.seed(context, config);
+
+            List<String> tokens = IntStream.rangeClosed(1, 10)
+                    .mapToObj(i -> issuer.issue("clerk" + i, List.of("ADMIN", "EMPLOYEE"), Duration.ofHours(4)))
+                    .toList();
+
+            // Commits y sentencias del backend durante la medición (hibernate.generate_statistics está activo)
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+            // Pico de hilos de la JVM durante la medición: compara /kardex (JDBC) con /kardex/stream (R2DBC)
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            List<EndpointStats> results = new Workload(config, "http://localhost:" + port, seed, tokens)
+                    .run(() -> {
+                        statistics.clear();
+                        threads.resetPeakThreadCount();
+                    });
+
+            // Sesiones HTTP y heap por cliente (cadena de la API sin estado)
+            List<String> extra = new ArrayList<>();
+            extra.add("Hilos JVM: pico " + threads.getPeakThreadCount() + ", al terminar " + threads.getThreadCount());
+            if (config.sessionClients() > 0) {
+                System.out.println("Midiendo sesiones con " + config.sessionClients() + " clientes...");
+                extra.add(new SessionProbe("http://localhost:" + port, issuer,
+                        ((ServletWebServerApplicationContext) context).getWebServer()).run(config.sessionClients()));
+            }
+            report(config, results, statistics, extra);
+        }
+    }
+
+    private static void report(LoadConfig config, List<EndpointStats> results, Statistics statistics,
+                               List<String> extra) throws IOException {
+        Path dir = Path.of(config.outputDir(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Files.createDirectories(dir);
+
+        double seconds = config.duration().toMillis() / 1000.0;
+        try (PrintStream summary = new PrintStream(dir.resolve("summary.txt").toFile())) {
+            for (PrintStream out : List.of(System.out, summary)) {
+                out.println("Tasas (req/s): " + config.rates());
+                out.println(EndpointStats.summaryHeader());
+                results.forEach(r -> out.println(r.summaryLine(seconds)));
+                out.println(databaseLine(results, statistics));
+                extra.forEach(out::println);
+            }
+        }
+        for (EndpointStats result : results) {
+            result.writeHgrm(dir);
+        }
+        System.out.println("Resultados en " + dir.toAbsolutePath());
+    }
+
+    /*
+     * Transacciones (= commits, y en MySQL/InnoDB con innodb_flush_log_at_trx_commit=1 un fsync del redo log
+     * cada una) y sentencias por request exitoso. Para aislar checkout/return, correr con las tasas de
+     * lectura en 0.
+     */
+    private static String databaseLine(List<EndpointStats> results, Statistics statistics) {
+        long ok = results.stream().mapToLong(EndpointStats::okCount).sum();
+        long transactions = statistics.getTransactionCount();
+        long statements = statistics.getPrepareStatementCount();
+        return String.format("BD: %d transacciones (%d commits), %d sentencias; por request OK: %.2f tx, %.2f sentencias",
+                transactions, statistics.getSuccessfulTransactionCount(), statements,
+                ok == 0 ? 0.0 : (double) transactions / ok, ok == 0 ? 0.0 : (double) statements / ok);
+    }
+}
@@ -0,0 +1,113 @@
+package com.toolrent.loadtest;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.Context;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.WebServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * --session-clients=10000: N clientes distintos (token propio, sin cookies) hacen una llamada válida a la API y
+ * otra con un token vencido (el 401 es lo que antes guardaba la petición en una sesión para redirigir al login).
+ * Reporta sesiones HTTP activas en Tomcat y heap retenido después de GC, total y por cliente.
+ * Para comparar con la cadena de seguridad anterior, correr lo mismo sobre ese commit.
+ */
+public class SessionProbe {
+
+    private static final int THREADS = 32;
+
+    private final String baseUrl;
+    private final StubJwtIssuer issuer;
+    private final WebServer webServer;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build(); // sin CookieHandler: cada petición llega como un cliente nuevo
+
+    public SessionProbe(String baseUrl, StubJwtIssuer issuer, WebServer webServer) {
+        this.baseUrl = baseUrl;
+        this.issuer = issuer;
+        this.webServer = webServer;
+    }
+
+    public String run(int clients) throws InterruptedException {
+        long sessionsBefore = activeSessions();
+        long heapBefore = retainedHeap();
+
+        AtomicLong ok = new AtomicLong();
+        AtomicLong unauthorized = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Void>> calls = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                String username = "probe" + i;
+                calls.add(() -> {
+                    if (send(issuer.issue(username, List.of("EMPLOYEE"), Duration.ofMinutes(30))) == 200) {
+                        ok.incrementAndGet();
+                    }
+                    if (send(issuer.issue(username, List.of("EMPLOYEE"), Duration.ofMinutes(-10))) == 401) {
+                        unauthorized.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            pool.invokeAll(calls);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long sessions = activeSessions() - sessionsBefore;
+        long heap = Math.max(0, retainedHeap() - heapBefore);
+        return String.format("Sesiones: %d clientes (%d OK, %d 401) → %d sesiones HTTP nuevas, heap retenido +%.1f MB " +
+                        "(%.2f KB por cliente, %.1f MB por 10k)",
+                clients, ok.get(), unauthorized.get(), sessions, heap / 1048576.0,
+                heap / 1024.0 / clients, heap / 1048576.0 * 10_000 / clients);
+    }
+
+    private int send(String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/tools/available"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception ex) {
+            return -1;
+        }
+    }
+
+    private long activeSessions() {
+        if (!(webServer instanceof TomcatWebServer tomcat)) {
+            return -1;
+        }
+        long total = 0;
+        for (Container child : tomcat.getTomcat().getHost().findChildren()) {
+            if (child instanceof Context context && context.getManager() != null) {
+                total += context.getManager().getActiveSessions();
+            }
+        }
+        return total;
+    }
+
+    // Heap usado después de forzar GC: aproxima lo retenido (sesiones incluidas) y no la basura pendiente
+    private static long retainedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
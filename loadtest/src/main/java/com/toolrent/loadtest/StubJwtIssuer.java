@@ -0,0 +1,74 @@
+package com.toolrent.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/* Reemplaza a Keycloak: firma tokens con una llave RSA local y entrega el decoder que la valida */
+public class StubJwtIssuer {
+
+    static final String ISSUER = "http://loadtest/realms/toolrent-realm";
+
+    private final RSAKey rsaKey;
+    private final JwtEncoder encoder;
+
+    public StubJwtIssuer() {
+        try {
+            this.rsaKey = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("No se pudo generar la llave RSA", ex);
+        }
+        this.encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)));
+    }
+
+    public String issue(String username, List<String> roles, Duration ttl) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .subject(username)
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim("preferred_username", username)
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId(rsaKey.getKeyID()).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    public JwtDecoder decoder() {
+        try {
+            return NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /* Registro OAuth2 mínimo para que oauth2Login no consulte el issuer real al arrancar */
+    public ClientRegistrationRepository clientRegistrations() {
+        ClientRegistration keycloak = ClientRegistration.withRegistrationId("keycloak")
+                .clientId("toolrent-backend")
+                .clientSecret("loadtest")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .scope("openid")
+                .authorizationUri(ISSUER + "/protocol/openid-connect/auth")
+                .tokenUri(ISSUER + "/protocol/openid-connect/token")
+                .jwkSetUri(ISSUER + "/protocol/openid-connect/certs")
+                .userNameAttributeName("preferred_username")
+                .build();
+        return new InMemoryClientRegistrationRepository(keycloak);
+    }
+}
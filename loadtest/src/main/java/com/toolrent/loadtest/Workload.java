@@ -0,0 +1,176 @@
+package com.toolrent.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toolrent.loadtest.LoadConfig.Operation;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Modelo abierto: cada operación llega a tasa fija, sin esperar a que terminen las anteriores.
+ * La latencia se mide desde el instante programado de llegada, así un backend saturado no "frena" al
+ * generador (sin omisión coordinada).
+ */
+public class Workload {
+
+    private static final String[] REPORT_PATHS = {
+            "/reports/dashboard", "/reports/active-loans", "/reports/top-tools",
+            "/reports/customers-with-debt", "/reports/overdue-customers"};
+
+    private final LoadConfig config;
+    private final String baseUrl;
+    private final DataSeeder.Seed seed;
+    private final List<String> tokens;
+    private final HttpClient http;
+    private final ExecutorService responseExecutor;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Semaphore inFlight;
+    private final Queue<Long> openLoans = new ConcurrentLinkedQueue<>();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final AtomicLong reportRotation = new AtomicLong();
+
+    public Workload(LoadConfig config, String baseUrl, DataSeeder.Seed seed, List<String> tokens) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.seed = seed;
+        this.tokens = tokens;
+        this.responseExecutor = Executors.newFixedThreadPool(8);
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(responseExecutor)
+                .build();
+        this.inFlight = new Semaphore(config.maxInFlight());
+        stats("POST /loans");
+        stats("PUT /loans/{id}/return");
+        stats("GET /tools/available");
+        stats("GET /kardex");
+        stats("GET /kardex/stream");
+        for (String path : REPORT_PATHS) {
+            stats("GET " + path);
+        }
+    }
+
+    private EndpointStats stats(String name) {
+        return stats.computeIfAbsent(name, EndpointStats::new);
+    }
+
+    // afterWarmup: p.ej. limpiar contadores del backend junto con los histogramas
+    public List<EndpointStats> run(Runnable afterWarmup) throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Operation.values().length);
+        List<ScheduledFuture<?>> arrivals = new ArrayList<>();
+        long start = System.nanoTime();
+
+        config.rates().forEach((op, rate) -> {
+            if (rate <= 0) return;
+            long periodNanos = (long) (1_000_000_000L / rate);
+            AtomicLong tick = new AtomicLong();
+            arrivals.add(scheduler.scheduleAtFixedRate(
+                    () -> fire(op, start + tick.getAndIncrement() * periodNanos),
+                    0, periodNanos, TimeUnit.NANOSECONDS));
+        });
+
+        Thread.sleep(config.warmup().toMillis());
+        stats.values().forEach(EndpointStats::reset);
+        afterWarmup.run();
+        System.out.println("Calentamiento terminado, midiendo " + config.duration().toSeconds() + " s...");
+        Thread.sleep(config.duration().toMillis());
+
+        arrivals.forEach(f -> f.cancel(false));
+        scheduler.shutdown();
+        // Espera a las peticiones en vuelo antes de cerrar los histogramas
+        inFlight.tryAcquire(config.maxInFlight(), 30, TimeUnit.SECONDS);
+
+        List<EndpointStats> result = new ArrayList<>(stats.values());
+        result.forEach(EndpointStats::finish);
+        responseExecutor.shutdownNow();
+        return result;
+    }
+
+    private void fire(Operation op, long intendedStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (op) {
+            case CHECKOUT -> {
+                long groupId = seed.toolGroupIds().get(random.nextInt(seed.toolGroupIds().size()));
+                long customerId = seed.customerIds().get(random.nextInt(seed.customerIds().size()));
+                String due = LocalDateTime.now().plusDays(1 + random.nextInt(14))
+                        .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                send("POST /loans", intendedStart, request("/loans?toolGroupId=" + groupId
+                        + "&customerId=" + customerId + "&dueDate=" + due)
+                        .POST(HttpRequest.BodyPublishers.noBody()), true);
+            }
+            case RETURN -> {
+                Long loanId = openLoans.poll();
+                if (loanId == null) {
+                    stats("PUT /loans/{id}/return").recordDropped(); // aún no hay préstamos para devolver
+                    return;
+                }
+                double damage = random.nextInt(100) < 5 ? 5000.0 : 0.0;
+                send("PUT /loans/{id}/return", intendedStart, request("/loans/" + loanId
+                        + "/return?damageCharge=" + damage)
+                        .PUT(HttpRequest.BodyPublishers.noBody()), false);
+            }
+            case TOOLS -> send("GET /tools/available", intendedStart, request("/tools/available").GET(), false);
+            case KARDEX -> send("GET /kardex", intendedStart, request("/kardex").GET(), false);
+            case KARDEX_STREAM -> send("GET /kardex/stream", intendedStart, request("/kardex/stream").GET(), false);
+            case REPORTS -> {
+                String path = REPORT_PATHS[(int) (reportRotation.getAndIncrement() % REPORT_PATHS.length)];
+                send("GET " + path, intendedStart, request(path).GET(), false);
+            }
+        }
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery) {
+        String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+        return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private void send(String name, long intendedStart, HttpRequest.Builder builder, boolean trackLoan) {
+        EndpointStats endpoint = stats.get(name);
+        if (!inFlight.tryAcquire()) {
+            endpoint.recordDropped();
+            return;
+        }
+        http.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, ex) -> {
+                    try {
+                        if (ex != null) {
+                            endpoint.recordError(intendedStart);
+                            return;
+                        }
+                        endpoint.record(intendedStart, response.statusCode());
+                        if (trackLoan && response.statusCode() == 200) {
+                            trackLoan(response.body());
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private void trackLoan(String body) {
+        try {
+            JsonNode id = mapper.readTree(body).get("id");
+            if (id != null) {
+                openLoans.add(id.asLong());
+            }
+        } catch (Exception ignored) {
+            // respuesta no JSON: no se puede devolver más tarde
+        }
+    }
+}